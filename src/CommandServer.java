@@ -0,0 +1,236 @@
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * CS 3345 HON
+ * Network server for the one-letter command protocols of Projects 1 and 2
+ * Used compiler Java 14.0.1
+ * @author UGQM
+ */
+
+interface CommandProcessor {
+
+    /**
+     * Executes one line of a command protocol, printing its response (if any) to the specified PrintStream.
+     * @param line the command line to be executed
+     * @param out the PrintStream that the response is to be printed to
+     * @return false if the line ends the session (i.e., is an E command), true otherwise
+     */
+    boolean execute(String line, PrintStream out);
+
+}
+
+public class CommandServer implements Closeable {
+
+    // Symbolic Constants
+    public static final int MAX_BATCH_LINES = 1024; // most pipelined lines executed (and answered) as one batch
+
+    // Reads lines (ending in \n or \r\n) of US-ASCII text from a stream, like BufferedReader.readLine(), but can
+    // also tell without blocking whether a complete line has already arrived
+    private static final class LineReader {
+
+        private final InputStream in;
+        private byte[] buffer;
+        private int start; // the buffered bytes not yet returned are [start, end)
+        private int end;
+        private int scanned; // [start, scanned) is known to contain no '\n'
+
+        private LineReader(InputStream in) {
+            this.in = in;
+            this.buffer = new byte[8192];
+            this.start = 0;
+            this.end = 0;
+            this.scanned = 0;
+        }
+
+        // Gives the position of the first buffered '\n', or -1 if there is none
+        private int findNewline() {
+            while (this.scanned < this.end) {
+                if (this.buffer[this.scanned] == '\n') {
+                    return this.scanned;
+                }
+                this.scanned++;
+            }
+            return -1;
+        }
+
+        // Reads at least one and at most maxBytes more bytes (blocking until some arrive), making room first;
+        // gives false at the end of the stream
+        private boolean fill(int maxBytes) throws IOException {
+            if (this.start > 0) {
+                System.arraycopy(this.buffer, this.start, this.buffer, 0, this.end - this.start);
+                this.end -= this.start;
+                this.scanned -= this.start;
+                this.start = 0;
+            }
+            if (this.end == this.buffer.length) {
+                this.buffer = Arrays.copyOf(this.buffer, 2 * this.buffer.length);
+            }
+            int read = this.in.read(this.buffer, this.end, Math.min(maxBytes, this.buffer.length - this.end));
+            if (read < 0) {
+                return false;
+            }
+            this.end += read;
+            return true;
+        }
+
+        // Determines whether a complete line has arrived, taking in whatever bytes can be read without blocking
+        private boolean hasLine() throws IOException {
+            if (this.findNewline() >= 0) {
+                return true;
+            }
+            int available = this.in.available();
+            return available > 0 && this.fill(available) && this.findNewline() >= 0;
+        }
+
+        // Gives the next line without its terminator, blocking until it is complete, or null at the end of the
+        // stream; as with BufferedReader, a final line without a terminator is still returned
+        private String readLine() throws IOException {
+            int newline;
+            while ((newline = this.findNewline()) < 0) {
+                if (!this.fill(Integer.MAX_VALUE)) {
+                    if (this.start == this.end) {
+                        return null;
+                    }
+                    newline = this.end;
+                    break;
+                }
+            }
+            int lineEnd = newline > this.start && this.buffer[newline - 1] == '\r' ? newline - 1 : newline;
+            String line = new String(this.buffer, this.start, lineEnd - this.start, StandardCharsets.US_ASCII);
+            this.start = Math.min(newline + 1, this.end);
+            this.scanned = this.start;
+            return line;
+        }
+
+    }
+
+    private final ServerSocket serverSocket;
+    private final CommandProcessor processor;
+    private final ExecutorService connections;
+
+    /**
+     * Creates and returns a new CommandServer listening on the specified port of the loopback interface. Each
+     * connection speaks the protocol of the specified CommandProcessor, one command per line, exactly as in the
+     * data file read by the corresponding batch driver; an E command closes the connection (but not the server).
+     * Clients may pipeline commands: the complete lines that have arrived together (up to MAX_BATCH_LINES of
+     * them) are executed as one batch (holding the processor's lock, since the structures behind it are not
+     * thread-safe) and their responses are sent back in one write. Each connection is served by its own pooled
+     * thread.
+     * @param port the TCP port to listen on, or 0 to choose any free port (see getPort())
+     * @param processor the CommandProcessor that executes commands; shared by all connections
+     * @throws IOException if the port cannot be bound
+     */
+    public CommandServer(int port, CommandProcessor processor) throws IOException {
+        this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        this.processor = processor;
+        this.connections = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "CommandServer connection");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Gives the TCP port that this CommandServer is listening on.
+     * @return the local port number
+     */
+    public int getPort() {
+        return this.serverSocket.getLocalPort();
+    }
+
+    /**
+     * Accepts connections until this CommandServer is closed, serving each on its own thread.
+     * @throws IOException if accepting a connection fails for a reason other than the server being closed
+     */
+    public void run() throws IOException {
+        while (!this.serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = this.serverSocket.accept();
+            } catch (IOException e) {
+                if (this.serverSocket.isClosed()) {
+                    return;
+                }
+                throw e;
+            }
+            this.connections.execute(() -> this.serve(socket));
+        }
+    }
+
+    // Reads, executes, and answers batches of commands from one connection until it sends E or disconnects
+    private void serve(Socket socket) {
+        try (socket) {
+            LineReader in = new LineReader(socket.getInputStream());
+            OutputStream raw = socket.getOutputStream();
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            PrintStream out = new PrintStream(buffer, false, StandardCharsets.US_ASCII);
+            List<String> batch = new ArrayList<>();
+
+            boolean open = true;
+            while (open) {
+
+                // Gather the complete lines that have already arrived (blocking only for the first), stopping at
+                // MAX_BATCH_LINES so that a client streaming without pause still gets its responses as it goes;
+                // a partial line that follows them is left for the next batch rather than waited for
+                String line = in.readLine();
+                if (line == null) {
+                    return;
+                }
+                batch.add(line);
+                while (batch.size() < MAX_BATCH_LINES && in.hasLine()) {
+                    batch.add(in.readLine());
+                }
+
+                synchronized (this.processor) {
+                    for (int i = 0; i < batch.size() && open; i++) {
+                        open = this.executeSafely(batch.get(i), out);
+                    }
+                }
+                batch.clear();
+
+                out.flush();
+                buffer.writeTo(raw);
+                raw.flush();
+                buffer.reset();
+
+            }
+        } catch (IOException e) {
+            // the client disconnected abruptly; nothing is left to answer
+        }
+    }
+
+    // Executes one line, answering lines that cannot be parsed or executed (which would end a batch driver)
+    // instead of dropping the client
+    private boolean executeSafely(String line, PrintStream out) {
+        try {
+            return this.processor.execute(line, out);
+        } catch (IndexOutOfBoundsException | NumberFormatException e) { // a missing or malformed parameter
+            out.println("Invalid input line: " + line);
+            return true;
+        } catch (RuntimeException e) { // e.g., overflow of a full table
+            out.println("Failed input line: " + line + " (" + e.getMessage() + ")");
+            return true;
+        }
+    }
+
+    /**
+     * Stops accepting connections and closes this CommandServer. Connections already open are served until
+     * their clients disconnect.
+     * @throws IOException if the listening socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.serverSocket.close();
+        this.connections.shutdown();
+    }
+
+}
@@ -0,0 +1,942 @@
+/**
+ * CS 3345 HON
+ * Primitive-specialized variants of the SkipList (Project 1) and MyHashTable (Project 2)
+ * Used compiler Java 14.0.1
+ * @author UGQM
+ */
+
+// GENERATED FILE: do not edit. The classes below are produced by PrimitiveCollectionsGenerator from
+// PrimitiveCollections.template, which holds one copy of each interface and algorithm; edit the template and
+// regenerate with
+//     java PrimitiveCollectionsGenerator PrimitiveCollections.template PrimitiveCollections.java
+
+interface PrimitiveMap {
+
+    /**
+     * Gives the number of key/value pairs in this map.
+     * @return this map's size
+     */
+    int membership();
+
+}
+
+interface IntKeyMap extends PrimitiveMap {
+
+    /**
+     * Determines whether or not a given key exists in this map.
+     * @param key the key whose presence is to be checked
+     * @return true if key is present, false otherwise
+     */
+    boolean isPresent(int key);
+
+    /**
+     * Removes the key/value pair with the specified key from this map.
+     * @param key the key of the key/value pair to be removed
+     * @return false if key is not present, true otherwise
+     */
+    boolean delete(int key);
+
+}
+
+interface LongKeyMap extends PrimitiveMap {
+
+    /**
+     * Determines whether or not a given key exists in this map.
+     * @param key the key whose presence is to be checked
+     * @return true if key is present, false otherwise
+     */
+    boolean isPresent(long key);
+
+    /**
+     * Removes the key/value pair with the specified key from this map.
+     * @param key the key of the key/value pair to be removed
+     * @return false if key is not present, true otherwise
+     */
+    boolean delete(long key);
+
+}
+
+interface IntLongMap extends IntKeyMap {
+
+    /**
+     * Adds a new key/value pair to this map.
+     * @param key the key of the key/value pair to be inserted
+     * @param value the value of the key/value pair to be inserted
+     * @return false if key is already present (and the old value is kept), true otherwise
+     */
+    boolean insert(int key, long value);
+
+    /**
+     * Searches for the specified key and returns its value.
+     * @param key the key to search for
+     * @param missing the value to be returned if key is not present
+     * @return the value of the key if it is present, missing otherwise
+     */
+    long find(int key, long missing);
+
+}
+
+class IntLongSkipList implements IntLongMap {
+
+    private static final class Node {
+
+        private final int key;
+        private final long value;
+        private final Node[] forward; // index 0 remains unused to be consistent with level numbers
+
+        private Node(int key, long value, int level) {
+            this.key = key;
+            this.value = value;
+            this.forward = new Node[level + 1];
+        }
+
+    }
+
+    public final double p;
+
+    private int level;
+    private final int maxLevel;
+    private final Node header; // the end of every level; compared by identity, so every key value is usable
+
+    private int size;
+
+    /**
+     * Creates and returns a new IntLongSkipList; see the SkipList constructor for details.
+     * @param p a value in the range [0,1] that determines the distribution of the heights of this list's Nodes
+     * @param maxLevel the maximum possible number of levels in this IntLongSkipList; must be at least 1
+     */
+    public IntLongSkipList(double p, int maxLevel) {
+        this.p = p;
+        this.level = 1;
+        this.maxLevel = maxLevel;
+        this.header = new Node(0, 0L, maxLevel);
+        for (int i = 1; i <= maxLevel; i++) {
+            this.header.forward[i] = this.header;
+        }
+        this.size = 0;
+    }
+
+    // See SkipList.chooseLevel()
+    private int chooseLevel() {
+        int level = 1;
+        while (Math.random() < p && level < this.maxLevel) {
+            level++;
+        }
+        return level;
+    }
+
+    // See SkipList.getPredecessors(), except that the header ends every level
+    private Node[] getPredecessors(int key) {
+        Node[] predecessors = new Node[this.maxLevel + 1];
+        Node now = this.header;
+        for (int i = this.level; i >= 1; i--) {
+            while (now.forward[i] != this.header && now.forward[i].key < key) {
+                now = now.forward[i];
+            }
+            predecessors[i] = now;
+        }
+        return predecessors;
+    }
+
+    @Override
+    public boolean insert(int key, long value) {
+        Node[] predecessors = this.getPredecessors(key);
+        Node subject = predecessors[1].forward[1];
+        if (subject != this.header && subject.key == key) {
+            return false;
+        }
+
+        int newLevel = this.chooseLevel();
+        if (newLevel > this.level) {
+            newLevel = ++this.level;
+            predecessors[newLevel] = this.header;
+        }
+        subject = new Node(key, value, newLevel);
+        for (int i = 1; i <= newLevel; i++) {
+            subject.forward[i] = predecessors[i].forward[i];
+            predecessors[i].forward[i] = subject;
+        }
+        this.size++;
+        return true;
+    }
+
+    @Override
+    public boolean isPresent(int key) {
+        return this.findNode(key) != null;
+    }
+
+    @Override
+    public long find(int key, long missing) {
+        Node found = this.findNode(key);
+        return found == null ? missing : found.value;
+    }
+
+    // Gives the Node with the specified key, or null if there is none
+    private Node findNode(int key) {
+        Node now = this.header;
+        for (int i = this.level; i >= 1; i--) {
+            while (now.forward[i] != this.header && now.forward[i].key < key) {
+                now = now.forward[i];
+            }
+        }
+        now = now.forward[1];
+        return now != this.header && now.key == key ? now : null;
+    }
+
+    @Override
+    public boolean delete(int key) {
+        Node[] predecessors = this.getPredecessors(key);
+        Node subject = predecessors[1].forward[1];
+        if (subject == this.header || subject.key != key) {
+            return false;
+        }
+
+        for (int i = 1; i <= this.level && predecessors[i].forward[i] == subject; i++) {
+            predecessors[i].forward[i] = subject.forward[i];
+        }
+        while (this.level > 1 && this.header.forward[this.level] == this.header) {
+            this.level--;
+        }
+        this.size--;
+        return true;
+    }
+
+    @Override
+    public int membership() {
+        return this.size;
+    }
+
+}
+
+class IntLongHashTable implements IntLongMap {
+
+    // Symbolic Constants (see Entry)
+    private static final byte UNUSED = 0;
+    private static final byte FREE = 1;
+    private static final byte OCCUPIED = 2;
+
+    private final int r;
+    private final int[] keys; // the Entry objects of MyHashTable are replaced by parallel arrays
+    private final long[] values;
+    private final byte[] avail; // UNUSED, FREE, or OCCUPIED
+
+    private int currentMembership;
+
+    /**
+     * Creates and returns a new IntLongHashTable of a fixed size that uses Double Hashing where the secondary hash
+     * function is given by h_2(y) = R - (h_1(y) mod R), as in MyHashTable. Every step along a probe sequence is
+     * then in [1, R], so R must be less than sz; as in MyHashTable, sz should be prime so that every probe
+     * sequence visits every slot.
+     * @param sz the (fixed) size of this IntLongHashTable; must be at least 1 and should be prime
+     * @param R the value to be used in the equation for the secondary hash function shown above; must be at least
+     *          1 and less than sz (unless sz is 1)
+     */
+    public IntLongHashTable(int sz, int R) {
+        if (sz < 1 || R < 1 || (R >= sz && sz > 1)) {
+            throw new IllegalArgumentException("IntLongHashTable cannot have size " + sz + " and R " + R
+                                               + ": R must be in [1, size - 1].");
+        }
+        this.r = R;
+        this.keys = new int[sz];
+        this.values = new long[sz];
+        this.avail = new byte[sz];
+        this.currentMembership = 0;
+    }
+
+    /**
+     * Produces and returns a hash code in the range [0, tableSize - 1] for the key specified.
+     * @param key the key to be hashed
+     * @param tableSize the number of possible hash codes, i.e., the size of the destination hash table
+     * @return an integer hash code in the range [0, tableSize - 1]
+     */
+    public static int hash(int key, int tableSize) {
+        return Integer.remainderUnsigned(key, tableSize);
+    }
+
+    // Produces and returns a secondary hash code for use in probing.
+    private int secondHash(int hash) {
+        return this.r - Integer.remainderUnsigned(hash, this.r);
+    }
+
+    // Gives the slot after index in a probe sequence with the specified step; unlike hash1 + i * hash2, this
+    // cannot overflow, so the sequence remains a permutation of the slots however large the table is
+    private int nextProbe(int index, int step) {
+        return index < this.keys.length - step ? index + step : index - (this.keys.length - step);
+    }
+
+    // Gives the index of the slot holding the specified key, or -1 if the key is not present
+    private int indexOf(int key) {
+        int index = hash(key, this.keys.length);
+        int hash2 = this.secondHash(index);
+        for (int i = 0; i < this.keys.length; i++, index = this.nextProbe(index, hash2)) {
+            if (this.avail[index] == OCCUPIED) {
+                if (this.keys[index] == key) {
+                    return index;
+                }
+            } else if (this.avail[index] == UNUSED) {
+                return -1; // this slot has never been subject to insertion, so no need to probe further
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Inserts the specified key/value pair into an empty slot in this IntLongHashTable, if possible. Unlike
+     * MyHashTable.insert(), the duplicate check and the search for a slot share one probe sequence: the
+     * first non-OCCUPIED slot is remembered until the key is known to be absent. Throws an
+     * UnsupportedOperationException on table overflow.
+     * @param key the key of the key/value pair to be inserted
+     * @param value the value of the key/value pair to be inserted
+     * @return false if key is already present (and the old value is kept), true otherwise
+     */
+    @Override
+    public boolean insert(int key, long value) {
+        int index = hash(key, this.keys.length);
+        int hash2 = this.secondHash(index);
+        int slot = -1;
+        for (int i = 0; i < this.keys.length; i++, index = this.nextProbe(index, hash2)) {
+            if (this.avail[index] == OCCUPIED) {
+                if (this.keys[index] == key) {
+                    return false;
+                }
+            } else {
+                if (slot < 0) {
+                    slot = index;
+                }
+                if (this.avail[index] == UNUSED) {
+                    break; // the key cannot appear any further along the probe sequence
+                }
+            }
+        }
+        if (slot < 0) {
+            throw new UnsupportedOperationException("Overflow: cannot insert unknown key into full "
+                                                    + "IntLongHashTable.");
+        }
+        this.keys[slot] = key;
+        this.values[slot] = value;
+        this.avail[slot] = OCCUPIED;
+        this.currentMembership++;
+        return true;
+    }
+
+    @Override
+    public boolean isPresent(int key) {
+        return this.indexOf(key) >= 0;
+    }
+
+    @Override
+    public long find(int key, long missing) {
+        int index = this.indexOf(key);
+        return index < 0 ? missing : this.values[index];
+    }
+
+    @Override
+    public boolean delete(int key) {
+        int index = this.indexOf(key);
+        if (index < 0) {
+            return false;
+        }
+        this.avail[index] = FREE;
+        this.currentMembership--;
+        return true;
+    }
+
+    @Override
+    public int membership() {
+        return this.currentMembership;
+    }
+
+}
+
+interface LongLongMap extends LongKeyMap {
+
+    /**
+     * Adds a new key/value pair to this map.
+     * @param key the key of the key/value pair to be inserted
+     * @param value the value of the key/value pair to be inserted
+     * @return false if key is already present (and the old value is kept), true otherwise
+     */
+    boolean insert(long key, long value);
+
+    /**
+     * Searches for the specified key and returns its value.
+     * @param key the key to search for
+     * @param missing the value to be returned if key is not present
+     * @return the value of the key if it is present, missing otherwise
+     */
+    long find(long key, long missing);
+
+}
+
+class LongLongSkipList implements LongLongMap {
+
+    private static final class Node {
+
+        private final long key;
+        private final long value;
+        private final Node[] forward; // index 0 remains unused to be consistent with level numbers
+
+        private Node(long key, long value, int level) {
+            this.key = key;
+            this.value = value;
+            this.forward = new Node[level + 1];
+        }
+
+    }
+
+    public final double p;
+
+    private int level;
+    private final int maxLevel;
+    private final Node header; // the end of every level; compared by identity, so every key value is usable
+
+    private int size;
+
+    /**
+     * Creates and returns a new LongLongSkipList; see the SkipList constructor for details.
+     * @param p a value in the range [0,1] that determines the distribution of the heights of this list's Nodes
+     * @param maxLevel the maximum possible number of levels in this LongLongSkipList; must be at least 1
+     */
+    public LongLongSkipList(double p, int maxLevel) {
+        this.p = p;
+        this.level = 1;
+        this.maxLevel = maxLevel;
+        this.header = new Node(0L, 0L, maxLevel);
+        for (int i = 1; i <= maxLevel; i++) {
+            this.header.forward[i] = this.header;
+        }
+        this.size = 0;
+    }
+
+    // See SkipList.chooseLevel()
+    private int chooseLevel() {
+        int level = 1;
+        while (Math.random() < p && level < this.maxLevel) {
+            level++;
+        }
+        return level;
+    }
+
+    // See SkipList.getPredecessors(), except that the header ends every level
+    private Node[] getPredecessors(long key) {
+        Node[] predecessors = new Node[this.maxLevel + 1];
+        Node now = this.header;
+        for (int i = this.level; i >= 1; i--) {
+            while (now.forward[i] != this.header && now.forward[i].key < key) {
+                now = now.forward[i];
+            }
+            predecessors[i] = now;
+        }
+        return predecessors;
+    }
+
+    @Override
+    public boolean insert(long key, long value) {
+        Node[] predecessors = this.getPredecessors(key);
+        Node subject = predecessors[1].forward[1];
+        if (subject != this.header && subject.key == key) {
+            return false;
+        }
+
+        int newLevel = this.chooseLevel();
+        if (newLevel > this.level) {
+            newLevel = ++this.level;
+            predecessors[newLevel] = this.header;
+        }
+        subject = new Node(key, value, newLevel);
+        for (int i = 1; i <= newLevel; i++) {
+            subject.forward[i] = predecessors[i].forward[i];
+            predecessors[i].forward[i] = subject;
+        }
+        this.size++;
+        return true;
+    }
+
+    @Override
+    public boolean isPresent(long key) {
+        return this.findNode(key) != null;
+    }
+
+    @Override
+    public long find(long key, long missing) {
+        Node found = this.findNode(key);
+        return found == null ? missing : found.value;
+    }
+
+    // Gives the Node with the specified key, or null if there is none
+    private Node findNode(long key) {
+        Node now = this.header;
+        for (int i = this.level; i >= 1; i--) {
+            while (now.forward[i] != this.header && now.forward[i].key < key) {
+                now = now.forward[i];
+            }
+        }
+        now = now.forward[1];
+        return now != this.header && now.key == key ? now : null;
+    }
+
+    @Override
+    public boolean delete(long key) {
+        Node[] predecessors = this.getPredecessors(key);
+        Node subject = predecessors[1].forward[1];
+        if (subject == this.header || subject.key != key) {
+            return false;
+        }
+
+        for (int i = 1; i <= this.level && predecessors[i].forward[i] == subject; i++) {
+            predecessors[i].forward[i] = subject.forward[i];
+        }
+        while (this.level > 1 && this.header.forward[this.level] == this.header) {
+            this.level--;
+        }
+        this.size--;
+        return true;
+    }
+
+    @Override
+    public int membership() {
+        return this.size;
+    }
+
+}
+
+class LongLongHashTable implements LongLongMap {
+
+    // Symbolic Constants (see Entry)
+    private static final byte UNUSED = 0;
+    private static final byte FREE = 1;
+    private static final byte OCCUPIED = 2;
+
+    private final int r;
+    private final long[] keys; // the Entry objects of MyHashTable are replaced by parallel arrays
+    private final long[] values;
+    private final byte[] avail; // UNUSED, FREE, or OCCUPIED
+
+    private int currentMembership;
+
+    /**
+     * Creates and returns a new LongLongHashTable of a fixed size that uses Double Hashing where the secondary hash
+     * function is given by h_2(y) = R - (h_1(y) mod R), as in MyHashTable. Every step along a probe sequence is
+     * then in [1, R], so R must be less than sz; as in MyHashTable, sz should be prime so that every probe
+     * sequence visits every slot.
+     * @param sz the (fixed) size of this LongLongHashTable; must be at least 1 and should be prime
+     * @param R the value to be used in the equation for the secondary hash function shown above; must be at least
+     *          1 and less than sz (unless sz is 1)
+     */
+    public LongLongHashTable(int sz, int R) {
+        if (sz < 1 || R < 1 || (R >= sz && sz > 1)) {
+            throw new IllegalArgumentException("LongLongHashTable cannot have size " + sz + " and R " + R
+                                               + ": R must be in [1, size - 1].");
+        }
+        this.r = R;
+        this.keys = new long[sz];
+        this.values = new long[sz];
+        this.avail = new byte[sz];
+        this.currentMembership = 0;
+    }
+
+    /**
+     * Produces and returns a hash code in the range [0, tableSize - 1] for the key specified.
+     * @param key the key to be hashed
+     * @param tableSize the number of possible hash codes, i.e., the size of the destination hash table
+     * @return an integer hash code in the range [0, tableSize - 1]
+     */
+    public static int hash(long key, int tableSize) {
+        return Integer.remainderUnsigned((int) (key ^ (key >>> 32)), tableSize);
+    }
+
+    // Produces and returns a secondary hash code for use in probing.
+    private int secondHash(int hash) {
+        return this.r - Integer.remainderUnsigned(hash, this.r);
+    }
+
+    // Gives the slot after index in a probe sequence with the specified step; unlike hash1 + i * hash2, this
+    // cannot overflow, so the sequence remains a permutation of the slots however large the table is
+    private int nextProbe(int index, int step) {
+        return index < this.keys.length - step ? index + step : index - (this.keys.length - step);
+    }
+
+    // Gives the index of the slot holding the specified key, or -1 if the key is not present
+    private int indexOf(long key) {
+        int index = hash(key, this.keys.length);
+        int hash2 = this.secondHash(index);
+        for (int i = 0; i < this.keys.length; i++, index = this.nextProbe(index, hash2)) {
+            if (this.avail[index] == OCCUPIED) {
+                if (this.keys[index] == key) {
+                    return index;
+                }
+            } else if (this.avail[index] == UNUSED) {
+                return -1; // this slot has never been subject to insertion, so no need to probe further
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Inserts the specified key/value pair into an empty slot in this LongLongHashTable, if possible. Unlike
+     * MyHashTable.insert(), the duplicate check and the search for a slot share one probe sequence: the
+     * first non-OCCUPIED slot is remembered until the key is known to be absent. Throws an
+     * UnsupportedOperationException on table overflow.
+     * @param key the key of the key/value pair to be inserted
+     * @param value the value of the key/value pair to be inserted
+     * @return false if key is already present (and the old value is kept), true otherwise
+     */
+    @Override
+    public boolean insert(long key, long value) {
+        int index = hash(key, this.keys.length);
+        int hash2 = this.secondHash(index);
+        int slot = -1;
+        for (int i = 0; i < this.keys.length; i++, index = this.nextProbe(index, hash2)) {
+            if (this.avail[index] == OCCUPIED) {
+                if (this.keys[index] == key) {
+                    return false;
+                }
+            } else {
+                if (slot < 0) {
+                    slot = index;
+                }
+                if (this.avail[index] == UNUSED) {
+                    break; // the key cannot appear any further along the probe sequence
+                }
+            }
+        }
+        if (slot < 0) {
+            throw new UnsupportedOperationException("Overflow: cannot insert unknown key into full "
+                                                    + "LongLongHashTable.");
+        }
+        this.keys[slot] = key;
+        this.values[slot] = value;
+        this.avail[slot] = OCCUPIED;
+        this.currentMembership++;
+        return true;
+    }
+
+    @Override
+    public boolean isPresent(long key) {
+        return this.indexOf(key) >= 0;
+    }
+
+    @Override
+    public long find(long key, long missing) {
+        int index = this.indexOf(key);
+        return index < 0 ? missing : this.values[index];
+    }
+
+    @Override
+    public boolean delete(long key) {
+        int index = this.indexOf(key);
+        if (index < 0) {
+            return false;
+        }
+        this.avail[index] = FREE;
+        this.currentMembership--;
+        return true;
+    }
+
+    @Override
+    public int membership() {
+        return this.currentMembership;
+    }
+
+}
+
+interface LongObjectMap<V> extends LongKeyMap {
+
+    /**
+     * Adds a new key/value pair to this map.
+     * @param key the key of the key/value pair to be inserted
+     * @param value the value of the key/value pair to be inserted; must not be null
+     * @return false if key is already present (and the old value is kept), true otherwise
+     */
+    boolean insert(long key, V value);
+
+    /**
+     * Searches for the specified key and returns its value.
+     * @param key the key to search for
+     * @return the value of the key if it is present, null otherwise
+     */
+    V find(long key);
+
+}
+
+class LongObjectSkipList<V> implements LongObjectMap<V> {
+
+    private static final class Node<V> {
+
+        private final long key;
+        private final V value;
+        private final Node<V>[] forward; // index 0 remains unused to be consistent with level numbers
+
+        @SuppressWarnings("unchecked")
+        private Node(long key, V value, int level) {
+            this.key = key;
+            this.value = value;
+            this.forward = (Node<V>[]) new Node<?>[level + 1];
+        }
+
+    }
+
+    public final double p;
+
+    private int level;
+    private final int maxLevel;
+    private final Node<V> header; // the end of every level; compared by identity, so every key value is usable
+
+    private int size;
+
+    /**
+     * Creates and returns a new LongObjectSkipList; see the SkipList constructor for details.
+     * @param p a value in the range [0,1] that determines the distribution of the heights of this list's Nodes
+     * @param maxLevel the maximum possible number of levels in this LongObjectSkipList; must be at least 1
+     */
+    public LongObjectSkipList(double p, int maxLevel) {
+        this.p = p;
+        this.level = 1;
+        this.maxLevel = maxLevel;
+        this.header = new Node<>(0L, null, maxLevel);
+        for (int i = 1; i <= maxLevel; i++) {
+            this.header.forward[i] = this.header;
+        }
+        this.size = 0;
+    }
+
+    // See SkipList.chooseLevel()
+    private int chooseLevel() {
+        int level = 1;
+        while (Math.random() < p && level < this.maxLevel) {
+            level++;
+        }
+        return level;
+    }
+
+    // See SkipList.getPredecessors(), except that the header ends every level
+    private Node<V>[] getPredecessors(long key) {
+        @SuppressWarnings("unchecked")
+        Node<V>[] predecessors = (Node<V>[]) new Node<?>[this.maxLevel + 1];
+        Node<V> now = this.header;
+        for (int i = this.level; i >= 1; i--) {
+            while (now.forward[i] != this.header && now.forward[i].key < key) {
+                now = now.forward[i];
+            }
+            predecessors[i] = now;
+        }
+        return predecessors;
+    }
+
+    @Override
+    public boolean insert(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Cannot insert a null value: null signals an absent key.");
+        }
+        Node<V>[] predecessors = this.getPredecessors(key);
+        Node<V> subject = predecessors[1].forward[1];
+        if (subject != this.header && subject.key == key) {
+            return false;
+        }
+
+        int newLevel = this.chooseLevel();
+        if (newLevel > this.level) {
+            newLevel = ++this.level;
+            predecessors[newLevel] = this.header;
+        }
+        subject = new Node<>(key, value, newLevel);
+        for (int i = 1; i <= newLevel; i++) {
+            subject.forward[i] = predecessors[i].forward[i];
+            predecessors[i].forward[i] = subject;
+        }
+        this.size++;
+        return true;
+    }
+
+    @Override
+    public boolean isPresent(long key) {
+        return this.findNode(key) != null;
+    }
+
+    @Override
+    public V find(long key) {
+        Node<V> found = this.findNode(key);
+        return found == null ? null : found.value;
+    }
+
+    // Gives the Node with the specified key, or null if there is none
+    private Node<V> findNode(long key) {
+        Node<V> now = this.header;
+        for (int i = this.level; i >= 1; i--) {
+            while (now.forward[i] != this.header && now.forward[i].key < key) {
+                now = now.forward[i];
+            }
+        }
+        now = now.forward[1];
+        return now != this.header && now.key == key ? now : null;
+    }
+
+    @Override
+    public boolean delete(long key) {
+        Node<V>[] predecessors = this.getPredecessors(key);
+        Node<V> subject = predecessors[1].forward[1];
+        if (subject == this.header || subject.key != key) {
+            return false;
+        }
+
+        for (int i = 1; i <= this.level && predecessors[i].forward[i] == subject; i++) {
+            predecessors[i].forward[i] = subject.forward[i];
+        }
+        while (this.level > 1 && this.header.forward[this.level] == this.header) {
+            this.level--;
+        }
+        this.size--;
+        return true;
+    }
+
+    @Override
+    public int membership() {
+        return this.size;
+    }
+
+}
+
+class LongObjectHashTable<V> implements LongObjectMap<V> {
+
+    // Symbolic Constants (see Entry)
+    private static final byte UNUSED = 0;
+    private static final byte FREE = 1;
+    private static final byte OCCUPIED = 2;
+
+    private final int r;
+    private final long[] keys; // the Entry objects of MyHashTable are replaced by parallel arrays
+    private final Object[] values;
+    private final byte[] avail; // UNUSED, FREE, or OCCUPIED
+
+    private int currentMembership;
+
+    /**
+     * Creates and returns a new LongObjectHashTable of a fixed size that uses Double Hashing where the secondary hash
+     * function is given by h_2(y) = R - (h_1(y) mod R), as in MyHashTable. Every step along a probe sequence is
+     * then in [1, R], so R must be less than sz; as in MyHashTable, sz should be prime so that every probe
+     * sequence visits every slot.
+     * @param sz the (fixed) size of this LongObjectHashTable; must be at least 1 and should be prime
+     * @param R the value to be used in the equation for the secondary hash function shown above; must be at least
+     *          1 and less than sz (unless sz is 1)
+     */
+    public LongObjectHashTable(int sz, int R) {
+        if (sz < 1 || R < 1 || (R >= sz && sz > 1)) {
+            throw new IllegalArgumentException("LongObjectHashTable cannot have size " + sz + " and R " + R
+                                               + ": R must be in [1, size - 1].");
+        }
+        this.r = R;
+        this.keys = new long[sz];
+        this.values = new Object[sz];
+        this.avail = new byte[sz];
+        this.currentMembership = 0;
+    }
+
+    /**
+     * Produces and returns a hash code in the range [0, tableSize - 1] for the key specified.
+     * @param key the key to be hashed
+     * @param tableSize the number of possible hash codes, i.e., the size of the destination hash table
+     * @return an integer hash code in the range [0, tableSize - 1]
+     */
+    public static int hash(long key, int tableSize) {
+        return Integer.remainderUnsigned((int) (key ^ (key >>> 32)), tableSize);
+    }
+
+    // Produces and returns a secondary hash code for use in probing.
+    private int secondHash(int hash) {
+        return this.r - Integer.remainderUnsigned(hash, this.r);
+    }
+
+    // Gives the slot after index in a probe sequence with the specified step; unlike hash1 + i * hash2, this
+    // cannot overflow, so the sequence remains a permutation of the slots however large the table is
+    private int nextProbe(int index, int step) {
+        return index < this.keys.length - step ? index + step : index - (this.keys.length - step);
+    }
+
+    // Gives the index of the slot holding the specified key, or -1 if the key is not present
+    private int indexOf(long key) {
+        int index = hash(key, this.keys.length);
+        int hash2 = this.secondHash(index);
+        for (int i = 0; i < this.keys.length; i++, index = this.nextProbe(index, hash2)) {
+            if (this.avail[index] == OCCUPIED) {
+                if (this.keys[index] == key) {
+                    return index;
+                }
+            } else if (this.avail[index] == UNUSED) {
+                return -1; // this slot has never been subject to insertion, so no need to probe further
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Inserts the specified key/value pair into an empty slot in this LongObjectHashTable, if possible. Unlike
+     * MyHashTable.insert(), the duplicate check and the search for a slot share one probe sequence: the
+     * first non-OCCUPIED slot is remembered until the key is known to be absent. Throws an
+     * UnsupportedOperationException on table overflow.
+     * @param key the key of the key/value pair to be inserted
+     * @param value the value of the key/value pair to be inserted; must not be null
+     * @return false if key is already present (and the old value is kept), true otherwise
+     */
+    @Override
+    public boolean insert(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Cannot insert a null value: null signals an absent key.");
+        }
+        int index = hash(key, this.keys.length);
+        int hash2 = this.secondHash(index);
+        int slot = -1;
+        for (int i = 0; i < this.keys.length; i++, index = this.nextProbe(index, hash2)) {
+            if (this.avail[index] == OCCUPIED) {
+                if (this.keys[index] == key) {
+                    return false;
+                }
+            } else {
+                if (slot < 0) {
+                    slot = index;
+                }
+                if (this.avail[index] == UNUSED) {
+                    break; // the key cannot appear any further along the probe sequence
+                }
+            }
+        }
+        if (slot < 0) {
+            throw new UnsupportedOperationException("Overflow: cannot insert unknown key into full "
+                                                    + "LongObjectHashTable.");
+        }
+        this.keys[slot] = key;
+        this.values[slot] = value;
+        this.avail[slot] = OCCUPIED;
+        this.currentMembership++;
+        return true;
+    }
+
+    @Override
+    public boolean isPresent(long key) {
+        return this.indexOf(key) >= 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V find(long key) {
+        int index = this.indexOf(key);
+        return index < 0 ? null : (V) this.values[index];
+    }
+
+    @Override
+    public boolean delete(long key) {
+        int index = this.indexOf(key);
+        if (index < 0) {
+            return false;
+        }
+        this.avail[index] = FREE;
+        this.values[index] = null; // allows the value to be garbage collected
+        this.currentMembership--;
+        return true;
+    }
+
+    @Override
+    public int membership() {
+        return this.currentMembership;
+    }
+
+}
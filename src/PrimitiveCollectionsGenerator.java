@@ -0,0 +1,140 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * CS 3345 HON
+ * Source generator for the primitive-specialized collections in PrimitiveCollections.java
+ * Used compiler Java 14.0.1
+ * @author UGQM
+ */
+
+public class PrimitiveCollectionsGenerator {
+
+    // Symbolic Constants
+    private static final String SECTION_MARKER = "//@ ";
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{([A-Z]+)\\}");
+
+    private static final String MISSING_PARAM = "\n     * @param missing the value to be returned if key is not "
+            + "present";
+    private static final String NULL_CHECK = "\n        if (value == null) {\n"
+            + "            throw new IllegalArgumentException(\"Cannot insert a null value: null signals an absent "
+            + "key.\");\n"
+            + "        }";
+    private static final String UNCHECKED = "@SuppressWarnings(\"unchecked\")";
+
+    // Gives a map from placeholder names to their replacements, given as alternating names and replacements
+    private static Map<String, String> bindings(String... pairs) {
+        Map<String, String> result = new HashMap<>();
+        for (int i = 0; i < pairs.length; i += 2) {
+            result.put(pairs[i], pairs[i + 1]);
+        }
+        return result;
+    }
+
+    // The key types, each of which gets one {KP}KeyMap interface
+    private static List<Map<String, String>> keyTypes() {
+        return List.of(bindings("KP", "Int", "K", "int"),
+                       bindings("KP", "Long", "K", "long"));
+    }
+
+    // The key/value variants, each of which gets one {P}Map interface, {P}SkipList, and {P}HashTable
+    private static List<Map<String, String>> variants() {
+        return List.of(
+                bindings("P", "IntLong", "KP", "Int", "G", "", "D", "", "K", "int", "V", "long",
+                         "KZERO", "0", "VZERO", "0L", "VARR", "long[]", "VNEW", "new long[sz]",
+                         "VGET", "this.values[index]", "VCLEAR", "", "VCHECK", "", "VNOTE", "",
+                         "NODESUP", "", "PREDSUP", "", "FINDSUP", "", "NEWNODES", "new Node", "HASHEXPR", "key",
+                         "MISSARG", ", long missing", "MISSPARAM", MISSING_PARAM, "MISSRET", "missing",
+                         "MISSVAL", "missing"),
+                bindings("P", "LongLong", "KP", "Long", "G", "", "D", "", "K", "long", "V", "long",
+                         "KZERO", "0L", "VZERO", "0L", "VARR", "long[]", "VNEW", "new long[sz]",
+                         "VGET", "this.values[index]", "VCLEAR", "", "VCHECK", "", "VNOTE", "",
+                         "NODESUP", "", "PREDSUP", "", "FINDSUP", "", "NEWNODES", "new Node",
+                         "HASHEXPR", "(int) (key ^ (key >>> 32))",
+                         "MISSARG", ", long missing", "MISSPARAM", MISSING_PARAM, "MISSRET", "missing",
+                         "MISSVAL", "missing"),
+                bindings("P", "LongObject", "KP", "Long", "G", "<V>", "D", "<>", "K", "long", "V", "V",
+                         "KZERO", "0L", "VZERO", "null", "VARR", "Object[]", "VNEW", "new Object[sz]",
+                         "VGET", "(V) this.values[index]",
+                         "VCLEAR", "\n        this.values[index] = null; // allows the value to be garbage collected",
+                         "VCHECK", NULL_CHECK, "VNOTE", "; must not be null",
+                         "NODESUP", "        " + UNCHECKED + "\n", "PREDSUP", "        " + UNCHECKED + "\n",
+                         "FINDSUP", "\n    " + UNCHECKED, "NEWNODES", "(Node<V>[]) new Node<?>",
+                         "HASHEXPR", "(int) (key ^ (key >>> 32))",
+                         "MISSARG", "", "MISSPARAM", "", "MISSRET", "null", "MISSVAL", "null"));
+    }
+
+    // Splits the template into its sections, each of which begins with a line "//@ <name>"
+    private static Map<String, String> readSections(Path template) throws IOException {
+        Map<String, String> sections = new HashMap<>();
+        String name = null;
+        StringBuilder body = new StringBuilder();
+        for (String line : Files.readAllLines(template, StandardCharsets.UTF_8)) {
+            if (line.startsWith(SECTION_MARKER)) {
+                if (name != null) {
+                    sections.put(name, body.toString().strip());
+                }
+                name = line.substring(SECTION_MARKER.length()).strip();
+                body.setLength(0);
+            } else if (name != null) {
+                body.append(line).append('\n');
+            }
+        }
+        if (name != null) {
+            sections.put(name, body.toString().strip());
+        }
+        return sections;
+    }
+
+    // Gives the named section of the template with every placeholder replaced; every placeholder must be bound
+    private static String expand(Map<String, String> sections, String name, Map<String, String> bindings) {
+        String section = sections.get(name);
+        if (section == null) {
+            throw new IllegalArgumentException("The template has no section named " + name + "!");
+        }
+        Matcher matcher = PLACEHOLDER.matcher(section);
+        StringBuilder result = new StringBuilder();
+        while (matcher.find()) {
+            String replacement = bindings.get(matcher.group(1));
+            if (replacement == null) {
+                throw new IllegalArgumentException("Section " + name + " uses unbound placeholder "
+                                                   + matcher.group() + "!");
+            }
+            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    /**
+     * Generates PrimitiveCollections.java from PrimitiveCollections.template. The template holds one copy of each
+     * interface and class; every variant is produced from that copy by replacing its placeholders.
+     * @param args the template path and the output path, which default to the files in the working directory
+     * @throws IOException if the template cannot be read or the output cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        Path template = Paths.get(args.length > 0 ? args[0] : "PrimitiveCollections.template");
+        Path output = Paths.get(args.length > 1 ? args[1] : "PrimitiveCollections.java");
+        Map<String, String> sections = readSections(template);
+
+        List<String> parts = new ArrayList<>();
+        parts.add(expand(sections, "header", Map.of()));
+        for (Map<String, String> keyType : keyTypes()) {
+            parts.add(expand(sections, "keyInterface", keyType));
+        }
+        for (Map<String, String> variant : variants()) {
+            parts.add(expand(sections, "mapInterface", variant));
+            parts.add(expand(sections, "skipList", variant));
+            parts.add(expand(sections, "hashTable", variant));
+        }
+        Files.writeString(output, String.join("\n\n", parts) + "\n", StandardCharsets.UTF_8);
+        System.out.println("Wrote " + output);
+    }
+
+}
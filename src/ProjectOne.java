@@ -1,5 +1,26 @@
 import java.util.*;
 import java.io.*;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.management.*;
 
 /**
  * CS 3345 HON
@@ -11,9 +32,15 @@ import java.io.*;
 
 class Node {
 
+    // Symbolic Constants
+    public static final long ALIVE = Long.MAX_VALUE; // the deletion version of a Node that has not been deleted
+    private static final VarHandle FORWARD = MethodHandles.arrayElementVarHandle(Node[].class);
+
     private final int key;
     private final String value;
     private final Node[] forward;
+    private final long createdVersion; // the SkipList version at which this Node was inserted
+    private volatile long deletedVersion; // the SkipList version at which this Node was deleted, or ALIVE
 
     /**
      * Creates and returns a new Node with the key and value specified and of the level (height) specified.
@@ -24,9 +51,22 @@ class Node {
      * @param level the height of (i.e., number of references to and from) this Node in the SkipList that contains it
      */
     public Node(int key, String value, int level) {
+        this(key, value, level, 0);
+    }
+
+    /**
+     * Creates and returns a new Node as above that first exists at the specified version of its SkipList.
+     * @param key see above
+     * @param value see above
+     * @param level see above
+     * @param createdVersion the version of the SkipList that this Node's insertion creates
+     */
+    public Node(int key, String value, int level, long createdVersion) {
         this.key = key;
         this.value = value;
         this.forward = new Node[level + 1]; // (index 0 remains unused to be consistent with level numbers)
+        this.createdVersion = createdVersion;
+        this.deletedVersion = ALIVE;
     }
 
     /**
@@ -60,7 +100,8 @@ class Node {
      *         Node if there is no "next" Node at the level specified
      */
     public Node getForward(int level) {
-        return this.forward[level];
+        // acquire pairs with the release in setForward() so that snapshot readers see fully built Nodes
+        return (Node) FORWARD.getAcquire(this.forward, level);
     }
 
     /**
@@ -70,7 +111,154 @@ class Node {
      * @param target the Node that should now follow this Node at the level specified
      */
     protected void setForward(int level, Node target) {
-        this.forward[level] = target;
+        FORWARD.setRelease(this.forward, level, target);
+    }
+
+    /**
+     * Determines whether or not this Node is part of the specified version of the SkipList that contains it.
+     * @param version a version of the SkipList containing this Node
+     * @return true if this Node was inserted at or before that version and not deleted by it, false otherwise
+     */
+    public boolean isVisibleAt(long version) {
+        return this.createdVersion <= version && version < this.deletedVersion;
+    }
+
+    /**
+     * Determines whether or not this Node is part of the current version of the SkipList that contains it.
+     * @return false if this Node has been deleted (but is kept for open snapshots), true otherwise
+     */
+    public boolean isAlive() {
+        return this.deletedVersion == ALIVE;
+    }
+
+    /**
+     * Gives the version of the SkipList that contains this Node at which this Node was deleted.
+     * @return the version of this Node's deletion, or Node.ALIVE if it has not been deleted
+     */
+    public long getDeletedVersion() {
+        return this.deletedVersion;
+    }
+
+    /**
+     * Marks this Node as deleted as of the specified version of the SkipList that contains it.
+     * @param version the version of the SkipList that this Node's deletion creates
+     */
+    protected void markDeleted(long version) {
+        this.deletedVersion = version;
+    }
+
+}
+
+class FindCache {
+
+    // Symbolic Constants
+    public static final int WAYS = 4; // number of slots that each key may occupy
+
+    private final int setMask;
+    private final int[] keys;
+    private final String[] values; // null marks an empty slot and "" a cached miss, as in SkipList.find()
+    private final boolean[] referenced; // CLOCK reference bits
+    private final int[] hands; // CLOCK hand of each set
+
+    private long numHits;
+    private long numMisses;
+
+    /**
+     * Creates and returns a new, empty FindCache able to hold at least the specified number of entries. The
+     * cache is set-associative: each key hashes to a set of WAYS slots, and the slot to be replaced within
+     * a full set is chosen by the CLOCK (second-chance) algorithm, so lookups never allocate or box keys.
+     * @param capacity the minimum number of entries to be held; must be at least 1
+     */
+    public FindCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The capacity of a FindCache must be at least 1!");
+        }
+        int neededSets = (capacity + WAYS - 1) / WAYS;
+        int numSets = neededSets == 1 ? 1 : Integer.highestOneBit(neededSets - 1) << 1; // a power of 2
+        this.setMask = numSets - 1;
+        this.keys = new int[numSets * WAYS];
+        this.values = new String[numSets * WAYS];
+        this.referenced = new boolean[numSets * WAYS];
+        this.hands = new int[numSets];
+    }
+
+    // Gives the index of the first slot in the set that key belongs to
+    private int setOf(int key) {
+        int h = key * 0x9E3779B9; // Fibonacci hashing spreads sequential keys across sets
+        return ((h ^ (h >>> 16)) & this.setMask) * WAYS;
+    }
+
+    /**
+     * Looks up the cached result of SkipList.find() for the specified key and counts a hit or a miss.
+     * @param key the key to look up
+     * @return the cached value ("" if the key is cached as absent), or null if the key is not cached
+     */
+    public String get(int key) {
+        int set = this.setOf(key);
+        for (int i = set; i < set + WAYS; i++) {
+            if (this.values[i] != null && this.keys[i] == key) {
+                this.referenced[i] = true;
+                this.numHits++;
+                return this.values[i];
+            }
+        }
+        this.numMisses++;
+        return null;
+    }
+
+    /**
+     * Caches the specified result of SkipList.find(), replacing any result already cached for the key.
+     * @param key the key that was searched for
+     * @param value the value found, or "" if the key is absent; must not be null
+     */
+    public void put(int key, String value) {
+        int set = this.setOf(key);
+        int victim = -1;
+        for (int i = set; i < set + WAYS; i++) {
+            if (this.values[i] != null && this.keys[i] == key) {
+                this.values[i] = value;
+                this.referenced[i] = true;
+                return;
+            } else if (victim < 0 && this.values[i] == null) {
+                victim = i;
+            }
+        }
+        if (victim < 0) {
+            int hand = this.hands[set / WAYS];
+            while (this.referenced[set + hand]) {
+                this.referenced[set + hand] = false;
+                hand = (hand + 1) % WAYS;
+            }
+            victim = set + hand;
+            this.hands[set / WAYS] = (hand + 1) % WAYS;
+        }
+        this.keys[victim] = key;
+        this.values[victim] = value;
+        this.referenced[victim] = false;
+    }
+
+    /**
+     * Gives the number of lookups that were answered from this FindCache.
+     * @return the number of hits
+     */
+    public long getNumHits() {
+        return this.numHits;
+    }
+
+    /**
+     * Gives the number of lookups that were not answered from this FindCache.
+     * @return the number of misses
+     */
+    public long getNumMisses() {
+        return this.numMisses;
+    }
+
+    /**
+     * Gives the number of entries that this FindCache can hold.
+     * @return the capacity of this FindCache
+     */
+    public int getCapacity() {
+        return this.keys.length;
     }
 
 }
@@ -84,8 +272,30 @@ class SkipList {
     private final Node header; // does not change or contain a meaningful key/value pair, so can be final
 
     private int size; // number of key/value pairs in this SkipList; updated when insert() and delete() are called
+                      // (or UNKNOWN_SIZE after split(), until membership() recounts it)
 
     public static final int END_SENTINEL = Integer.MAX_VALUE; // larger than largest possible key
+    private static final int UNKNOWN_SIZE = -1;
+
+    // Search cost statistics; a hop is one step along a forward reference and a comparison is one key comparison
+    private long numFinds;
+    private long totalHopsFromFinds;
+    private long totalComparisonsFromFinds;
+    private long numInserts;
+    private long totalHopsFromInserts;
+    private long totalComparisonsFromInserts;
+    private long numDeletes;
+    private long totalHopsFromDeletes;
+    private long totalComparisonsFromDeletes;
+    private int lastHops; // cost of the most recent call to getPredecessors()
+    private int lastComparisons;
+
+    private FindCache cache; // null unless enableCache() has been called
+
+    // Multi-version state; see openSnapshot()
+    private volatile long version; // incremented by every successful insert() and delete()
+    private final Set<SkipListSnapshot> snapshots = ConcurrentHashMap.newKeySet();
+    private final ArrayDeque<Node> retired = new ArrayDeque<>(); // deleted but still linked, oldest first
 
     /**
      * Creates and returns a new SkipList that will use the specified value of p when creating its Nodes
@@ -106,6 +316,31 @@ class SkipList {
         this.size = 0;
     }
 
+    /**
+     * Places a read-through FindCache of (at least) the specified capacity in front of find() and isPresent(),
+     * replacing any existing cache. Both hits and misses of find() are cached, and insert() and delete() keep
+     * the cache coherent, so lookups of a hot set of keys avoid walking this SkipList entirely.
+     * @param capacity the minimum number of keys to be cached; must be at least 1
+     */
+    public void enableCache(int capacity) {
+        this.cache = new FindCache(capacity);
+    }
+
+    /**
+     * Removes the FindCache in front of find() and isPresent(), if there is one.
+     */
+    public void disableCache() {
+        this.cache = null;
+    }
+
+    /**
+     * Gives the FindCache in front of find() and isPresent() (e.g., to read its hit/miss statistics).
+     * @return the FindCache in use, or null if there is none
+     */
+    public FindCache getCache() {
+        return this.cache;
+    }
+
     /**
      * Randomly determines a level (i.e., height) for a new member Node of this SkipList by generating random
      * numbers in the range [0,1) until one of them is at least equal to this SkipList's p value and using the
@@ -128,13 +363,20 @@ class SkipList {
         // index 0 remains unused to be consistent with level numbers
         Node[] predecessors = new Node[this.maxLevel + 1];
 
+        int hops = 0;
+        int comparisons = 0;
         Node now = this.header;
         for (int i = this.level; i >= 1; i--) {
             while (now.getForward(i).getKey() < key) {
                 now = now.getForward(i);
+                hops++;
+                comparisons++;
             }
+            comparisons++; // the comparison that ended the loop above
             predecessors[i] = now;
         }
+        this.lastHops = hops;
+        this.lastComparisons = comparisons + 1; // the caller compares the key of predecessors[1].getForward(1)
         return predecessors;
 
     }
@@ -149,8 +391,12 @@ class SkipList {
 
         Node[] predecessors = this.getPredecessors(key);
         Node subject = predecessors[1].getForward(1);
+        this.numInserts++;
+        this.totalHopsFromInserts += this.lastHops;
+        this.totalComparisonsFromInserts += this.lastComparisons;
 
-        if (subject.getKey() == key) {
+        // Deleted Nodes kept for snapshots follow any live Node with the same key (see delete())
+        if (subject.getKey() == key && subject.isAlive()) {
 
             // subject.setValue(s); could be used here in other implementations
             return false;
@@ -163,14 +409,22 @@ class SkipList {
                 predecessors[newLevel] = this.header;
             }
 
-            // reusing variable subject to reduce clutter
-            subject = new Node(key, s, newLevel);
+            // reusing variable subject to reduce clutter; snapshots ignore it until this.version is advanced
+            long newVersion = this.version + 1;
+            subject = new Node(key, s, newLevel, newVersion);
             for (int i = 1; i <= newLevel; i++) {
                 subject.setForward(i, predecessors[i].getForward(i));
                 predecessors[i].setForward(i, subject);
             }
+            this.version = newVersion;
 
-            this.size++;
+            if (this.cache != null) {
+                this.cache.put(key, s);
+            }
+            if (this.size != UNKNOWN_SIZE) {
+                this.size++;
+            }
+            this.reclaim();
             return true;
 
         }
@@ -182,7 +436,7 @@ class SkipList {
      * @return true if key is present, false otherwise
      */
     public boolean isPresent(int key) {
-        return !this.find(key).equals("");
+        return !this.find(key).isEmpty();
     }
 
     /**
@@ -194,21 +448,30 @@ class SkipList {
 
         Node[] predecessors = this.getPredecessors(key);
         Node subject = predecessors[1].getForward(1);
+        this.numDeletes++;
+        this.totalHopsFromDeletes += this.lastHops;
+        this.totalComparisonsFromDeletes += this.lastComparisons;
 
-        if (subject.getKey() == key) {
+        if (subject.getKey() == key && subject.isAlive()) {
 
-            for (int i = 1; i <= this.level; i++) {
-                if (predecessors[i].getForward(i).getKey() != subject.getKey()) {
-                    break; // stops when height of deleted node is exceeded (so no more replacements are necessary)
-                }
-                predecessors[i].setForward(i, subject.getForward(i));
-            }
+            long newVersion = this.version + 1;
+            subject.markDeleted(newVersion);
+            this.version = newVersion;
 
-            while (this.level > 1 && this.header.getForward(this.level).getKey() == END_SENTINEL) {
-                this.level--;
+            // Any snapshot registered after the check below reads a version at which subject is already deleted
+            if (this.snapshots.isEmpty() && this.retired.isEmpty()) {
+                this.unlink(subject, predecessors);
+            } else {
+                this.retired.add(subject); // some snapshot may still need subject
+                this.reclaim();
             }
 
-            this.size--;
+            if (this.cache != null) {
+                this.cache.put(key, ""); // now a known miss
+            }
+            if (this.size != UNKNOWN_SIZE) {
+                this.size--;
+            }
             return true;
 
         } else { // key does not currently exist in this SkipList
@@ -218,6 +481,124 @@ class SkipList {
         }
     }
 
+    // Removes subject from every level that it is part of, given its predecessors (which may be stale beyond
+    // the levels of subject, since only references to subject itself are replaced)
+    private void unlink(Node subject, Node[] predecessors) {
+
+        for (int i = 1; i <= this.level; i++) {
+            if (predecessors[i].getForward(i) != subject) {
+                break; // stops when height of deleted node is exceeded (so no more replacements are necessary)
+            }
+            predecessors[i].setForward(i, subject.getForward(i));
+        }
+
+        while (this.level > 1 && this.header.getForward(this.level).getKey() == END_SENTINEL) {
+            this.level--;
+        }
+
+    }
+
+    /**
+     * Physically removes the deleted Nodes that no open snapshot can see any longer. This is called by every
+     * successful insert() and delete(), so it only needs to be called directly to free memory sooner after
+     * snapshots are closed. Like insert() and delete(), it must be called from the writing thread.
+     */
+    public void reclaim() {
+        if (this.retired.isEmpty()) {
+            return;
+        }
+
+        long oldestVisible = Long.MAX_VALUE;
+        for (SkipListSnapshot snapshot : this.snapshots) {
+            oldestVisible = Math.min(oldestVisible, snapshot.getVersion());
+        }
+
+        while (!this.retired.isEmpty() && this.retired.peek().getDeletedVersion() <= oldestVisible) {
+
+            Node subject = this.retired.remove();
+
+            // As in getPredecessors(), but stopping at subject itself among Nodes with the same key
+            Node[] predecessors = new Node[this.maxLevel + 1];
+            Node now = this.header;
+            for (int i = this.level; i >= 1; i--) {
+                while (now.getForward(i).getKey() < subject.getKey()) {
+                    now = now.getForward(i);
+                }
+                Node next = now;
+                while (next.getForward(i) != subject && next.getForward(i).getKey() == subject.getKey()) {
+                    next = next.getForward(i);
+                }
+                predecessors[i] = next;
+            }
+            this.unlink(subject, predecessors);
+
+        }
+    }
+
+    /**
+     * Opens a read-only snapshot of the current version of this SkipList. While it is open, the snapshot's
+     * view does not change, and it may be read by any thread concurrently with insert() and delete() on the
+     * (single) writing thread: Nodes record the versions at which they were inserted and deleted, deleted
+     * Nodes stay linked as long as an open snapshot may see them, and new Nodes are published with release
+     * stores. Snapshots should be closed promptly, since deleted Nodes cannot be reclaimed until then.
+     * @return a new SkipListSnapshot of this SkipList
+     */
+    public SkipListSnapshot openSnapshot() {
+        SkipListSnapshot snapshot = new SkipListSnapshot(this);
+        this.snapshots.add(snapshot); // must precede reading this.version (see delete())
+        snapshot.setVersion(this.version);
+        return snapshot;
+    }
+
+    // Forgets a closed snapshot; its Nodes are reclaimed on the next write (or call to reclaim())
+    protected void closeSnapshot(SkipListSnapshot snapshot) {
+        this.snapshots.remove(snapshot);
+    }
+
+    /**
+     * Searches the specified version of this SkipList for the specified key. Safe to call from any thread, but
+     * only for versions held by an open snapshot (see openSnapshot()).
+     * @param key the Node key to search for
+     * @param version the version of this SkipList to be searched
+     * @return the value of the key at that version, or an empty String (i.e., "") if it was not present
+     */
+    protected String findAt(int key, long version) {
+        Node now = this.header;
+        for (int i = this.maxLevel; i >= 1; i--) { // this.level belongs to the writer, so it is not read here
+            while (now.getForward(i).getKey() < key) {
+                now = now.getForward(i);
+            }
+        }
+        for (now = now.getForward(1); now.getKey() == key; now = now.getForward(1)) {
+            if (now.isVisibleAt(version)) {
+                return now.getValue();
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Gives the Node following the specified Node at level 1 of the specified version of this SkipList. Safe to
+     * call from any thread, but only for versions held by an open snapshot (see openSnapshot()).
+     * @param now a Node of this SkipList (or its header)
+     * @param version the version of this SkipList to be walked
+     * @return the next Node visible at that version, or the header if there is none
+     */
+    protected Node nextAt(Node now, long version) {
+        do {
+            now = now.getForward(1);
+        } while (now.getKey() != END_SENTINEL && !now.isVisibleAt(version));
+        return now;
+    }
+
+    /**
+     * Gives the header of this SkipList, from which snapshots begin their walks.
+     * @return the header Node
+     */
+    protected Node getHeader() {
+        return this.header;
+    }
+
     /**
      * Searches for a Node in this SkipList with the specified key and returns its contents (i.e., its value).
      * @param key the Node key to search for (in this SkipList)
@@ -225,37 +606,375 @@ class SkipList {
      *         in this SkipList; an empty String (i.e., "") otherwise
      */
     public String find(int key) {
+        if (this.cache != null) {
+            String cached = this.cache.get(key);
+            if (cached != null) {
+                this.numFinds++;
+                this.totalComparisonsFromFinds++; // the key comparison in the cache
+                return cached;
+            }
+        }
+        String value = this.walk(key);
+        if (this.cache != null) {
+            this.cache.put(key, value);
+        }
+        return value;
+    }
+
+    // Performs find() without consulting the cache
+    private String walk(int key) {
+        int hops = 0;
         Node now = this.header;
         for (int i = this.level; i >= 1; i--) {
             while (now.getForward(i).getKey() < key) {
                 now = now.getForward(i);
+                hops++;
             }
         }
         // Guaranteed that now.getKey() < key <= now.getForward(1).getKey()
         now = now.getForward(1);
-        if (now.getKey() == key) {
+        this.numFinds++;
+        this.totalHopsFromFinds += hops;
+        this.totalComparisonsFromFinds += hops + this.level + 1; // each level ends with one failed comparison
+        if (now.getKey() == key && now.isAlive()) {
             return now.getValue();
         } else {
             return "";
         }
     }
 
+    // Ensures that the specified SkipList can be restructured by the bulk operations below, which neither keep
+    // deleted Nodes for snapshots nor can accept Nodes taller than this SkipList's maxLevel
+    private void prepareForRestructuring(SkipList other) {
+        for (SkipList list : new SkipList[] {this, other}) {
+            list.reclaim();
+            if (!list.snapshots.isEmpty()) {
+                throw new IllegalStateException("Cannot restructure a SkipList while snapshots are open.");
+            }
+        }
+        if (other.maxLevel > this.maxLevel) {
+            throw new IllegalArgumentException("Cannot combine a SkipList with one of a greater maxLevel.");
+        }
+    }
+
+    // Relinks every level of this SkipList through the specified Nodes (in increasing key order), recomputing
+    // this.level and this.size; used after the level 1 chains of two SkipLists have been combined
+    private void relink(List<Node> nodes) {
+        Node[] last = new Node[this.maxLevel + 1];
+        Arrays.fill(last, this.header);
+        int newLevel = 1;
+        for (Node node : nodes) {
+            for (int i = 1; i <= node.getLevel(); i++) {
+                last[i].setForward(i, node);
+                last[i] = node;
+            }
+            newLevel = Math.max(newLevel, node.getLevel());
+        }
+        for (int i = 1; i <= this.maxLevel; i++) {
+            last[i].setForward(i, this.header);
+        }
+        this.level = newLevel;
+        this.size = nodes.size();
+    }
+
+    // Empties this SkipList without touching its former Nodes (which now belong to another SkipList)
+    private void detachAll() {
+        for (int i = 1; i <= this.maxLevel; i++) {
+            this.header.setForward(i, this.header);
+        }
+        this.level = 1;
+        this.size = 0;
+        this.version++;
+        this.forgetCache();
+    }
+
+    // Discards the contents of the FindCache, if there is one, after a bulk operation
+    private void forgetCache() {
+        if (this.cache != null) {
+            this.cache = new FindCache(this.cache.getCapacity());
+        }
+    }
+
+    /**
+     * Moves every key/value pair of the specified SkipList into this SkipList in O(n + m) time, by walking the
+     * level 1 chains of both lists together and relinking each level once, rather than calling insert() m times
+     * at O(m log n). Nodes keep their levels. Where both lists contain a key, this SkipList's value is kept
+     * (as insert() would). The other SkipList is left empty.
+     * @param other a SkipList whose maxLevel is at most this SkipList's; neither list may have open snapshots
+     */
+    public void merge(SkipList other) {
+        if (other == this) {
+            return;
+        }
+        this.prepareForRestructuring(other);
+
+        List<Node> merged = new ArrayList<>();
+        Node a = this.header.getForward(1);
+        Node b = other.header.getForward(1);
+        while (a.getKey() != END_SENTINEL || b.getKey() != END_SENTINEL) {
+            if (a.getKey() < b.getKey()) {
+                merged.add(a);
+                a = a.getForward(1);
+            } else if (b.getKey() < a.getKey()) {
+                merged.add(b);
+                b = b.getForward(1);
+            } else { // same key (neither is END_SENTINEL here); other's Node is dropped
+                merged.add(a);
+                a = a.getForward(1);
+                b = b.getForward(1);
+            }
+        }
+
+        this.relink(merged);
+        this.version = Math.max(this.version, other.version) + 1; // so that every moved Node is visible
+        other.detachAll();
+        this.forgetCache();
+    }
+
+    /**
+     * Removes every key/value pair from this SkipList whose key is not present in the specified SkipList, in
+     * O(n + m) time by walking both level 1 chains together. The other SkipList is not modified.
+     * @param other the SkipList whose keys are to be kept; neither list may have open snapshots
+     */
+    public void intersect(SkipList other) {
+        if (other == this) {
+            return;
+        }
+        this.prepareForRestructuring(this); // the Nodes of other are only read
+
+        List<Node> kept = new ArrayList<>();
+        Node a = this.header.getForward(1);
+        Node b = other.header.getForward(1);
+        while (a.getKey() != END_SENTINEL && b.getKey() != END_SENTINEL) {
+            if (a.getKey() < b.getKey()) {
+                a = a.getForward(1);
+            } else if (b.getKey() < a.getKey()) {
+                b = b.getForward(1);
+            } else {
+                if (b.isAlive()) {
+                    kept.add(a);
+                }
+                a = a.getForward(1);
+                b = b.getForward(1);
+            }
+        }
+
+        this.relink(kept);
+        this.version++;
+        this.forgetCache();
+    }
+
+    /**
+     * Moves every key/value pair of this SkipList whose key is at least the specified key into a new SkipList
+     * in O(log n) time, by cutting the forward references that cross the key at each level. The sizes of both
+     * lists are then unknown, so the next call to membership() on each recounts it in O(n).
+     * @param key the smallest key to be moved
+     * @return a new SkipList with the same p and maxLevel holding the moved key/value pairs
+     */
+    public SkipList split(int key) {
+        this.prepareForRestructuring(this);
+        SkipList tail = new SkipList(this.p, this.maxLevel);
+
+        Node[] predecessors = this.getPredecessors(key);
+        Node[] last = this.getPredecessors(END_SENTINEL); // the last Node of each level
+        for (int i = 1; i <= this.level; i++) {
+            Node first = predecessors[i].getForward(i);
+            if (first.getKey() != END_SENTINEL) {
+                tail.header.setForward(i, first);
+                last[i].setForward(i, tail.header);
+                predecessors[i].setForward(i, this.header);
+                tail.level = i;
+            }
+        }
+        while (this.level > 1 && this.header.getForward(this.level).getKey() == END_SENTINEL) {
+            this.level--;
+        }
+
+        this.size = UNKNOWN_SIZE;
+        tail.size = UNKNOWN_SIZE;
+        tail.version = ++this.version; // so that every moved Node is visible in tail's snapshots
+        this.forgetCache();
+        return tail;
+    }
+
+    /**
+     * Moves every key/value pair of the specified SkipList onto the end of this SkipList in O(log n + log m)
+     * time, by splicing the last Node of each level of this list to the first Node of that level of the other.
+     * Every key of the other SkipList must be greater than every key of this SkipList. The other SkipList is
+     * left empty.
+     * @param other a SkipList whose maxLevel is at most this SkipList's; neither list may have open snapshots
+     */
+    public void concat(SkipList other) {
+        if (other == this) {
+            throw new IllegalArgumentException("Cannot concatenate a SkipList with itself.");
+        }
+        this.prepareForRestructuring(other);
+
+        Node[] last = this.getPredecessors(END_SENTINEL);
+        Node[] otherLast = other.getPredecessors(END_SENTINEL);
+        Node otherFirst = other.header.getForward(1);
+        if (otherFirst.getKey() == END_SENTINEL) {
+            return;
+        } else if (last[1] != this.header && last[1].getKey() >= otherFirst.getKey()) {
+            throw new IllegalArgumentException("Cannot concatenate: the keys of the other SkipList must be greater.");
+        }
+
+        for (int i = 1; i <= other.level; i++) {
+            Node tailFirst = other.header.getForward(i);
+            if (tailFirst.getKey() != END_SENTINEL) {
+                (i <= this.level ? last[i] : this.header).setForward(i, tailFirst);
+                otherLast[i].setForward(i, this.header);
+            }
+        }
+        this.level = Math.max(this.level, other.level);
+
+        this.size = this.size == UNKNOWN_SIZE || other.size == UNKNOWN_SIZE ? UNKNOWN_SIZE : this.size + other.size;
+        this.version = Math.max(this.version, other.version) + 1; // so that every moved Node is visible
+        other.detachAll();
+        this.forgetCache();
+    }
+
     /**
      * Gives the number of Nodes in this SkipList. Note that the header is NOT counted as a Node because it
      * does not contain a usable key/value pair in this implementation (based on the pink note on eLearning).
      * @return this SkipList's size
      */
     public int membership() {
+        if (this.size == UNKNOWN_SIZE) {
+            int count = 0;
+            for (Node now = this.header.getForward(1); now.getKey() != END_SENTINEL; now = now.getForward(1)) {
+                count++;
+            }
+            this.size = count;
+        }
         return this.size;
     }
 
+    /**
+     * Gives the number of levels currently in use in this SkipList.
+     * @return the height of the tallest Node in this SkipList, or 1 if it is empty
+     */
+    public int getLevel() {
+        return this.level;
+    }
+
+    /**
+     * Gives the maximum possible number of levels in this SkipList.
+     * @return this SkipList's maxLevel
+     */
+    public int getMaxLevel() {
+        return this.maxLevel;
+    }
+
+    /**
+     * Gives the number of levels that a SkipList of this size would ideally use, log_{1/p}(n), against which
+     * getLevel() can be compared when tuning p and maxLevel.
+     * @return the ideal number of levels for this SkipList's size and p (at least 1)
+     */
+    public double getIdealLevel() {
+        int n = this.membership();
+        if (n <= 1 || this.p <= 0 || this.p >= 1) {
+            return 1;
+        }
+        return Math.max(1, Math.log(n) / Math.log(1 / this.p));
+    }
+
+    /**
+     * Counts the Nodes of each level (height) in this SkipList by walking it, so it costs O(n) to call.
+     * @return an array whose element i is the number of Nodes of level i (index 0 remains unused)
+     */
+    public int[] getLevelHistogram() {
+        int[] histogram = new int[this.maxLevel + 1];
+        Node now = this.header.getForward(1);
+        while (now.getKey() != END_SENTINEL) {
+            histogram[now.getLevel()] += now.isAlive() ? 1 : 0;
+            now = now.getForward(1);
+        }
+        return histogram;
+    }
+
+    /**
+     * Gives the search cost statistics for this SkipList as [number of operations, total forward hops,
+     * total key comparisons] for each of find(), insert(), and delete(), in that order. isPresent() is
+     * counted as a find(). Both successful and unsuccessful operations are included.
+     * @return an array of nine statistics as described above
+     */
+    public long[] getStatistics() {
+        return new long[] {
+            this.numFinds, this.totalHopsFromFinds, this.totalComparisonsFromFinds,
+            this.numInserts, this.totalHopsFromInserts, this.totalComparisonsFromInserts,
+            this.numDeletes, this.totalHopsFromDeletes, this.totalComparisonsFromDeletes
+        };
+    }
+
+    /**
+     * Prints the search cost statistics for this SkipList (see getStatistics()), its current and ideal
+     * number of levels, and the number of Nodes of each level to System.out.
+     */
+    public void printStatistics() {
+        this.printStatistics(System.out);
+    }
+
+    /**
+     * Prints the search cost statistics for this SkipList (see getStatistics()), its current and ideal
+     * number of levels, and the number of Nodes of each level to the specified PrintStream.
+     * @param out the PrintStream to print to
+     */
+    public void printStatistics(PrintStream out) {
+        out.println("Total Number of Finds = " + this.numFinds);
+        out.println("Total Number of Hops on Finds = " + this.totalHopsFromFinds);
+        out.println("Total Number of Comparisons on Finds = " + this.totalComparisonsFromFinds);
+        out.println("Total Number of Inserts = " + this.numInserts);
+        out.println("Total Number of Hops on Inserts = " + this.totalHopsFromInserts);
+        out.println("Total Number of Comparisons on Inserts = " + this.totalComparisonsFromInserts);
+        out.println("Total Number of Deletes = " + this.numDeletes);
+        out.println("Total Number of Hops on Deletes = " + this.totalHopsFromDeletes);
+        out.println("Total Number of Comparisons on Deletes = " + this.totalComparisonsFromDeletes);
+        if (this.cache != null) {
+            out.println("Total Number of Cache Hits = " + this.cache.getNumHits());
+            out.println("Total Number of Cache Misses = " + this.cache.getNumMisses());
+        }
+        out.println("Current Level = " + this.level + ", Ideal Level = "
+                     + String.format("%.2f", this.getIdealLevel()));
+        int[] histogram = this.getLevelHistogram();
+        for (int i = 1; i <= this.maxLevel; i++) {
+            out.println("Nodes of Level " + i + " = " + histogram[i]);
+        }
+    }
+
+    /**
+     * Resets the search cost statistics for this SkipList.
+     */
+    public void resetStatistics() {
+        this.numFinds = 0;
+        this.totalHopsFromFinds = 0;
+        this.totalComparisonsFromFinds = 0;
+        this.numInserts = 0;
+        this.totalHopsFromInserts = 0;
+        this.totalComparisonsFromInserts = 0;
+        this.numDeletes = 0;
+        this.totalHopsFromDeletes = 0;
+        this.totalComparisonsFromDeletes = 0;
+    }
+
     /**
      * Prints all members of this SkipList in increasing key order (one key/value pair per line) to System.out.
      */
     public void listAll() {
+        this.listAll(System.out);
+    }
+
+    /**
+     * Prints all members of this SkipList in increasing key order (one key/value pair per line)
+     * to the specified PrintStream.
+     * @param out the PrintStream to print to
+     */
+    public void listAll(PrintStream out) {
         Node now = this.header.getForward(1);
         while (now.getKey() != END_SENTINEL) {
-            System.out.println(now.getKey() + " " + now.getValue());
+            if (now.isAlive()) {
+                out.println(now.getKey() + " " + now.getValue());
+            }
             now = now.getForward(1);
         }
     }
@@ -265,69 +984,1082 @@ class SkipList {
      * in increasing key order (one key/height pair per line) to System.out.
      */
     public void debugList() {
+        this.debugList(System.out);
+    }
+
+    /**
+     * Prints the keys and heights (i.e., levels) of all Nodes in this SkipList
+     * in increasing key order (one key/height pair per line) to the specified PrintStream.
+     * @param out the PrintStream to print to
+     */
+    public void debugList(PrintStream out) {
         Node now = this.header.getForward(1);
         while (now.getKey() != END_SENTINEL) {
-            System.out.println(now.getKey() + " " + now.getLevel());
+            if (now.isAlive()) {
+                out.println(now.getKey() + " " + now.getLevel());
+            }
             now = now.getForward(1);
         }
     }
 
 }
 
-public class ProjectOne {
+class SkipListSnapshot implements AutoCloseable {
 
-    public static void main(String[] args) throws IOException {
+    private final SkipList skipList;
+    private volatile long version; // -1 until the snapshot is registered, which keeps every deleted Node
 
-        SkipList sl = new SkipList(0.25, 5);
-        Scanner input = new Scanner(new File("SkipListData.txt"));
+    /**
+     * Creates and returns a new SkipListSnapshot of the specified SkipList. Use SkipList.openSnapshot() instead,
+     * which registers the snapshot and assigns its version.
+     * @param skipList the SkipList to be viewed
+     */
+    protected SkipListSnapshot(SkipList skipList) {
+        this.skipList = skipList;
+        this.version = -1;
+    }
 
-        String now;
-        while (input.hasNextLine()) {
+    // Assigns the version of the SkipList that this snapshot views
+    protected void setVersion(long version) {
+        this.version = version;
+    }
 
-            now = input.nextLine();
-            String[] parameters = now.split(" ");
+    /**
+     * Gives the version of the SkipList that this snapshot views.
+     * @return the version number
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Searches this snapshot for the specified key; see SkipList.find().
+     * @param key the key to search for
+     * @return the value of the key in this snapshot, or an empty String (i.e., "") if it is not present
+     */
+    public String find(int key) {
+        return this.skipList.findAt(key, this.version);
+    }
+
+    /**
+     * Determines whether or not the specified key exists in this snapshot.
+     * @param key the key whose presence is to be checked
+     * @return true if key is present, false otherwise
+     */
+    public boolean isPresent(int key) {
+        return !this.find(key).isEmpty();
+    }
+
+    /**
+     * Counts the key/value pairs in this snapshot by walking it, so it costs O(n) to call.
+     * @return the number of key/value pairs in this snapshot
+     */
+    public int membership() {
+        int count = 0;
+        Node now = this.skipList.nextAt(this.skipList.getHeader(), this.version);
+        while (now.getKey() != SkipList.END_SENTINEL) {
+            count++;
+            now = this.skipList.nextAt(now, this.version);
+        }
+        return count;
+    }
+
+    /**
+     * Prints all members of this snapshot in increasing key order (one key/value pair per line) to the
+     * specified PrintStream; see SkipList.listAll().
+     * @param out the PrintStream to print to
+     */
+    public void listAll(PrintStream out) {
+        Node now = this.skipList.nextAt(this.skipList.getHeader(), this.version);
+        while (now.getKey() != SkipList.END_SENTINEL) {
+            out.println(now.getKey() + " " + now.getValue());
+            now = this.skipList.nextAt(now, this.version);
+        }
+    }
+
+    /**
+     * Closes this snapshot, allowing the Nodes deleted since it was opened to be reclaimed.
+     */
+    @Override
+    public void close() {
+        this.skipList.closeSnapshot(this);
+    }
+
+}
+
+class SkipListSegment {
+
+    // Symbolic Constants for the file format (little-endian): a header, then the records in increasing key
+    // order (int key, tombstone flag byte, int value length, value bytes), then the sparse index (key and record
+    // offset of every INDEX_INTERVAL-th record), then the Bloom filter
+    public static final int MAGIC = 0x47534B53; // "SKSG"
+    public static final int VERSION = 2; // version 1 stored value lengths in 16 bits
+    public static final int HEADER_BYTES = 4 * 8;
+    public static final int RECORD_HEADER_BYTES = 4 + 1 + 4;
+    public static final int INDEX_INTERVAL = 16;
+    public static final int BLOOM_BITS_PER_KEY = 10;
+    public static final int BLOOM_HASHES = 7;
+
+    private final Path path;
+    private final MappedByteBuffer buffer; // the whole file; nothing per key is copied onto the heap
+    private final int count;
+    private final int minKey;
+    private final int maxKey;
+    private final int indexOffset;
+    private final int numIndexEntries;
+    private final int bloomOffset;
+    private final int bloomBits;
+
+    /**
+     * Opens (by memory-mapping) a segment file written by write().
+     * @param path the path of the segment file
+     * @throws IOException if the file cannot be read
+     */
+    public SkipListSegment(Path path) throws IOException {
+        this.path = path;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (this.buffer.limit() < HEADER_BYTES || this.buffer.getInt(0) != MAGIC
+                || this.buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Invalid segment file: unrecognized header.");
+        }
+        this.count = this.buffer.getInt(8);
+        this.minKey = this.buffer.getInt(12);
+        this.maxKey = this.buffer.getInt(16);
+        this.indexOffset = this.buffer.getInt(20);
+        this.bloomOffset = this.buffer.getInt(24);
+        this.bloomBits = this.buffer.getInt(28);
+        this.numIndexEntries = (this.bloomOffset - this.indexOffset) / 8;
+    }
+
+    /**
+     * Writes a segment file holding the specified records, which must be in strictly increasing key order.
+     * Records are streamed to the file, so only the sparse index and the Bloom filter are held in memory.
+     * @param path the path of the file to be (over)written
+     * @param records the records to be written; a null value marks a tombstone (a deleted key)
+     * @param expectedCount an estimate of the number of records, used to size the Bloom filter
+     * @return the number of records written
+     * @throws IOException if the file cannot be written
+     */
+    public static int write(Path path, Iterator<Map.Entry<Integer, String>> records, int expectedCount)
+            throws IOException {
+        long[] bloom = new long[Math.max(1, (Math.max(1, expectedCount) * BLOOM_BITS_PER_KEY + 63) / 64)];
+        int bloomBits = bloom.length * 64;
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+        int count = 0;
+        int minKey = 0;
+        int maxKey = 0;
+        int offset = HEADER_BYTES;
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                     Channels.newOutputStream(channel.position(HEADER_BYTES)), 1 << 16))) {
+
+            ByteBuffer scratch = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+            while (records.hasNext()) {
+                Map.Entry<Integer, String> record = records.next();
+                int key = record.getKey();
+                if (count == 0) {
+                    minKey = key;
+                }
+                maxKey = key;
+                if (count % INDEX_INTERVAL == 0) {
+                    scratch.clear();
+                    index.write(scratch.putInt(key).putInt(offset).array(), 0, 8);
+                }
+                for (int i = 0; i < BLOOM_HASHES; i++) {
+                    int bit = bloomBit(key, i, bloomBits);
+                    bloom[bit >>> 6] |= 1L << bit;
+                }
+
+                byte[] value = record.getValue() == null ? new byte[0]
+                                                         : record.getValue().getBytes(StandardCharsets.UTF_8);
+                if ((long) offset + RECORD_HEADER_BYTES + value.length > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("Cannot write a segment of more than 2GB!");
+                }
+                scratch.clear();
+                out.write(scratch.putInt(key).array(), 0, 4);
+                out.writeByte(record.getValue() == null ? 1 : 0);
+                scratch.clear();
+                out.write(scratch.putInt(value.length).array(), 0, 4);
+                out.write(value);
+                offset += RECORD_HEADER_BYTES + value.length;
+                count++;
+            }
+
+            int indexOffset = offset;
+            index.writeTo(out);
+            int bloomOffset = indexOffset + index.size();
+            for (long word : bloom) {
+                scratch.clear();
+                out.write(scratch.putLong(word).array(), 0, 8);
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(minKey).putInt(maxKey)
+                  .putInt(indexOffset).putInt(bloomOffset).putInt(bloomBits).flip();
+            channel.write(header, 0);
+        }
+        return count;
+    }
+
+    // Gives the bit of a Bloom filter of the specified size set by the i-th hash of key (double hashing)
+    private static int bloomBit(int key, int i, int bloomBits) {
+        int h1 = key * 0x9E3779B9;
+        h1 ^= h1 >>> 16;
+        int h2 = (key * 0x85EBCA6B) ^ (key >>> 13);
+        h2 = (h2 ^ (h2 >>> 16)) | 1;
+        return Integer.remainderUnsigned(h1 + i * h2, bloomBits);
+    }
+
+    /**
+     * Searches this segment for the specified key: the range and the Bloom filter are checked first, then the
+     * sparse index is binary searched, and at most INDEX_INTERVAL records are scanned.
+     * @param key the key to search for
+     * @return null if this segment has no record of the key, TieredSkipList.TOMBSTONE if it records the key as
+     *         deleted, or the key's value
+     */
+    public String find(int key) {
+        if (this.count == 0 || key < this.minKey || key > this.maxKey) {
+            return null;
+        }
+        for (int i = 0; i < BLOOM_HASHES; i++) {
+            int bit = bloomBit(key, i, this.bloomBits);
+            if ((this.buffer.getLong(this.bloomOffset + (bit >>> 6) * 8) & (1L << bit)) == 0) {
+                return null;
+            }
+        }
+
+        // find the last index entry whose key is at most key
+        int low = 0;
+        int high = this.numIndexEntries - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (this.buffer.getInt(this.indexOffset + middle * 8) <= key) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        int offset = this.buffer.getInt(this.indexOffset + low * 8 + 4);
+        for (int i = 0; i < INDEX_INTERVAL && offset < this.indexOffset; i++) {
+            int recordKey = this.buffer.getInt(offset);
+            int length = this.buffer.getInt(offset + 5);
+            if (recordKey == key) {
+                return this.buffer.get(offset + 4) == 1 ? TieredSkipList.TOMBSTONE : this.valueAt(offset, length);
+            } else if (recordKey > key) {
+                return null;
+            }
+            offset += RECORD_HEADER_BYTES + length;
+        }
+        return null;
+    }
+
+    // Decodes the value of the record at the specified offset
+    private String valueAt(int offset, int length) {
+        byte[] value = new byte[length];
+        ByteBuffer view = this.buffer.duplicate(); // positions are not shared with other readers
+        view.position(offset + RECORD_HEADER_BYTES);
+        view.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gives an iterator over the records of this segment in increasing key order, reading them from the
+     * mapped file as it goes. A tombstone's value is null.
+     * @return the iterator
+     */
+    public Iterator<Map.Entry<Integer, String>> iterator() {
+        return new Iterator<>() {
+            private int offset = HEADER_BYTES;
+
+            @Override
+            public boolean hasNext() {
+                return this.offset < indexOffset;
+            }
+
+            @Override
+            public Map.Entry<Integer, String> next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int key = buffer.getInt(this.offset);
+                int length = buffer.getInt(this.offset + 5);
+                String value = buffer.get(this.offset + 4) == 1 ? null : valueAt(this.offset, length);
+                this.offset += RECORD_HEADER_BYTES + length;
+                return new AbstractMap.SimpleImmutableEntry<>(key, value);
+            }
+        };
+    }
+
+    /**
+     * Gives the number of records (including tombstones) in this segment.
+     * @return the count
+     */
+    public int getCount() {
+        return this.count;
+    }
+
+    /**
+     * Gives the path of this segment's file.
+     * @return the path
+     */
+    public Path getPath() {
+        return this.path;
+    }
+
+}
+
+class TieredSkipList implements AutoCloseable {
+
+    // Symbolic Constants
+    public static final String TOMBSTONE = "\u0000"; // the value of a deleted key; never a valid value
+    public static final int NUM_RANGES = 8; // key ranges considered when choosing what to flush
+    public static final int COMPACTION_THRESHOLD = 4; // segments of one size tier that trigger a compaction
+    public static final int SIZE_RATIO = 4; // the largest size ratio between segments of one tier
+    public static final int MAX_SEGMENTS = 16; // segments at which flushes wait for compaction to catch up
+    public static final int PROMOTION_HEAT = 2; // recent accesses after which a key found on disk is promoted
+    public static final String MANIFEST = "MANIFEST"; // lists the live segment files, newest first
+    private static final int HEAT_BITS = 12;
+
+    private final SkipList memory; // the hot tier: live values and tombstones, newer than every segment
+    private final int memoryLimit;
+    private final Path directory;
+    private final byte[] heat = new byte[1 << HEAT_BITS]; // approximate, aging access counts by hashed key
+    private final Object segmentsLock = new Object();
+    private volatile List<SkipListSegment> segments = List.of(); // newest first
+    private final List<Path> retired = new ArrayList<>(); // files of compacted segments, guarded by segmentsLock
+    private final ExecutorService compactor;
+    private Future<?> compaction;
+    private int nextSegmentNumber;
+    private int size;
+
+    /**
+     * Creates and returns a new TieredSkipList, which holds the contents left in the directory by a previous
+     * TieredSkipList that was closed (or those of its segments that the manifest lists, if it was not), or is
+     * empty. It behaves like a SkipList, but holds at most about memoryLimit keys in an in-memory SkipList (the
+     * hot tier); when that is exceeded, the key ranges with the fewest recent accesses are cut out of the
+     * SkipList (with split() and concat()) and written together to a sorted, immutable segment file, which is
+     * memory-mapped with a sparse index and a Bloom filter. find() checks memory first and then the segments
+     * from newest to oldest, and keys found on disk that have been accessed PROMOTION_HEAT times recently are
+     * promoted back into memory. Deletions of keys that may be on disk are recorded as tombstones. Segments are
+     * compacted by size tier: once COMPACTION_THRESHOLD adjacent segments are within SIZE_RATIO of each other in
+     * size, a background thread merges them into one, so that each record is rewritten about once per tier
+     * rather than on every compaction. Like SkipList, a TieredSkipList must be used by one thread at a time.
+     * @param p see the SkipList constructor
+     * @param maxLevel see the SkipList constructor
+     * @param memoryLimit the number of keys (and tombstones) above which the hot tier is flushed to disk
+     * @param directory the directory that segment files are written to; created if necessary
+     * @throws IOException if the directory cannot be created or its segments cannot be read
+     */
+    public TieredSkipList(double p, int maxLevel, int memoryLimit, String directory) throws IOException {
+        this.memory = new SkipList(p, maxLevel);
+        this.memoryLimit = Math.max(NUM_RANGES, memoryLimit);
+        this.directory = Files.createDirectories(Paths.get(directory));
+        this.compactor = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "TieredSkipList compaction");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.recover();
+    }
 
-            switch (now.charAt(0)) {
-                case 'A':
-                    if (sl.insert(Integer.parseInt(parameters[1]), parameters[2])) {
-                        System.out.println(parameters[2] + " inserted");
-                    } else {
-                        System.out.println("Key " + parameters[1] + " already exists");
+    // Opens the segments listed by the manifest and counts their live keys; any other segment files are left
+    // over from compacted segments or from a compaction that did not finish, so they are retired
+    private void recover() throws IOException {
+        Path manifest = this.directory.resolve(MANIFEST);
+        List<String> live = Files.exists(manifest) ? Files.readAllLines(manifest, StandardCharsets.UTF_8)
+                                                   : List.of();
+        List<SkipListSegment> opened = new ArrayList<>();
+        for (String name : live) {
+            opened.add(new SkipListSegment(this.directory.resolve(name)));
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "segment-*.dat")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.matches("segment-\\d+\\.dat")) {
+                    int number = Integer.parseInt(name.substring(8, name.length() - 4));
+                    this.nextSegmentNumber = Math.max(this.nextSegmentNumber, number + 1);
+                    if (!live.contains(name)) {
+                        this.retired.add(file);
                     }
+                }
+            }
+        }
+        this.segments = List.copyOf(opened);
+        for (Iterator<Map.Entry<Integer, String>> records = merge(opened, true); records.hasNext(); records.next()) {
+            this.size++;
+        }
+        this.deleteRetired();
+    }
+
+    // Gives the slot of the heat counter for key
+    private static int heatSlot(int key) {
+        return (key * 0x9E3779B9) >>> (32 - HEAT_BITS);
+    }
+
+    // Counts an access to key towards the heat of its range
+    private void touch(int key) {
+        int slot = heatSlot(key);
+        if (this.heat[slot] < Byte.MAX_VALUE) {
+            this.heat[slot]++;
+        }
+    }
+
+    // Gives the newest value that the segments record for key: null if none, TOMBSTONE if deleted
+    private String findOnDisk(int key) {
+        for (SkipListSegment segment : this.segments) {
+            String value = segment.find(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    // Gives the value that the hot tier records for key: "" if none, TOMBSTONE if deleted
+    private String findInMemory(int key) {
+        return this.memory.find(key);
+    }
+
+    /**
+     * Adds a new key/value pair to this TieredSkipList.
+     * @param key the key of the key/value pair to be inserted
+     * @param s the value of the key/value pair to be inserted
+     * @return false if key is already present, true otherwise
+     * @throws UncheckedIOException if a flush to disk fails
+     */
+    public boolean insert(int key, String s) {
+        this.touch(key);
+        String inMemory = this.findInMemory(key);
+        if (inMemory.equals(TOMBSTONE)) {
+            this.memory.delete(key);
+        } else if (!inMemory.isEmpty()) {
+            return false;
+        } else {
+            String onDisk = this.findOnDisk(key);
+            if (onDisk != null && !onDisk.equals(TOMBSTONE)) {
+                return false;
+            }
+        }
+        this.memory.insert(key, s);
+        this.size++;
+        this.flushIfNeeded();
+        return true;
+    }
+
+    /**
+     * Removes the specified key/value pair from this TieredSkipList.
+     * @param key the key of the key/value pair to be removed
+     * @return false if key is not present, true otherwise
+     * @throws UncheckedIOException if a flush to disk fails
+     */
+    public boolean delete(int key) {
+        String inMemory = this.findInMemory(key);
+        if (inMemory.equals(TOMBSTONE)) {
+            return false;
+        }
+        String onDisk = this.findOnDisk(key);
+        boolean onDiskAlive = onDisk != null && !onDisk.equals(TOMBSTONE);
+        if (inMemory.isEmpty() && !onDiskAlive) {
+            return false;
+        }
+
+        this.memory.delete(key);
+        if (onDisk != null) {
+            this.memory.insert(key, TOMBSTONE); // hides the segments' record until compaction drops both
+        }
+        this.size--;
+        this.flushIfNeeded();
+        return true;
+    }
+
+    /**
+     * Searches for the specified key and returns its value. A key found on disk is promoted into memory only
+     * once it has been accessed PROMOTION_HEAT times since the counts were last aged, so that a scan over cold
+     * keys does not displace the hot tier.
+     * @param key the key to search for
+     * @return the value if key is present; an empty String (i.e., "") otherwise
+     * @throws UncheckedIOException if a flush to disk fails
+     */
+    public String find(int key) {
+        this.touch(key);
+        String inMemory = this.findInMemory(key);
+        if (!inMemory.isEmpty()) {
+            return inMemory.equals(TOMBSTONE) ? "" : inMemory;
+        }
+        String onDisk = this.findOnDisk(key);
+        if (onDisk == null || onDisk.equals(TOMBSTONE)) {
+            return "";
+        }
+        if (this.heat[heatSlot(key)] >= PROMOTION_HEAT) {
+            this.memory.insert(key, onDisk); // promotion; the newer copy in memory shadows the one on disk
+            this.flushIfNeeded();
+        }
+        return onDisk;
+    }
+
+    /**
+     * Determines whether or not a given key exists in this TieredSkipList.
+     * @param key the key whose presence is to be checked
+     * @return true if key is present, false otherwise
+     */
+    public boolean isPresent(int key) {
+        return !this.find(key).isEmpty();
+    }
+
+    /**
+     * Gives the number of key/value pairs in this TieredSkipList (in memory and on disk).
+     * @return this TieredSkipList's size
+     */
+    public int membership() {
+        return this.size;
+    }
+
+    /**
+     * Gives the number of keys and tombstones currently held in memory.
+     * @return the size of the hot tier
+     */
+    public int getMemoryMembership() {
+        return this.memory.membership();
+    }
+
+    /**
+     * Gives the number of segment files currently in use.
+     * @return the number of segments
+     */
+    public int getNumSegments() {
+        return this.segments.size();
+    }
+
+    // Writes the coldest key ranges of the hot tier to new segments until it holds at most half of memoryLimit
+    private void flushIfNeeded() {
+        int inMemory = this.memory.membership();
+        if (inMemory <= this.memoryLimit) {
+            return;
+        }
+
+        // divide the keys in memory into NUM_RANGES ranges of equal size and measure their heat
+        int[] keys = new int[inMemory];
+        int n = 0;
+        for (Node now = this.memory.getHeader().getForward(1); now.getKey() != SkipList.END_SENTINEL;
+             now = now.getForward(1)) {
+            keys[n++] = now.getKey();
+        }
+        int[] rangeStart = new int[NUM_RANGES + 1];
+        double[] rangeHeat = new double[NUM_RANGES];
+        Integer[] order = new Integer[NUM_RANGES];
+        for (int r = 0; r <= NUM_RANGES; r++) {
+            rangeStart[r] = (int) ((long) n * r / NUM_RANGES);
+        }
+        for (int r = 0; r < NUM_RANGES; r++) {
+            for (int i = rangeStart[r]; i < rangeStart[r + 1]; i++) {
+                rangeHeat[r] += this.heat[heatSlot(keys[i])];
+            }
+            rangeHeat[r] /= Math.max(1, rangeStart[r + 1] - rangeStart[r]);
+            order[r] = r;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(r -> rangeHeat[r]));
+
+        // choose the coldest ranges, then cut them out of memory in key order and write them to one segment
+        boolean[] chosen = new boolean[NUM_RANGES];
+        int remaining = n;
+        for (int r : order) {
+            if (remaining <= this.memoryLimit / 2) {
+                break;
+            }
+            chosen[r] = true;
+            remaining -= rangeStart[r + 1] - rangeStart[r];
+        }
+        List<SkipList> ranges = new ArrayList<>();
+        for (int r = 0; r < NUM_RANGES; r++) {
+            if (!chosen[r] || rangeStart[r] == rangeStart[r + 1]) {
+                continue;
+            }
+            SkipList range = this.memory.split(keys[rangeStart[r]]);
+            if (rangeStart[r + 1] < n) {
+                this.memory.concat(range.split(keys[rangeStart[r + 1]]));
+            }
+            ranges.add(range);
+        }
+        try {
+            this.writeSegment(ranges, n - remaining);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        for (int i = 0; i < this.heat.length; i++) {
+            this.heat[i] >>= 1; // ages the counts so that heat reflects recent accesses
+        }
+        this.compactIfNeeded();
+    }
+
+    // Writes the records of the specified SkipLists (tombstones included), which must be in increasing key
+    // order, to a new, newest segment
+    private void writeSegment(List<SkipList> ranges, int expectedCount) throws IOException {
+        Path path = this.directory.resolve(String.format("segment-%06d.dat", this.nextSegmentNumber++));
+        Iterator<Map.Entry<Integer, String>> records = new Iterator<>() {
+            private int range = 0;
+            private Node now = ranges.isEmpty() ? null : ranges.get(0).getHeader().getForward(1);
+
+            @Override
+            public boolean hasNext() {
+                while (this.now != null && this.now.getKey() == SkipList.END_SENTINEL) {
+                    this.now = ++this.range < ranges.size() ? ranges.get(this.range).getHeader().getForward(1) : null;
+                }
+                return this.now != null;
+            }
+
+            @Override
+            public Map.Entry<Integer, String> next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Node current = this.now;
+                this.now = current.getForward(1);
+                String value = current.getValue().equals(TOMBSTONE) ? null : current.getValue();
+                return new AbstractMap.SimpleImmutableEntry<>(current.getKey(), value);
+            }
+        };
+        SkipListSegment.write(path, records, expectedCount);
+        SkipListSegment segment = new SkipListSegment(path);
+        synchronized (this.segmentsLock) {
+            List<SkipListSegment> updated = new ArrayList<>(this.segments.size() + 1);
+            updated.add(segment);
+            updated.addAll(this.segments);
+            this.segments = List.copyOf(updated);
+            this.writeManifest();
+        }
+    }
+
+    // Records the current segments in the manifest, which is written to a temporary file and then moved into
+    // place so that a crash leaves either the old or the new list; must be called while holding segmentsLock
+    private void writeManifest() throws IOException {
+        List<String> names = new ArrayList<>(this.segments.size());
+        for (SkipListSegment segment : this.segments) {
+            names.add(segment.getPath().getFileName().toString());
+        }
+        Path temporary = this.directory.resolve(MANIFEST + ".tmp");
+        Files.write(temporary, names, StandardCharsets.UTF_8);
+        Files.move(temporary, this.directory.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING,
+                   StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Deletes the files of retired segments. This is only called by the thread using this TieredSkipList,
+    // between operations, so none of its reads can still be using them, and the compaction that retired them
+    // has finished with them. A file that cannot be deleted yet (e.g., on Windows, until its mapping has been
+    // garbage collected) stays on the list and is tried again after the next flush; recover() also retires any
+    // file that the manifest does not list, so a file left behind is never read again
+    private void deleteRetired() {
+        synchronized (this.segmentsLock) {
+            this.retired.removeIf(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                    return true;
+                } catch (IOException e) {
+                    return false;
+                }
+            });
+        }
+    }
+
+    // Starts a background compaction if some tier is due for one, first waiting for the running one (if any)
+    // when reads would otherwise have to search too many segments; a compaction that has finished is always
+    // collected first, so that its failure is reported rather than lost
+    private void compactIfNeeded() {
+        this.deleteRetired();
+        if (this.compaction != null && (this.compaction.isDone() || this.segments.size() >= MAX_SEGMENTS)) {
+            this.awaitCompaction();
+        }
+        if (this.compaction == null) {
+            List<SkipListSegment> current = this.segments;
+            List<SkipListSegment> inputs = chooseCompaction(current);
+            if (inputs != null) {
+                // tombstones can only be dropped when no older segment is left for them to hide records in
+                boolean dropTombstones = inputs.get(inputs.size() - 1) == current.get(current.size() - 1);
+                Path output = this.directory.resolve(String.format("segment-%06d.dat", this.nextSegmentNumber++));
+                this.compaction = this.compactor.submit(() -> {
+                    this.compact(inputs, dropTombstones, output);
+                    return null;
+                });
+            }
+        }
+    }
+
+    // Waits for the background compaction (if any) to finish and forgets it, throwing an IllegalStateException
+    // if it failed; its inputs are then still the live segments, so the next compaction can try again
+    private void awaitCompaction() {
+        Future<?> finished = this.compaction;
+        this.compaction = null;
+        if (finished == null) {
+            return;
+        }
+        try {
+            finished.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Background compaction failed.", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a background compaction.", e);
+        }
+    }
+
+    // Chooses the adjacent segments to be merged next: the newest run of at least COMPACTION_THRESHOLD whose
+    // sizes are all within SIZE_RATIO of each other (a tier), or, once there are MAX_SEGMENTS segments and no
+    // tier is ready, the run of COMPACTION_THRESHOLD with the fewest records; null if none is due. Only
+    // adjacent segments are merged, so that the output can take their place in the newest-first order
+    private static List<SkipListSegment> chooseCompaction(List<SkipListSegment> segments) {
+        for (int start = 0; start + COMPACTION_THRESHOLD <= segments.size(); start++) {
+            int smallest = Integer.MAX_VALUE;
+            int largest = 0;
+            int end = start;
+            for (; end < segments.size(); end++) {
+                int count = Math.max(1, segments.get(end).getCount());
+                if ((long) Math.max(largest, count) > (long) SIZE_RATIO * Math.min(smallest, count)) {
                     break;
-                case 'D':
-                    if (sl.delete(Integer.parseInt(parameters[1]))) {
-                        System.out.println("Key " + parameters[1] + " deleted");
-                    } else {
-                        System.out.println("Key " + parameters[1] + " not found");
+                }
+                smallest = Math.min(smallest, count);
+                largest = Math.max(largest, count);
+            }
+            if (end - start >= COMPACTION_THRESHOLD) {
+                return segments.subList(start, end);
+            }
+        }
+        if (segments.size() < MAX_SEGMENTS) {
+            return null;
+        }
+        int best = 0;
+        long fewest = Long.MAX_VALUE;
+        for (int start = 0; start + COMPACTION_THRESHOLD <= segments.size(); start++) {
+            long total = 0;
+            for (int i = start; i < start + COMPACTION_THRESHOLD; i++) {
+                total += segments.get(i).getCount();
+            }
+            if (total < fewest) {
+                best = start;
+                fewest = total;
+            }
+        }
+        return segments.subList(best, best + COMPACTION_THRESHOLD);
+    }
+
+    // Merges the specified adjacent segments into one that takes their place, keeping only the newest record
+    // of each key, then retires them; their files are deleted later by deleteRetired(). If the output cannot be
+    // written, what was written of it is deleted and the inputs stay in place.
+    private void compact(List<SkipListSegment> inputs, boolean dropTombstones, Path output) throws IOException {
+        int expectedCount = 0;
+        for (SkipListSegment segment : inputs) {
+            expectedCount += segment.getCount();
+        }
+        SkipListSegment compacted;
+        try {
+            SkipListSegment.write(output, merge(inputs, dropTombstones), expectedCount);
+            compacted = new SkipListSegment(output);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(output);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed); // the file is unlisted, so recovery removes it on the next opening
+            }
+            throw e;
+        }
+
+        // segments flushed since the compaction began are newer than its output, so they stay in front
+        synchronized (this.segmentsLock) {
+            List<SkipListSegment> updated = new ArrayList<>();
+            for (SkipListSegment segment : this.segments) {
+                if (segment == inputs.get(0)) {
+                    updated.add(compacted);
+                }
+                if (!inputs.contains(segment)) {
+                    updated.add(segment);
+                }
+            }
+            this.segments = List.copyOf(updated);
+            this.writeManifest();
+            for (SkipListSegment segment : inputs) {
+                this.retired.add(segment.getPath());
+            }
+        }
+    }
+
+    // Gives an iterator over the newest record of each key in the specified segments (newest first) in key
+    // order; tombstones have null values and are skipped if dropTombstones is true
+    private static Iterator<Map.Entry<Integer, String>> merge(List<SkipListSegment> inputs,
+                                                              boolean dropTombstones) {
+        List<Iterator<Map.Entry<Integer, String>>> cursors = new ArrayList<>();
+        List<Map.Entry<Integer, String>> heads = new ArrayList<>();
+        for (SkipListSegment segment : inputs) {
+            Iterator<Map.Entry<Integer, String>> cursor = segment.iterator();
+            cursors.add(cursor);
+            heads.add(cursor.hasNext() ? cursor.next() : null);
+        }
+
+        return new Iterator<>() {
+            private Map.Entry<Integer, String> pending = this.advance();
+
+            // Gives the next record in key order, taking the newest segment's record where keys repeat
+            private Map.Entry<Integer, String> advance() {
+                while (true) {
+                    int newest = -1;
+                    for (int i = 0; i < heads.size(); i++) {
+                        if (heads.get(i) != null
+                                && (newest < 0 || heads.get(i).getKey() < heads.get(newest).getKey())) {
+                            newest = i; // lower indices are newer, so ties keep the newest
+                        }
                     }
-                    break;
-                case 'S':
-                    String value = sl.find(Integer.parseInt(parameters[1]));
-                    if (!value.equals("")) {
-                        System.out.println("Key " + parameters[1] + " found, value " + value);
-                    } else {
-                        System.out.println("Key " + parameters[1] + " not found");
+                    if (newest < 0) {
+                        return null;
                     }
-                    break;
-                case 'M':
-                    System.out.println("Membership is " + sl.membership());
-                    break;
-                case 'L':
-                    sl.listAll();
-                    break;
-                case 'T':
-                    sl.debugList();
-                    break;
-                case 'E':
-                    return;
-                default:
-                    System.out.println("Invalid input line: " + now);
-                    break;
+                    Map.Entry<Integer, String> winner = heads.get(newest);
+                    for (int i = 0; i < heads.size(); i++) {
+                        if (heads.get(i) != null && heads.get(i).getKey().equals(winner.getKey())) {
+                            heads.set(i, cursors.get(i).hasNext() ? cursors.get(i).next() : null);
+                        }
+                    }
+                    if (winner.getValue() != null || !dropTombstones) {
+                        return winner;
+                    }
+                }
+            }
+
+            @Override
+            public boolean hasNext() {
+                return this.pending != null;
+            }
+
+            @Override
+            public Map.Entry<Integer, String> next() {
+                Map.Entry<Integer, String> result = this.pending;
+                this.pending = this.advance();
+                return result;
+            }
+        };
+    }
+
+    /**
+     * Waits for any background compaction to finish, writes the hot tier (tombstones included) to a final
+     * segment, and stops the compaction thread. The segment files and the manifest are left in the directory,
+     * so a TieredSkipList created on it later holds the same key/value pairs.
+     * @throws UncheckedIOException if the hot tier cannot be written
+     */
+    @Override
+    public void close() {
+        this.compactor.shutdown();
+        IllegalStateException failure = null;
+        try {
+            this.awaitCompaction();
+        } catch (IllegalStateException e) {
+            failure = e; // the hot tier is still written, since the segments before the compaction are intact
+        }
+        try {
+            if (this.memory.membership() > 0) {
+                this.writeSegment(List.of(this.memory), this.memory.membership());
             }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.deleteRetired();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+}
+
+class SkipListMonitor implements DynamicMBean {
+
+    // Symbolic Constants
+    private static final String[] ATTRIBUTES = {
+        "Finds", "HopsOnFinds", "ComparisonsOnFinds",
+        "Inserts", "HopsOnInserts", "ComparisonsOnInserts",
+        "Deletes", "HopsOnDeletes", "ComparisonsOnDeletes",
+        "Membership", "Level", "MaxLevel", "IdealLevel", "LevelHistogram", "CacheHits", "CacheMisses"
+    };
+
+    private final SkipList skipList;
+
+    /**
+     * Creates and returns a new SkipListMonitor that reports the statistics of the specified SkipList through
+     * JMX. The SkipList is not synchronized, so the values read by a monitoring thread may be slightly stale.
+     * @param skipList the SkipList to be monitored
+     */
+    public SkipListMonitor(SkipList skipList) {
+        this.skipList = skipList;
+    }
+
+    /**
+     * Registers a new SkipListMonitor for the specified SkipList with the platform MBeanServer.
+     * @param skipList the SkipList to be monitored
+     * @param name the name to register the monitor under, e.g. "ProjectOne:type=SkipList"
+     * @return the ObjectName that the monitor was registered under
+     * @throws JMException if the name is invalid or already registered
+     */
+    public static ObjectName register(SkipList skipList, String name) throws JMException {
+        ObjectName objectName = new ObjectName(name);
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new SkipListMonitor(skipList), objectName);
+        return objectName;
+    }
 
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        for (int i = 0; i < 9; i++) {
+            if (ATTRIBUTES[i].equals(attribute)) {
+                return this.skipList.getStatistics()[i];
+            }
+        }
+        switch (attribute) {
+            case "Membership":
+                return this.skipList.membership();
+            case "Level":
+                return this.skipList.getLevel();
+            case "MaxLevel":
+                return this.skipList.getMaxLevel();
+            case "IdealLevel":
+                return this.skipList.getIdealLevel();
+            case "LevelHistogram":
+                return this.skipList.getLevelHistogram();
+            case "CacheHits":
+                return this.skipList.getCache() == null ? 0L : this.skipList.getCache().getNumHits();
+            case "CacheMisses":
+                return this.skipList.getCache() == null ? 0L : this.skipList.getCache().getNumMisses();
+            default:
+                throw new AttributeNotFoundException(attribute);
         }
+    }
 
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            try {
+                list.add(new Attribute(attribute, this.getAttribute(attribute)));
+            } catch (AttributeNotFoundException e) {
+                // omitted from the result, as the DynamicMBean contract requires
+            }
+        }
+        return list;
     }
 
-}
\ No newline at end of file
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("All SkipList attributes are read-only: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        if (actionName.equals("resetStatistics")) {
+            this.skipList.resetStatistics();
+            return null;
+        }
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[ATTRIBUTES.length];
+        for (int i = 0; i < ATTRIBUTES.length; i++) {
+            String type = i < 9 || i > 13 ? "long" : i < 12 ? "int" : i == 12 ? "double" : "[I";
+            attributes[i] = new MBeanAttributeInfo(ATTRIBUTES[i], type, ATTRIBUTES[i], true, false, false);
+        }
+        MBeanOperationInfo[] operations = {
+            new MBeanOperationInfo("resetStatistics", "Resets the search cost statistics",
+                                   new MBeanParameterInfo[0], "void", MBeanOperationInfo.ACTION)
+        };
+        return new MBeanInfo(SkipListMonitor.class.getName(), "SkipList search cost statistics",
+                             attributes, null, operations, null);
+    }
+
+}
+
+public class ProjectOne {
+
+    public static void main(String[] args) throws IOException, JMException {
+
+        SkipList sl = new SkipList(0.25, 5);
+        SkipListMonitor.register(sl, "ProjectOne:type=SkipList");
+
+        if (args.length == 2 && args[0].equals("serve")) {
+            // Keeps sl resident and accepts the commands below over TCP (e.g. "java ProjectOne serve 7001")
+            try (CommandServer server = new CommandServer(Integer.parseInt(args[1]),
+                                                          (line, out) -> execute(sl, line, out))) {
+                server.run();
+            }
+            return;
+        }
+
+        Scanner input = new Scanner(new File("SkipListData.txt"));
+        while (input.hasNextLine()) {
+            if (!execute(sl, input.nextLine(), System.out)) {
+                return;
+            }
+        }
+
+    }
+
+    /**
+     * Executes one line of the SkipList command protocol (A, D, S, M, L, T, P, or E) on the specified SkipList.
+     * @param sl the SkipList that the command applies to
+     * @param now the command line to be executed
+     * @param out the PrintStream that the response is to be printed to
+     * @return false if the line is an E command, true otherwise
+     */
+    public static boolean execute(SkipList sl, String now, PrintStream out) {
+
+        String[] parameters = now.split(" ");
+
+        switch (now.charAt(0)) {
+            case 'A':
+                if (sl.insert(Integer.parseInt(parameters[1]), parameters[2])) {
+                    out.println(parameters[2] + " inserted");
+                } else {
+                    out.println("Key " + parameters[1] + " already exists");
+                }
+                break;
+            case 'D':
+                if (sl.delete(Integer.parseInt(parameters[1]))) {
+                    out.println("Key " + parameters[1] + " deleted");
+                } else {
+                    out.println("Key " + parameters[1] + " not found");
+                }
+                break;
+            case 'S':
+                String value = sl.find(Integer.parseInt(parameters[1]));
+                if (!value.equals("")) {
+                    out.println("Key " + parameters[1] + " found, value " + value);
+                } else {
+                    out.println("Key " + parameters[1] + " not found");
+                }
+                break;
+            case 'M':
+                out.println("Membership is " + sl.membership());
+                break;
+            case 'L':
+                sl.listAll(out);
+                break;
+            case 'T':
+                sl.debugList(out);
+                break;
+            case 'P':
+                sl.printStatistics(out);
+                break;
+            case 'E':
+                return false;
+            default:
+                out.println("Invalid input line: " + now);
+                break;
+        }
+        return true;
+
+    }
+
+}
@@ -1,7 +1,21 @@
-import java.io.File;
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.text.DecimalFormat;
-import java.util.Scanner;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
 
 /**
  * CS 3345 HON
@@ -14,6 +28,7 @@ import java.util.Scanner;
 class DisjointSet {
 
     private final int[] set;
+    private int numSets;
 
     /**
      * Creates and returns a new DisjointSet {0, 1, 2, ..., size - 1} of disjoint elements.
@@ -24,6 +39,7 @@ class DisjointSet {
         for (int i = 0; i < size; i++) {
             set[i] = -1;
         }
+        numSets = size;
     }
 
     /**
@@ -33,356 +49,3330 @@ class DisjointSet {
      * @return the root element of the tree representing the set containing subject
      */
     public int find(int subject) {
-        int target = set[subject];
-        if (target >= 0) {
-            int root = find(target);
-            set[subject] = root;
-            return root;
+        // Note: iterative path halving (every element on the path is pointed at its grandparent) keeps trees
+        // shallow like full path compression does, but without a stack frame per level of the tree
+        while (set[subject] >= 0) {
+            int parent = set[subject];
+            if (set[parent] >= 0) {
+                set[subject] = set[parent];
+            }
+            subject = set[subject];
+        }
+        return subject;
+    }
+
+    /**
+     * Joins the sets containing the specified elements
+     * if they are not already part of the same set.
+     * @param a an element of the first set to be joined
+     * @param b an element of the second set to be joined
+     * @return true if two sets were joined, false if a and b were already in the same set
+     */
+    public boolean union(int a, int b) {
+        int aRoot = find(a);
+        int bRoot = find(b);
+        if (aRoot != bRoot) {
+            // Note: union is by size
+            if (set[aRoot] <= set[bRoot]) {
+                set[aRoot] += set[bRoot];
+                set[bRoot] = aRoot;
+            } else {
+                set[bRoot] += set[aRoot];
+                set[aRoot] = bRoot;
+            }
+            numSets--;
+            return true;
         } else {
-            return subject;
+            return false;
+        }
+    }
+
+    /**
+     * Joins the sets containing a[i] and b[i] for every index i, in increasing order of i.
+     * @param a the first element of each pair of elements whose sets are to be joined
+     * @param b the second element of each pair of elements whose sets are to be joined; same length as a
+     * @return the number of pairs that joined two previously separate sets
+     */
+    public int unionAll(int[] a, int[] b) {
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("Cannot unionAll() arrays of different lengths!");
+        }
+        int joined = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (union(a[i], b[i])) {
+                joined++;
+            }
+        }
+        return joined;
+    }
+
+    /**
+     * Determines whether or not the specified elements belong to the same set.
+     * @param a the first element to be checked
+     * @param b the second element to be checked
+     * @return true if a and b are in the same set, false otherwise
+     */
+    public boolean connected(int a, int b) {
+        return find(a) == find(b);
+    }
+
+    /**
+     * Gives the number of (disjoint) sets in this DisjointSet; kept up to date by union().
+     * @return the number of sets
+     */
+    public int getNumSets() {
+        return numSets;
+    }
+
+    /**
+     * Gives the number of elements in the set to which the specified element belongs.
+     * @param subject an element of the set in question
+     * @return the size of the set containing subject
+     */
+    public int getSetSize(int subject) {
+        return -set[find(subject)];
+    }
+
+}
+
+class UnweightedGraph {
+
+    public static final int DISTANCE = 0;
+    public static final int PREDECESSOR = 1;
+
+    private final int numVertices;
+
+    // Each row is a bitset: bit b of adjacencies[a] (i.e., bit b % 64 of adjacencies[a][b / 64]) is set if and
+    // only if there is an edge from vertex a to vertex b. The rows of transposed hold the same information by
+    // head rather than by tail; they are built on demand (safely, even by concurrent readers) and discarded
+    // whenever an edge is added.
+    private final long[][] adjacencies;
+    private volatile long[][] transposed;
+    private int modificationCount; // incremented whenever an edge is added
+
+    // Scratch space for findShortestPath(), one per thread so that concurrent searches cannot disturb each other
+    private final ThreadLocal<BidirectionalSearch> searches = ThreadLocal.withInitial(
+            () -> new BidirectionalSearch(getNumVertices()));
+
+    /**
+     * Creates and returns a new UnweightedGraph with the specified number
+     * of vertices (labeled 0, 1, 2, ..., numVertices - 1) and no edges.
+     * @param numVertices the number of vertices in this UnweightedGraph; cannot be changed after object creation
+     */
+    public UnweightedGraph(int numVertices) {
+        this.numVertices = numVertices;
+        adjacencies = new long[numVertices][wordsFor(numVertices)]; // entries automatically initialized to 0
+    }
+
+    // Gives the number of 64-bit words needed to hold one bit per vertex
+    private static int wordsFor(int numVertices) {
+        return (numVertices + 63) >>> 6;
+    }
+
+    /**
+     * Gives the number of vertices in this UnweightedGraph.
+     * @return the number of vertices in this UnweightedGraph
+     */
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    /**
+     * Creates a (directed) edge beginning at vertex a and ending at vertex b. Note that
+     * an "undirected" edge can be created by calling both connect(a, b) and connect(b, a).
+     * @param a the tail (origin vertex) of the edge to be created
+     * @param b the head (terminal vertex) of the edge to be created
+     */
+    public void connect(int a, int b) {
+        adjacencies[a][b >>> 6] |= 1L << b;
+        transposed = null;
+        modificationCount++;
+    }
+
+    /**
+     * Gives a number that changes whenever an edge is added to this UnweightedGraph, so that
+     * results computed from it can be recognized as stale.
+     * @return the number of times connect() has been called
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Determines whether or not there is a (directed) edge beginning at vertex a and ending at vertex b.
+     * @param a the tail (origin vertex) of the edge in question
+     * @param b the head (terminal vertex) of the edge in question
+     * @return true if the edge exists, false otherwise
+     */
+    public boolean isAdjacent(int a, int b) {
+        return (adjacencies[a][b >>> 6] & (1L << b)) != 0;
+    }
+
+    /**
+     * Gives the bitset row of the adjacency matrix for the specified vertex (see the note on adjacencies above).
+     * The array returned is shared and must not be modified.
+     * @param vertex the tail (origin vertex) of the edges in question
+     * @return an array of words whose bit b % 64 of word b / 64 is set if and only if edge (vertex, b) exists
+     */
+    protected long[] getAdjacencyRow(int vertex) {
+        return adjacencies[vertex];
+    }
+
+    /**
+     * Gives the number of edges beginning at the specified vertex.
+     * @param vertex the vertex in question
+     * @return the out-degree of vertex
+     */
+    public int getOutDegree(int vertex) {
+        int outDegree = 0;
+        for (long word : adjacencies[vertex]) {
+            outDegree += Long.bitCount(word);
+        }
+        return outDegree;
+    }
+
+    // Gives the rows of the transpose of this UnweightedGraph's adjacency matrix (i.e., bit a of row b is set if
+    // and only if there is an edge from vertex a to vertex b), building them if they are not already up to date
+    private long[][] getTransposed() {
+        long[][] current = transposed;
+        if (current != null) {
+            return current;
+        }
+        synchronized (adjacencies) {
+            if (transposed == null) {
+                transposed = buildTransposed();
+            }
+            return transposed;
+        }
+    }
+
+    // Builds the rows described in the documentation for getTransposed() above
+    private long[][] buildTransposed() {
+        long[][] output = new long[numVertices][wordsFor(numVertices)];
+        for (int a = 0; a < numVertices; a++) {
+            for (int w = 0; w < adjacencies[a].length; w++) {
+                for (long bits = adjacencies[a][w]; bits != 0; bits &= bits - 1) {
+                    int b = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    output[b][a >>> 6] |= 1L << a;
+                }
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Calculates and returns information about shortest paths from the specified vertex to every other vertex
+     * in this UnweightedGraph using a direction-optimizing Breadth-First Search: levels are expanded top-down
+     * (from the frontier along outgoing edges) while the frontier is small and bottom-up (from every unvisited
+     * vertex along incoming edges, stopping at the first frontier vertex found) while it is large.
+     * @param source the vertex from which shortest paths are to be found
+     * @return a two-dimensional array x whose entries are ordered pairs such that
+     *         x[j][UnweightedGraph.DISTANCE] contains the number of edges on a shortest path from source to
+     *         vertex j (or Integer.MAX_VALUE if j is unreachable from source) and
+     *         x[j][UnweightedGraph.PREDECESSOR] contains the lowest-numbered vertex immediately preceding
+     *         vertex j on such a path (or -1 if j is source or is unreachable from source)
+     */
+    public int[][] breadthFirstSearch(int source) {
+
+        int[] distances = new int[numVertices];
+        int[] predecessors = new int[numVertices];
+        breadthFirstSearch(source, distances, predecessors);
+
+        int[][] output = new int[numVertices][2];
+        for (int j = 0; j < numVertices; j++) {
+            output[j][DISTANCE] = distances[j];
+            output[j][PREDECESSOR] = predecessors[j];
+        }
+        return output;
+
+    }
+
+    // Performs the search described in the documentation for the public breadthFirstSearch() method above, but
+    // stores its results in the arrays specified (predecessors may be null if they are not needed) and returns
+    // the greatest distance from source to any vertex reachable from it
+    private int breadthFirstSearch(int source, int[] distances, int[] predecessors) {
+
+        Arrays.fill(distances, Integer.MAX_VALUE); // i.e., unreachable (so far)
+        if (predecessors != null) {
+            Arrays.fill(predecessors, -1); // i.e., no predecessor (yet)
+        }
+        distances[source] = 0;
+
+        int words = wordsFor(numVertices);
+        long[] visited = new long[words];
+        long[] frontier = new long[words];
+        long[] next = new long[words];
+        visited[source >>> 6] |= 1L << source;
+        frontier[source >>> 6] |= 1L << source;
+
+        int frontierSize = 1;
+        int numUnvisited = numVertices - 1;
+        int distance = 1;
+        for (; frontierSize > 0; distance++) {
+
+            int nextSize = 0;
+            if ((long) frontierSize * 16 < numUnvisited) {
+
+                // Top-down: claim every unvisited head of an edge leaving the frontier
+                for (int fw = 0; fw < words; fw++) {
+                    for (long frontierBits = frontier[fw]; frontierBits != 0; frontierBits &= frontierBits - 1) {
+                        int u = (fw << 6) + Long.numberOfTrailingZeros(frontierBits);
+                        for (int w = 0; w < words; w++) {
+                            for (long bits = adjacencies[u][w] & ~visited[w]; bits != 0; bits &= bits - 1) {
+                                int v = (w << 6) + Long.numberOfTrailingZeros(bits);
+                                visited[w] |= 1L << v;
+                                next[w] |= 1L << v;
+                                distances[v] = distance;
+                                if (predecessors != null) {
+                                    predecessors[v] = u;
+                                }
+                                nextSize++;
+                            }
+                        }
+                    }
+                }
+
+            } else {
+
+                // Bottom-up: every unvisited vertex looks for a frontier vertex among the tails of its edges
+                long[][] incoming = getTransposed();
+                for (int w = 0; w < words; w++) {
+                    long unvisited = ~visited[w];
+                    if (w == words - 1 && (numVertices & 63) != 0) {
+                        unvisited &= (1L << numVertices) - 1; // ignore bits beyond the last vertex
+                    }
+                    for (long bits = unvisited; bits != 0; bits &= bits - 1) {
+                        int v = (w << 6) + Long.numberOfTrailingZeros(bits);
+                        for (int fw = 0; fw < words; fw++) {
+                            long parents = incoming[v][fw] & frontier[fw];
+                            if (parents != 0) {
+                                next[w] |= 1L << v;
+                                distances[v] = distance;
+                                if (predecessors != null) {
+                                    predecessors[v] = (fw << 6) + Long.numberOfTrailingZeros(parents);
+                                }
+                                nextSize++;
+                                break;
+                            }
+                        }
+                    }
+                    visited[w] |= next[w];
+                }
+
+            }
+
+            long[] swap = frontier;
+            frontier = next;
+            next = swap;
+            Arrays.fill(next, 0);
+            numUnvisited -= nextSize;
+            frontierSize = nextSize;
+
+        }
+
+        return distance - 2; // the last level expanded was empty, and distance was incremented after it
+
+    }
+
+    /**
+     * Creates and returns a copy of this UnweightedGraph with its vertices renumbered as specified.
+     * @param newToOld an array x such that vertex i of the copy is vertex x[i] of this UnweightedGraph;
+     *                 must contain each vertex exactly once (see VertexOrdering)
+     * @return the renumbered copy
+     */
+    public UnweightedGraph permute(int[] newToOld) {
+        int[] oldToNew = new int[numVertices];
+        for (int i = 0; i < numVertices; i++) {
+            oldToNew[newToOld[i]] = i;
+        }
+        UnweightedGraph output = new UnweightedGraph(numVertices);
+        for (int i = 0; i < numVertices; i++) {
+            long[] row = adjacencies[newToOld[i]];
+            for (int w = 0; w < row.length; w++) {
+                for (long bits = row[w]; bits != 0; bits &= bits - 1) {
+                    output.connect(i, oldToNew[(w << 6) + Long.numberOfTrailingZeros(bits)]);
+                }
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Finds a shortest path from the specified source vertex to the specified target vertex using a bidirectional
+     * Breadth-First Search: one search proceeds forwards from source along outgoing edges and another backwards
+     * from target along incoming edges, always expanding whichever frontier is smaller by a full level, until
+     * they meet. On sparse graphs this visits far fewer vertices than a single search from source would.
+     * Each thread searches with its own scratch space, so calls may overlap.
+     * @param source the first vertex of the path
+     * @param target the last vertex of the path
+     * @return an array containing the vertices of a shortest path from source to target in order (beginning
+     *         with source and ending with target), or null if target is unreachable from source
+     */
+    public int[] findShortestPath(int source, int target) {
+        return searches.get().search(adjacencies, getTransposed(), source, target);
+    }
+
+    /**
+     * Gives the eccentricity of the specified vertex, i.e., the greatest number of edges on
+     * a shortest path from that vertex to any other vertex in this UnweightedGraph.
+     * @param vertex the vertex in question
+     * @return the eccentricity of vertex, or Integer.MAX_VALUE if some vertex is unreachable from it
+     */
+    public int getEccentricity(int vertex) {
+        int[] distances = new int[numVertices];
+        int eccentricity = breadthFirstSearch(vertex, distances, null);
+        for (int distance : distances) {
+            if (distance == Integer.MAX_VALUE) {
+                return Integer.MAX_VALUE;
+            }
+        }
+        return eccentricity;
+    }
+
+    /**
+     * Calculates and returns the diameter of this UnweightedGraph, i.e., the greatest number of edges on a
+     * shortest path between any two of its vertices; every edge must have been created in both directions.
+     * See boundDiameter() for details of the method used.
+     * @return the diameter, or Integer.MAX_VALUE if this UnweightedGraph is disconnected (in which case
+     *         getComponentDiameters() gives the diameter of each of its connected components)
+     */
+    public int getDiameter() {
+        return boundDiameter(Integer.MAX_VALUE)[0];
+    }
+
+    /**
+     * Bounds the diameter of this UnweightedGraph (as defined for getDiameter(); every edge must have been created
+     * in both directions) using the iFUB (iterative Fringe Upper Bound) method: a double sweep of Breadth-First
+     * Searches finds a central vertex u and a lower bound, after which the vertices farthest from u are examined
+     * level by level; each level either raises the lower bound above what any remaining vertex could achieve or
+     * lowers the upper bound to twice the distance of the next level. On sparse real-world graphs the bounds
+     * typically meet after a handful of searches.
+     * @param maxSearches the greatest number of Breadth-First Searches to perform before giving up on an exact
+     *                    answer; Integer.MAX_VALUE always produces an exact answer
+     * @return an array x such that x[0] and x[1] are lower and upper bounds (respectively) for the diameter;
+     *         they are equal if the diameter is known exactly, and both Integer.MAX_VALUE if this
+     *         UnweightedGraph is disconnected
+     */
+    public int[] boundDiameter(int maxSearches) {
+
+        if (numVertices <= 1) {
+            return new int[]{0, 0};
+        }
+
+        // Search from a vertex of highest degree, checking connectivity along the way
+        int start = 0;
+        for (int v = 1; v < numVertices; v++) {
+            if (getOutDegree(v) > getOutDegree(start)) {
+                start = v;
+            }
+        }
+        int[] distances = new int[numVertices];
+        breadthFirstSearch(start, distances, null);
+        for (int v = 0; v < numVertices; v++) {
+            if (distances[v] == Integer.MAX_VALUE) {
+                return new int[]{Integer.MAX_VALUE, Integer.MAX_VALUE};
+            }
+        }
+        return boundComponentDiameter(start, distances, maxSearches);
+
+    }
+
+    // Performs the bounding described in the documentation for boundDiameter() above on the connected component
+    // containing start, given the distances from start (Integer.MAX_VALUE for the vertices of other components)
+    private int[] boundComponentDiameter(int start, int[] distances, int maxSearches) {
+
+        int[] predecessors = new int[numVertices];
+
+        // Double sweep: from start, then from the vertex farthest from it; the second search's eccentricity is a
+        // lower bound for the diameter
+        int farthest = start;
+        int componentSize = 0;
+        for (int v = 0; v < numVertices; v++) {
+            if (distances[v] != Integer.MAX_VALUE) {
+                componentSize++;
+                if (distances[v] > distances[farthest]) {
+                    farthest = v;
+                }
+            }
+        }
+        int lowerBound = breadthFirstSearch(farthest, distances, predecessors);
+
+        // The vertex halfway along the path found by the second search is (roughly) central, so it makes a good
+        // root for the fringe examination below
+        int middle = farthest;
+        for (int v = 0; v < numVertices; v++) {
+            if (distances[v] == lowerBound) {
+                middle = v;
+                break;
+            }
+        }
+        for (int steps = 0; steps < lowerBound / 2; steps++) {
+            middle = predecessors[middle];
+        }
+        int rootEccentricity = breadthFirstSearch(middle, distances, null);
+        lowerBound = Math.max(lowerBound, rootEccentricity);
+        int upperBound = 2 * rootEccentricity;
+        int searches = 3;
+
+        // Group the vertices by their distance from the root so that they can be visited from the farthest level
+        // inwards (a counting sort by distance)
+        int[] levelStarts = new int[rootEccentricity + 2];
+        for (int v = 0; v < numVertices; v++) {
+            if (distances[v] != Integer.MAX_VALUE) {
+                levelStarts[distances[v] + 1]++;
+            }
+        }
+        for (int level = 0; level <= rootEccentricity; level++) {
+            levelStarts[level + 1] += levelStarts[level];
+        }
+        int[] byLevel = new int[componentSize];
+        int[] fill = Arrays.copyOf(levelStarts, rootEccentricity + 1);
+        for (int v = 0; v < numVertices; v++) {
+            if (distances[v] != Integer.MAX_VALUE) {
+                byLevel[fill[distances[v]]++] = v;
+            }
+        }
+
+        // Any two vertices at distance at most level - 1 from the root are at most 2 * (level - 1) apart, so once
+        // every vertex at the given level has been searched from, the diameter is either the best eccentricity
+        // found so far or no more than 2 * (level - 1)
+        int[] scratch = new int[numVertices];
+        for (int level = rootEccentricity; level > 0 && lowerBound < upperBound; level--) {
+            for (int i = levelStarts[level]; i < levelStarts[level + 1]; i++) {
+                if (searches >= maxSearches) {
+                    return new int[]{lowerBound, upperBound};
+                }
+                lowerBound = Math.max(lowerBound, breadthFirstSearch(byLevel[i], scratch, null));
+                searches++;
+            }
+            upperBound = Math.max(lowerBound, Math.min(upperBound, 2 * (level - 1)));
+        }
+
+        return new int[]{lowerBound, lowerBound};
+
+    }
+
+    /**
+     * Calculates and returns the diameter of each connected component of this UnweightedGraph (as defined for
+     * getDiameter(); every edge must have been created in both directions), bounding each with the method of
+     * boundDiameter(). A connected UnweightedGraph has a single component, whose diameter is getDiameter().
+     * @return an array x such that x[c] is the diameter of the c-th component, where components are numbered in
+     *         increasing order of their lowest-numbered vertices
+     */
+    public int[] getComponentDiameters() {
+        int[] components = labelComponents();
+        int numComponents = components.length == 0 ? 0 : Arrays.stream(components).max().getAsInt() + 1;
+        int[] diameters = new int[numComponents];
+        int[] starts = new int[numComponents];
+        int[] sizes = new int[numComponents];
+        Arrays.fill(starts, -1);
+        for (int v = 0; v < numVertices; v++) {
+            int c = components[v];
+            sizes[c]++;
+            if (starts[c] == -1 || getOutDegree(v) > getOutDegree(starts[c])) {
+                starts[c] = v; // a vertex of highest degree in its component
+            }
+        }
+        int[] distances = new int[numVertices];
+        for (int c = 0; c < numComponents; c++) {
+            if (sizes[c] > 2) { // otherwise the diameter is the number of edges joining the component's vertices
+                breadthFirstSearch(starts[c], distances, null);
+                diameters[c] = boundComponentDiameter(starts[c], distances, Integer.MAX_VALUE)[0];
+            } else {
+                diameters[c] = sizes[c] - 1;
+            }
+        }
+        return diameters;
+    }
+
+    /**
+     * Calculates and returns the diameter of each weakly connected component of this UnweightedGraph (i.e., the
+     * greatest number of edges on a shortest path between any two of its vertices that are reachable from one
+     * another) by performing a Breadth-First Search from every vertex in parallel. Like getDiameterExhaustively(),
+     * this does not require every edge to have been created in both directions.
+     * @param numThreads the number of worker threads to search with; must be at least 1
+     * @return an array x such that x[c] is the diameter of the c-th component, where components are numbered in
+     *         increasing order of their lowest-numbered vertices
+     */
+    public int[] getComponentDiametersExhaustively(int numThreads) {
+        int[] components = labelComponents();
+        int numComponents = components.length == 0 ? 0 : Arrays.stream(components).max().getAsInt() + 1;
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        int[] eccentricities;
+        try {
+            eccentricities = pool.submit(() -> IntStream.range(0, numVertices).parallel()
+                    .map(v -> breadthFirstSearch(v, new int[numVertices], null)) // i.e., over reachable vertices
+                    .toArray()).join();
+        } finally {
+            pool.shutdown();
+        }
+        int[] diameters = new int[numComponents];
+        for (int v = 0; v < numVertices; v++) {
+            diameters[components[v]] = Math.max(diameters[components[v]], eccentricities[v]);
+        }
+        return diameters;
+    }
+
+    // Numbers the weakly connected components of this UnweightedGraph (following edges in either direction) in
+    // increasing order of their lowest-numbered vertices, and gives each vertex's component number
+    private int[] labelComponents() {
+        long[][] incoming = getTransposed();
+        int[] components = new int[numVertices];
+        Arrays.fill(components, -1);
+        int[] queue = new int[numVertices];
+        int numComponents = 0;
+        for (int root = 0; root < numVertices; root++) {
+            if (components[root] != -1) {
+                continue;
+            }
+            components[root] = numComponents;
+            int head = 0, tail = 0;
+            queue[tail++] = root;
+            while (head < tail) {
+                int u = queue[head++];
+                for (long[] row : new long[][]{adjacencies[u], incoming[u]}) {
+                    for (int w = 0; w < row.length; w++) {
+                        for (long bits = row[w]; bits != 0; bits &= bits - 1) {
+                            int v = (w << 6) + Long.numberOfTrailingZeros(bits);
+                            if (components[v] == -1) {
+                                components[v] = numComponents;
+                                queue[tail++] = v;
+                            }
+                        }
+                    }
+                }
+            }
+            numComponents++;
+        }
+        return components;
+    }
+
+    /**
+     * Calculates and returns the diameter of this UnweightedGraph by performing a Breadth-First Search from every
+     * vertex in parallel. Unlike getDiameter(), this does not require every edge to have been created in both
+     * directions (i.e., it considers shortest paths between every ordered pair of vertices), but it always
+     * takes time proportional to the number of vertices times the cost of one search.
+     * @param numThreads the number of worker threads to search with; must be at least 1
+     * @return the diameter, or Integer.MAX_VALUE if some vertex is unreachable from another
+     */
+    public int getDiameterExhaustively(int numThreads) {
+        getTransposed(); // built up front rather than by whichever worker first needs it
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        try {
+            return pool.submit(() -> IntStream.range(0, numVertices).parallel()
+                    .map(this::getEccentricity)
+                    .max()
+                    .orElse(0)).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Calculates and returns information about shortest paths from
+     * every vertex to every other vertex in this UnweightedGraph using the
+     * Floyd-Warshall All Pairs Shortest Path Algorithm and ignoring self-loops.
+     * @return a two-dimensional array x whose entries are ordered pairs such that
+     *         x[i][j][UnweightedGraph.DISTANCE] contains the number of vertices on a
+     *         shortest path from vertex i to vertex j (or Integer.MAX_VALUE if those
+     *         vertices are unreachable from each other) and
+     *         x[i][j][UnweightedGraph.PREDECESSOR] contains the vertex immediately
+     *         preceding vertex j on a shortest path from vertex i to vertex j unless
+     *         vertices i and j are adjacent or unreachable from each other, in which
+     *         case it contains -1.
+     */
+    public int[][][] shortestPathsFW() {
+
+        // Initialize distance and predecessor variables
+        int[][][] output = new int[numVertices][numVertices][2];
+        for (int i = 0; i < numVertices; i++) {
+            for (int j = 0; j < numVertices; j++) {
+                if (i == j) {
+                    output[i][j][DISTANCE] = 0; // required assumption
+                } else {
+                    if (!isAdjacent(j, i)) {
+                        output[i][j][DISTANCE] = Integer.MAX_VALUE; // i.e., unreachable (so far)
+
+                    } else {
+                        output[i][j][DISTANCE] = 1;
+                    }
+                }
+                output[i][j][PREDECESSOR] = -1; // i.e., no predecessor (yet)
+            }
+        }
+
+        // For all vertices k, check if the shortest path from every
+        // i to every j would be improved by routing through k
+        for (int k = 0; k < numVertices; k++) {
+            for (int i = 0; i < numVertices; i++) {
+                for (int j = 0; j < numVertices; j++) {
+                    // Avoid integer overflow by checking for MAX_VALUE before addition
+                    if (output[i][k][DISTANCE] < Integer.MAX_VALUE && output[k][j][DISTANCE] < Integer.MAX_VALUE) {
+                        if (output[i][k][DISTANCE] + output[k][j][DISTANCE] < output[i][j][DISTANCE]) {
+                            output[i][j][DISTANCE] = output[i][k][DISTANCE] + output[k][j][DISTANCE];
+                            output[i][j][PREDECESSOR] = k;
+                        }
+                    }
+                }
+            }
+        }
+
+        return output;
+
+    }
+
+    /**
+     * Calculates and returns row source of the output of shortestPathsFW() (the same distances and the same
+     * predecessors) with a single Breadth-First Search, in O(|V|^2 / 64) time rather than O(|V|^3). The entry
+     * shortestPathsFW() records for vertex j is the last vertex k through which it shortened the path to j, i.e.,
+     * the least k such that some shortest path to j has no intermediate vertex greater than k; that least k is
+     * found for every vertex in order of distance from those of the vertices one step closer to source.
+     * @param source the vertex from which shortest paths are to be found
+     * @return a two-dimensional array x whose entries are ordered pairs such that
+     *         x[j][UnweightedGraph.DISTANCE] and x[j][UnweightedGraph.PREDECESSOR] are equal to
+     *         shortestPathsFW()[source][j][UnweightedGraph.DISTANCE] and
+     *         shortestPathsFW()[source][j][UnweightedGraph.PREDECESSOR] respectively
+     */
+    public int[][] shortestPathsFrom(int source) {
+
+        // shortestPathsFW() takes edge (j, i) as a step from i to j, so the search follows incoming edges
+        long[][] incoming = getTransposed();
+        int[][] output = new int[numVertices][2];
+        for (int j = 0; j < numVertices; j++) {
+            output[j][DISTANCE] = Integer.MAX_VALUE; // i.e., unreachable (so far)
+            output[j][PREDECESSOR] = -1; // i.e., no predecessor (yet)
+        }
+        output[source][DISTANCE] = 0;
+
+        // bottleneck[v] is the greatest vertex other than source and v on the best shortest path to v found so
+        // far, or -1 if that path has no such vertex
+        int[] bottleneck = new int[numVertices];
+        int[] queue = new int[numVertices];
+        queue[0] = source;
+        bottleneck[source] = -1;
+        for (int head = 0, tail = 1; head < tail; head++) {
+            int u = queue[head];
+            int through = u == source ? -1 : Math.max(u, bottleneck[u]); // for paths whose last step leaves u
+            for (int w = 0; w < incoming[u].length; w++) {
+                for (long bits = incoming[u][w]; bits != 0; bits &= bits - 1) {
+                    int v = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    if (output[v][DISTANCE] == Integer.MAX_VALUE) {
+                        output[v][DISTANCE] = output[u][DISTANCE] + 1;
+                        bottleneck[v] = through;
+                        queue[tail++] = v;
+                    } else if (output[v][DISTANCE] == output[u][DISTANCE] + 1 && through < bottleneck[v]) {
+                        bottleneck[v] = through;
+                    }
+                }
+            }
+            output[u][PREDECESSOR] = u == source ? -1 : bottleneck[u]; // every path to u has been considered
+        }
+
+        return output;
+
+    }
+
+    // Gives an array containing the vertices of this UnweightedGraph
+    // Counting Sorted by their outDegrees from least to greatest (ties remain in increasing vertex order)
+    private int[] sortByOutDegrees() {
+
+        // Obtain out-degrees of all vertices and count how many vertices have each out-degree
+        int[] outDegrees = new int[numVertices];
+        int[] counts = new int[numVertices + 2];
+        for (int i = 0; i < numVertices; i++) {
+            outDegrees[i] = getOutDegree(i);
+            counts[outDegrees[i] + 1]++;
+        }
+
+        // Turn counts into the starting position of each out-degree in the output...
+        for (int d = 0; d <= numVertices; d++) {
+            counts[d + 1] += counts[d];
+        }
+
+        // ...and place each vertex in the next free position for its out-degree
+        int[] vertices = new int[numVertices];
+        for (int i = 0; i < numVertices; i++) {
+            vertices[counts[outDegrees[i]]++] = i;
+        }
+        return vertices;
+
+    }
+
+    /**
+     * Calculates and returns an upper bound (estimate) for the chromatic
+     * number of this UnweightedGraph using a modified "greedy" approach.
+     * @return the estimated chromatic number
+     */
+    public int estimateChromaticNumber() {
+        return Math.max(1, countColors(colorGreedily()));
+    }
+
+    /**
+     * Colors the vertices of this UnweightedGraph (treating every edge as undirected) using the "greedy" approach
+     * underlying estimateChromaticNumber(): starting with the vertex of highest out-degree and working down, each
+     * vertex is assigned the lowest color not already assigned to one of its neighbors.
+     * @return an array x such that x[v] is the color (in the range [0, number of colors - 1]) of vertex v
+     */
+    public int[] colorGreedily() {
+
+        int[] verticesByOutDegree = sortByOutDegrees();
+        long[][] incoming = getTransposed();
+        int[] vertexColors = new int[numVertices]; // for storing colors of vertices once decided on
+        Arrays.fill(vertexColors, -1); // signals no color yet
+
+        // colorStamps[c] == i + 1 signals that color c has been claimed by a neighbor of the i-th vertex considered;
+        // a vertex can have at most numVertices - 1 neighbors, so no more than numVertices colors are ever needed
+        int[] colorStamps = new int[numVertices + 1];
+
+        // Starting with the vertex of highest out-degree and working our way down...
+        for (int i = verticesByOutDegree.length - 1; i >= 0; i--) {
+
+            int vertex = verticesByOutDegree[i];
+            int stamp = numVertices - i;
+
+            // ...figure out which colors have already been claimed
+            // by neighbors of the vertex currently being considered...
+            for (int w = 0; w < adjacencies[vertex].length; w++) {
+                for (long bits = adjacencies[vertex][w] | incoming[vertex][w]; bits != 0; bits &= bits - 1) {
+                    int neighbor = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    if (vertexColors[neighbor] >= 0) {
+                        colorStamps[vertexColors[neighbor]] = stamp;
+                    }
+                }
+            }
+
+            // ...and assign the lowest color that has not been claimed (possibly a brand new one)
+            int color = 0;
+            while (colorStamps[color] == stamp) {
+                color++;
+            }
+            vertexColors[vertex] = color;
+
+        }
+
+        return vertexColors;
+
+    }
+
+    /**
+     * Colors the vertices of this UnweightedGraph (treating every edge as undirected) using the DSatur heuristic:
+     * the next vertex to be colored is always one whose neighbors already use the greatest number of distinct
+     * colors (ties are broken by greatest number of uncolored neighbors, then by lowest vertex number), and it is
+     * assigned the lowest color not already assigned to one of its neighbors.
+     * @return an array x such that x[v] is the color (in the range [0, number of colors - 1]) of vertex v
+     */
+    public int[] colorDSatur() {
+
+        long[][] incoming = getTransposed();
+        int[] vertexColors = new int[numVertices];
+        Arrays.fill(vertexColors, -1);
+
+        // neighborColors[v] is a (lazily grown) bitset of the colors used by the neighbors of v
+        long[][] neighborColors = new long[numVertices][];
+        int[] saturation = new int[numVertices];
+        int[] uncoloredDegree = new int[numVertices];
+
+        // Indexed max-heap of uncolored vertices ordered by (saturation, uncoloredDegree, -vertex)
+        int[] heap = new int[numVertices];
+        int[] positions = new int[numVertices];
+        for (int v = 0; v < numVertices; v++) {
+            for (int w = 0; w < adjacencies[v].length; w++) {
+                uncoloredDegree[v] += Long.bitCount((adjacencies[v][w] | incoming[v][w]) & ~selfBit(v, w));
+            }
+            heap[v] = v;
+            positions[v] = v;
+        }
+        int heapSize = numVertices;
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            dSaturSiftDown(heap, positions, heapSize, i, saturation, uncoloredDegree);
+        }
+
+        int[] colorStamps = new int[numVertices + 1];
+        for (int stamp = 1; heapSize > 0; stamp++) {
+
+            // Remove the most saturated uncolored vertex from the heap
+            int vertex = heap[0];
+            heap[0] = heap[--heapSize];
+            positions[heap[0]] = 0;
+            dSaturSiftDown(heap, positions, heapSize, 0, saturation, uncoloredDegree);
+            positions[vertex] = -1;
+
+            // Assign it the lowest color not claimed by one of its neighbors
+            for (int w = 0; w < adjacencies[vertex].length; w++) {
+                for (long bits = adjacencies[vertex][w] | incoming[vertex][w]; bits != 0; bits &= bits - 1) {
+                    int neighbor = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    if (vertexColors[neighbor] >= 0) {
+                        colorStamps[vertexColors[neighbor]] = stamp;
+                    }
+                }
+            }
+            int color = 0;
+            while (colorStamps[color] == stamp) {
+                color++;
+            }
+            vertexColors[vertex] = color;
+
+            // Update the saturation of its uncolored neighbors, which can only move them up the heap
+            for (int w = 0; w < adjacencies[vertex].length; w++) {
+                for (long bits = adjacencies[vertex][w] | incoming[vertex][w]; bits != 0; bits &= bits - 1) {
+                    int neighbor = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    if (positions[neighbor] < 0) {
+                        continue; // already colored (or vertex itself, via a self-loop)
+                    }
+                    uncoloredDegree[neighbor]--;
+                    if (neighborColors[neighbor] == null || neighborColors[neighbor].length <= (color >>> 6)) {
+                        neighborColors[neighbor] = neighborColors[neighbor] == null
+                                ? new long[(color >>> 6) + 1]
+                                : Arrays.copyOf(neighborColors[neighbor], (color >>> 6) + 1);
+                    }
+                    if ((neighborColors[neighbor][color >>> 6] & (1L << color)) == 0) {
+                        neighborColors[neighbor][color >>> 6] |= 1L << color;
+                        saturation[neighbor]++;
+                        dSaturSiftUp(heap, positions, positions[neighbor], saturation, uncoloredDegree);
+                    } else {
+                        dSaturSiftDown(heap, positions, heapSize, positions[neighbor], saturation, uncoloredDegree);
+                    }
+                }
+            }
+
+        }
+
+        return vertexColors;
+
+    }
+
+    // Gives the bit for vertex v if it falls within word w of a row, and 0 otherwise
+    private static long selfBit(int v, int w) {
+        return (v >>> 6) == w ? 1L << v : 0;
+    }
+
+    // Determines whether or not vertex a should be colored before vertex b by colorDSatur()
+    private static boolean dSaturBefore(int a, int b, int[] saturation, int[] uncoloredDegree) {
+        if (saturation[a] != saturation[b]) {
+            return saturation[a] > saturation[b];
+        } else if (uncoloredDegree[a] != uncoloredDegree[b]) {
+            return uncoloredDegree[a] > uncoloredDegree[b];
+        } else {
+            return a < b;
+        }
+    }
+
+    // Moves the vertex at index i of the colorDSatur() heap up until the heap property is restored
+    private static void dSaturSiftUp(int[] heap, int[] positions, int i, int[] saturation, int[] uncoloredDegree) {
+        int vertex = heap[i];
+        while (i > 0 && dSaturBefore(vertex, heap[(i - 1) / 2], saturation, uncoloredDegree)) {
+            heap[i] = heap[(i - 1) / 2];
+            positions[heap[i]] = i;
+            i = (i - 1) / 2;
+        }
+        heap[i] = vertex;
+        positions[vertex] = i;
+    }
+
+    // Moves the vertex at index i of the colorDSatur() heap down until the heap property is restored
+    private static void dSaturSiftDown(int[] heap, int[] positions, int heapSize, int i,
+                                       int[] saturation, int[] uncoloredDegree) {
+        if (i >= heapSize) {
+            return;
+        }
+        int vertex = heap[i];
+        while (2 * i + 1 < heapSize) {
+            int child = 2 * i + 1;
+            if (child + 1 < heapSize && dSaturBefore(heap[child + 1], heap[child], saturation, uncoloredDegree)) {
+                child++;
+            }
+            if (!dSaturBefore(heap[child], vertex, saturation, uncoloredDegree)) {
+                break;
+            }
+            heap[i] = heap[child];
+            positions[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = vertex;
+        positions[vertex] = i;
+    }
+
+    /**
+     * Colors the vertices of this UnweightedGraph (treating every edge as undirected) in parallel using the
+     * Jones-Plassmann algorithm: every vertex is given a pseudo-random priority, and in each round every uncolored
+     * vertex whose priority exceeds that of all of its uncolored neighbors (these vertices are never adjacent to
+     * each other) is simultaneously assigned the lowest color not already assigned to one of its neighbors.
+     * @param numThreads the number of worker threads to color with; must be at least 1
+     * @return an array x such that x[v] is the color (in the range [0, number of colors - 1]) of vertex v
+     */
+    public int[] colorJonesPlassmann(int numThreads) {
+
+        long[][] incoming = getTransposed(); // built up front rather than by whichever worker first needs it
+        int[] vertexColors = new int[numVertices];
+        Arrays.fill(vertexColors, -1);
+
+        int[] remaining = new int[numVertices];
+        for (int v = 0; v < numVertices; v++) {
+            remaining[v] = v;
+        }
+        boolean[] selected = new boolean[numVertices];
+
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        try {
+            for (int numRemaining = numVertices; numRemaining > 0; ) {
+
+                final int count = numRemaining;
+                final int[] current = remaining;
+
+                // Phase 1 (read only): select the uncolored vertices that are local priority maxima...
+                pool.submit(() -> IntStream.range(0, count).parallel().forEach(i -> {
+                    int vertex = current[i];
+                    long priority = jonesPlassmannPriority(vertex);
+                    boolean isMaximum = true;
+                    for (int w = 0; w < adjacencies[vertex].length && isMaximum; w++) {
+                        for (long bits = adjacencies[vertex][w] | incoming[vertex][w]; bits != 0; bits &= bits - 1) {
+                            int neighbor = (w << 6) + Long.numberOfTrailingZeros(bits);
+                            if (neighbor != vertex && vertexColors[neighbor] < 0
+                                    && jonesPlassmannPriority(neighbor) > priority) {
+                                isMaximum = false;
+                                break;
+                            }
+                        }
+                    }
+                    selected[vertex] = isMaximum;
+                })).join();
+
+                // ...Phase 2: color them, reading only the colors of vertices colored in earlier rounds...
+                pool.submit(() -> IntStream.range(0, count).parallel().forEach(i -> {
+                    int vertex = current[i];
+                    if (selected[vertex]) {
+                        vertexColors[vertex] = lowestFreeColor(vertex, incoming, vertexColors, selected);
+                    }
+                })).join();
+
+                // ...and carry the vertices that are still uncolored over to the next round
+                numRemaining = 0;
+                for (int i = 0; i < count; i++) {
+                    if (selected[current[i]]) {
+                        selected[current[i]] = false;
+                    } else {
+                        remaining[numRemaining++] = current[i];
+                    }
+                }
+
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        return vertexColors;
+
+    }
+
+    // Gives a pseudo-random but deterministic priority for the specified vertex; distinct vertices always
+    // receive distinct priorities since the vertex number is kept in the low bits
+    private static long jonesPlassmannPriority(int vertex) {
+        long mixed = vertex * 0x9E3779B97F4A7C15L;
+        mixed ^= mixed >>> 29;
+        return (mixed & 0xFFFFFFFF00000000L) | vertex;
+    }
+
+    // Gives the lowest color not assigned to a neighbor of vertex, ignoring neighbors that are being colored in
+    // the same round of colorJonesPlassmann() (i.e., are selected), which can never actually be neighbors
+    private int lowestFreeColor(int vertex, long[][] incoming, int[] vertexColors, boolean[] selected) {
+        long[] taken = new long[1];
+        for (int w = 0; w < adjacencies[vertex].length; w++) {
+            for (long bits = adjacencies[vertex][w] | incoming[vertex][w]; bits != 0; bits &= bits - 1) {
+                int neighbor = (w << 6) + Long.numberOfTrailingZeros(bits);
+                int color = neighbor == vertex || selected[neighbor] ? -1 : vertexColors[neighbor];
+                if (color >= 0) {
+                    if (taken.length <= (color >>> 6)) {
+                        taken = Arrays.copyOf(taken, (color >>> 6) + 1);
+                    }
+                    taken[color >>> 6] |= 1L << color;
+                }
+            }
+        }
+        int w = 0;
+        while (w < taken.length && taken[w] == -1L) {
+            w++;
+        }
+        return w == taken.length ? w << 6 : (w << 6) + Long.numberOfTrailingZeros(~taken[w]);
+    }
+
+    /**
+     * Gives the number of colors used by a coloring produced by one of the coloring methods of UnweightedGraph.
+     * @param vertexColors an array x such that x[v] is the color of vertex v
+     * @return one more than the greatest color used, or 0 if there are no vertices
+     */
+    public static int countColors(int[] vertexColors) {
+        int numColors = 0;
+        for (int color : vertexColors) {
+            numColors = Math.max(numColors, color + 1);
+        }
+        return numColors;
+    }
+
+}
+
+class HopPath {
+
+    private final int[] vertices;
+
+    /**
+     * Creates and returns a new HopPath through the specified vertices.
+     * @param vertices the vertices of the path in order; must contain at least one vertex
+     */
+    public HopPath(int[] vertices) {
+        this.vertices = vertices;
+    }
+
+    /**
+     * Gives the number of edges (hops) on this HopPath.
+     * @return one less than the number of vertices on this HopPath
+     */
+    public int getLength() {
+        return vertices.length - 1;
+    }
+
+    /**
+     * Gives the vertex at the specified position along this HopPath. Iterating over a HopPath with this
+     * method (for i from 0 to getLength()) does not allocate any objects.
+     * @param i the position in question; 0 is the source and getLength() is the target
+     * @return the vertex at position i
+     */
+    public int getVertex(int i) {
+        return vertices[i];
+    }
+
+    /**
+     * Gives the first vertex of this HopPath.
+     * @return the source vertex
+     */
+    public int getSource() {
+        return vertices[0];
+    }
+
+    /**
+     * Gives the last vertex of this HopPath.
+     * @return the target vertex
+     */
+    public int getTarget() {
+        return vertices[vertices.length - 1];
+    }
+
+}
+
+class BidirectionalSearch {
+
+    // A vertex v has been visited by the forward (backward) half of the current search if and only if
+    // forwardMarks[v] (backwardMarks[v]) == searchStamp, which avoids clearing the marks between searches
+    private final int[] forwardMarks, backwardMarks, forwardParents, backwardParents, forwardQueue, backwardQueue;
+    private int searchStamp;
+
+    /**
+     * Creates and returns a new BidirectionalSearch, i.e., the scratch space for shortest path searches (see
+     * UnweightedGraph.findShortestPath()) of graphs with up to the specified number of vertices. A single
+     * BidirectionalSearch must not be used by more than one search at a time.
+     * @param numVertices the number of vertices of the graphs to be searched
+     */
+    public BidirectionalSearch(int numVertices) {
+        this.forwardMarks = new int[numVertices];
+        this.backwardMarks = new int[numVertices];
+        this.forwardParents = new int[numVertices];
+        this.backwardParents = new int[numVertices];
+        this.forwardQueue = new int[numVertices];
+        this.backwardQueue = new int[numVertices];
+        this.searchStamp = 0;
+    }
+
+    /**
+     * Performs the search described in the documentation for UnweightedGraph.findShortestPath().
+     * @param outgoing the adjacency rows of the graph, as bitsets by tail
+     * @param incoming the same edges as bitsets by head (i.e., the rows of the transposed adjacency matrix)
+     * @param source the first vertex of the path
+     * @param target the last vertex of the path
+     * @return the vertices of a shortest path from source to target in order, or null if there is none
+     */
+    public int[] search(long[][] outgoing, long[][] incoming, int source, int target) {
+
+        int stamp = ++searchStamp;
+
+        forwardMarks[source] = stamp;
+        forwardParents[source] = -1;
+        forwardQueue[0] = source;
+        backwardMarks[target] = stamp;
+        backwardParents[target] = -1;
+        backwardQueue[0] = target;
+
+        // Each queue holds the vertices visited so far by its half of the search in order of distance; the
+        // current frontier is [levelStart, levelEnd)
+        int forwardStart = 0, forwardEnd = 1, backwardStart = 0, backwardEnd = 1;
+        int meeting = source == target ? source : -1;
+
+        while (meeting == -1 && forwardStart < forwardEnd && backwardStart < backwardEnd) {
+
+            boolean forward = forwardEnd - forwardStart <= backwardEnd - backwardStart;
+            long[][] rows = forward ? outgoing : incoming;
+            int[] marks = forward ? forwardMarks : backwardMarks;
+            int[] otherMarks = forward ? backwardMarks : forwardMarks;
+            int[] parents = forward ? forwardParents : backwardParents;
+            int[] queue = forward ? forwardQueue : backwardQueue;
+            int start = forward ? forwardStart : backwardStart;
+            int end = forward ? forwardEnd : backwardEnd;
+
+            // Expand the whole level; every vertex discovered in it is equally far from this half's origin, so
+            // the first one already visited by the other half completes a shortest path
+            int next = end;
+            for (int i = start; i < end; i++) {
+                int u = queue[i];
+                for (int w = 0; w < rows[u].length; w++) {
+                    for (long bits = rows[u][w]; bits != 0; bits &= bits - 1) {
+                        int v = (w << 6) + Long.numberOfTrailingZeros(bits);
+                        if (marks[v] != stamp) {
+                            marks[v] = stamp;
+                            parents[v] = u;
+                            queue[next++] = v;
+                            if (otherMarks[v] == stamp && meeting == -1) {
+                                meeting = v;
+                            }
+                        }
+                    }
+                }
+            }
+
+            if (forward) {
+                forwardStart = end;
+                forwardEnd = next;
+            } else {
+                backwardStart = end;
+                backwardEnd = next;
+            }
+
+        }
+
+        if (meeting == -1) {
+            return null;
+        }
+
+        // Join the forward path source -> meeting with the backward path meeting -> target
+        int forwardLength = 0, backwardLength = 0;
+        for (int now = meeting; now != source; now = forwardParents[now]) {
+            forwardLength++;
+        }
+        for (int now = meeting; now != target; now = backwardParents[now]) {
+            backwardLength++;
+        }
+        int[] path = new int[forwardLength + backwardLength + 1];
+        int now = meeting;
+        for (int i = forwardLength; i >= 0; i--) {
+            path[i] = now;
+            now = forwardParents[now];
+        }
+        now = meeting;
+        for (int i = forwardLength + 1; i < path.length; i++) {
+            now = backwardParents[now];
+            path[i] = now;
+        }
+        return path;
+
+    }
+
+}
+
+class PathQueryService {
+
+    private final UnweightedGraph graph;
+    private final LinkedHashMap<Long, HopPath> cache; // keyed by (source << 32) | target; null means unreachable
+    private int cachedModificationCount;
+
+    private long numHits;
+    private long numMisses;
+
+    /**
+     * Creates and returns a new PathQueryService that answers shortest path queries against the specified
+     * UnweightedGraph, remembering the answers to the most recently used queries.
+     * @param graph the UnweightedGraph to be queried; the cache is discarded if edges are added to it
+     * @param cacheCapacity the greatest number of (source, target) answers to remember; must be at least 1
+     */
+    public PathQueryService(UnweightedGraph graph, int cacheCapacity) {
+        this.graph = graph;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) { // access order, i.e., least recently used first
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, HopPath> eldest) {
+                return size() > cacheCapacity;
+            }
+        };
+        this.cachedModificationCount = graph.getModificationCount();
+        this.numHits = 0;
+        this.numMisses = 0;
+    }
+
+    /**
+     * Gives a shortest path (by number of hops) from the specified source vertex to the specified target vertex,
+     * either from the cache or by a bidirectional Breadth-First Search (see UnweightedGraph.findShortestPath()).
+     * @param source the first vertex of the path
+     * @param target the last vertex of the path
+     * @return a shortest path from source to target, or null if target is unreachable from source
+     */
+    public synchronized HopPath query(int source, int target) {
+
+        if (graph.getModificationCount() != cachedModificationCount) {
+            cache.clear();
+            cachedModificationCount = graph.getModificationCount();
+        }
+
+        long key = ((long) source << 32) | (target & 0xFFFFFFFFL);
+        HopPath path = cache.get(key);
+        if (path != null || cache.containsKey(key)) {
+            numHits++;
+            return path;
+        }
+
+        numMisses++;
+        int[] vertices = graph.findShortestPath(source, target);
+        path = vertices == null ? null : new HopPath(vertices);
+        cache.put(key, path);
+        return path;
+
+    }
+
+    /**
+     * Gives the number of queries answered from the cache so far.
+     * @return the number of cache hits
+     */
+    public synchronized long getNumHits() {
+        return numHits;
+    }
+
+    /**
+     * Gives the number of queries that required a search so far.
+     * @return the number of cache misses
+     */
+    public synchronized long getNumMisses() {
+        return numMisses;
+    }
+
+}
+
+class ReachabilityIndex {
+
+    // Symbolic Constants
+    public static final int MAGIC = 0x52494458; // "RIDX"
+    public static final int HEADER_BYTES = 8;
+    public static final int UNREACHABLE = 0xFF; // stored distance for unreachable pairs
+    public static final int SATURATED = 0xFE; // stored distance for pairs at least this many hops apart
+
+    private final int numVertices;
+    private final ByteBuffer distances; // the distance from vertex a to vertex b is at HEADER_BYTES + a * |V| + b
+    private final UnweightedGraph graph; // used for the rare pairs whose distances are SATURATED
+
+    /**
+     * Creates and returns a new ReachabilityIndex of the specified UnweightedGraph held in memory.
+     * See the other constructor for details.
+     * @param graph the UnweightedGraph to be indexed; edges must not be added to it afterwards
+     * @param numThreads the number of worker threads to build with; must be at least 1
+     */
+    public ReachabilityIndex(UnweightedGraph graph, int numThreads) {
+        this(graph, numThreads, ByteBuffer.allocate(indexSize(graph.getNumVertices())));
+    }
+
+    /**
+     * Creates and returns a new ReachabilityIndex of the specified UnweightedGraph stored in a memory-mapped file
+     * (which can be reopened later with load()). The index stores the number of hops from every vertex to every
+     * other vertex in one byte, i.e., 1/8 of the space of the distances in the output of shortestPathsFW(). It is
+     * built by bit-parallel Breadth-First Searches: the sources are processed in batches of 64, one bit of a long
+     * per source, so each step along an edge advances the searches from all 64 sources at once. The batches are
+     * built in parallel. The graph may have at most 46340 vertices, so that the index fits in one 2GB mapping.
+     * @param graph the UnweightedGraph to be indexed; edges must not be added to it afterwards
+     * @param numThreads the number of worker threads to build with; must be at least 1
+     * @param path the path of the index file to be (over)written
+     * @throws IOException if the file cannot be written
+     */
+    public ReachabilityIndex(UnweightedGraph graph, int numThreads, String path) throws IOException {
+        this(graph, numThreads, mapFile(path, indexSize(graph.getNumVertices())));
+    }
+
+    // Builds the index into the specified buffer
+    private ReachabilityIndex(UnweightedGraph graph, int numThreads, ByteBuffer distances) {
+        this.numVertices = graph.getNumVertices();
+        this.distances = distances;
+        this.graph = graph;
+        distances.putInt(0, MAGIC).putInt(4, numVertices);
+
+        // The searches follow each vertex's edges as a list of heads (in compressed sparse row form), so a step
+        // costs time in proportion to the edges leaving the frontier rather than to whole rows of the matrix
+        int[] offsets = new int[numVertices + 1];
+        for (int u = 0; u < numVertices; u++) {
+            offsets[u + 1] = offsets[u] + graph.getOutDegree(u);
+        }
+        int[] heads = new int[offsets[numVertices]];
+        for (int u = 0, e = 0; u < numVertices; u++) {
+            long[] row = graph.getAdjacencyRow(u);
+            for (int w = 0; w < row.length; w++) {
+                for (long bits = row[w]; bits != 0; bits &= bits - 1) {
+                    heads[e++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                }
+            }
+        }
+
+        int numBatches = (numVertices + 63) >>> 6;
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        try {
+            pool.submit(() -> IntStream.range(0, numBatches).parallel()
+                    .forEach(batch -> searchBatch(batch, offsets, heads))).join();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Opens an existing index without its graph
+    private ReachabilityIndex(ByteBuffer distances) {
+        this.numVertices = distances.getInt(4);
+        this.distances = distances;
+        this.graph = null;
+    }
+
+    // Gives the number of bytes in the index of a graph with the specified number of vertices, which must fit in
+    // one ByteBuffer (i.e., be at most Integer.MAX_VALUE)
+    private static int indexSize(int numVertices) {
+        long size = HEADER_BYTES + (long) numVertices * numVertices;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Cannot index a graph with more than 46340 vertices!");
+        }
+        return (int) size;
+    }
+
+    // Maps a new file of the specified size
+    private static ByteBuffer mapFile(String path, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    /**
+     * Opens an index file written by the constructor, mapping it into memory rather than reading it. Since the
+     * graph is not available, some queries about pairs that are SATURATED hops or more apart cannot be answered
+     * (see withinHops()).
+     * @param path the path of the index file
+     * @return the ReachabilityIndex stored in the file
+     * @throws IOException if the file cannot be read
+     */
+    public static ReachabilityIndex load(String path) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            ByteBuffer distances = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (channel.size() < HEADER_BYTES || distances.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException("Invalid reachability index file: unrecognized header.");
+            }
+            int numVertices = distances.getInt(4);
+            if (numVertices < 0 || channel.size() != HEADER_BYTES + (long) numVertices * numVertices) {
+                throw new IllegalArgumentException("Invalid reachability index file: wrong size for its header.");
+            }
+            return new ReachabilityIndex(distances);
+        }
+    }
+
+    // Runs the Breadth-First Searches from sources [64 * batch, 64 * batch + 63] simultaneously, where bit k of
+    // each word below belongs to source 64 * batch + k, and records their distances; offsets and heads are the
+    // edges of the graph in compressed sparse row form
+    private void searchBatch(int batch, int[] offsets, int[] heads) {
+
+        int firstSource = batch << 6;
+        int numSources = Math.min(64, numVertices - firstSource);
+        for (int k = 0; k < numSources; k++) {
+            for (int v = 0; v < numVertices; v++) {
+                distances.put(offset(firstSource + k, v), (byte) UNREACHABLE);
+            }
+        }
+
+        // Only the vertices in some search's frontier (active) and those reached from them (touched) are visited
+        // at each level, so a level costs time in proportion to the edges leaving the frontier
+        long[] visited = new long[numVertices];
+        long[] frontier = new long[numVertices];
+        long[] next = new long[numVertices];
+        int[] active = new int[numVertices];
+        int[] touched = new int[numVertices];
+        int numActive = 0;
+        for (int k = 0; k < numSources; k++) {
+            visited[firstSource + k] |= 1L << k;
+            frontier[firstSource + k] |= 1L << k;
+            active[numActive++] = firstSource + k;
+            distances.put(offset(firstSource + k, firstSource + k), (byte) 0);
+        }
+
+        for (int distance = 1; numActive > 0; distance++) {
+
+            // Push every search's frontier along every edge leaving it
+            int numTouched = 0;
+            for (int i = 0; i < numActive; i++) {
+                int u = active[i];
+                long searches = frontier[u];
+                frontier[u] = 0;
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int v = heads[e];
+                    if (next[v] == 0) {
+                        touched[numTouched++] = v;
+                    }
+                    next[v] |= searches;
+                }
+            }
+
+            // Keep only the vertices that each search is reaching for the first time
+            numActive = 0;
+            for (int i = 0; i < numTouched; i++) {
+                int v = touched[i];
+                long reached = next[v] & ~visited[v];
+                next[v] = 0;
+                if (reached != 0) {
+                    visited[v] |= reached;
+                    frontier[v] = reached;
+                    active[numActive++] = v;
+                    for (long bits = reached; bits != 0; bits &= bits - 1) {
+                        int source = firstSource + Long.numberOfTrailingZeros(bits);
+                        distances.put(offset(source, v), (byte) Math.min(distance, SATURATED));
+                    }
+                }
+            }
+
+        }
+
+    }
+
+    // Gives the position in distances of the distance from vertex a to vertex b
+    private int offset(int a, int b) {
+        return (int) (HEADER_BYTES + (long) a * numVertices + b); // fits, since indexSize() checked the total
+    }
+
+    /**
+     * Determines whether or not vertex b can be reached from vertex a.
+     * @param a the origin vertex
+     * @param b the destination vertex
+     * @return true if there is a path from a to b, false otherwise
+     */
+    public boolean canReach(int a, int b) {
+        return (distances.get(offset(a, b)) & 0xFF) != UNREACHABLE;
+    }
+
+    /**
+     * Determines whether or not vertex b can be reached from vertex a in at most the specified number of hops.
+     * Distances of SATURATED hops or more are not stored exactly, so such queries are answered with a search of
+     * the graph. A loaded index has no graph: it can still answer them when maxHops is at least |V| - 1 (which
+     * every shortest path is within), but throws an UnsupportedOperationException otherwise.
+     * @param a the origin vertex
+     * @param b the destination vertex
+     * @param maxHops the greatest number of edges the path may have
+     * @return true if there is a path from a to b with at most maxHops edges, false otherwise
+     */
+    public boolean withinHops(int a, int b, int maxHops) {
+        int stored = distances.get(offset(a, b)) & 0xFF;
+        if (stored == UNREACHABLE) {
+            return false;
+        } else if (stored < SATURATED || maxHops < SATURATED) {
+            return stored <= maxHops;
+        } else if (maxHops >= numVertices - 1) {
+            return true;
+        } else if (graph != null) {
+            int[] path = graph.findShortestPath(a, b);
+            return path != null && path.length - 1 <= maxHops;
+        } else {
+            throw new UnsupportedOperationException("Vertices " + a + " and " + b + " are at least " + SATURATED
+                                                    + " hops apart, which a loaded index does not store exactly.");
+        }
+    }
+
+    /**
+     * Gives the number of vertices covered by this ReachabilityIndex.
+     * @return the number of vertices
+     */
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+}
+
+class WeightedGraph {
+
+    // Symbolic Constants
+    public static final double NO_EDGE = Double.MAX_VALUE; // given by tryGetWeight() for an edge that does not exist
+
+    private final int numVertices;
+
+    // Exactly one of the following holds the edge weights, depending on the number of bits per weight chosen:
+    // edgeWeights holds them as is (with NO_EDGE denoting that there is no edge between i and j), while
+    // intWeights holds them as unsigned fixed-point multiples of weightStep, plus one (so that 0, the default
+    // value of a new array, denotes that there is no edge between i and j)
+    private final double[][] edgeWeights;
+    private final int[][] intWeights;
+    private final double maxWeight;
+    private final double weightStep;
+
+    // The same edges in compressed sparse row form (the edges leaving vertex v are those with indices in
+    // [edgeOffsets[v], edgeOffsets[v + 1]) of edgeHeads and edgeListWeights); built on demand for the
+    // shortest path methods and discarded whenever an edge is added or removed
+    private int[] edgeOffsets;
+    private int[] edgeHeads;
+    private double[] edgeListWeights;
+
+    /**
+     * Creates and returns a new WeightedGraph with the specified number
+     * of vertices (labeled 0, 1, 2, ..., numVertices - 1) and no edges.
+     * @param numVertices the number of vertices in this UnweightedGraph; cannot be changed after object creation
+     */
+    public WeightedGraph(int numVertices) {
+        this(numVertices, Double.MAX_VALUE, 64);
+    }
+
+    /**
+     * Creates and returns a new WeightedGraph with the specified number of vertices (labeled 0, 1, 2, ...,
+     * numVertices - 1) and no edges that stores each edge weight using the specified number of bits. With 32
+     * bits, weights are stored as fixed-point multiples of maxWeight / 4294967294 and read back as the nearest
+     * such multiple, which keeps totals such as produceMinimalSpanningTree()'s accurate to the centimeter even for
+     * ranges of thousands of kilometers. With 64 bits, weights are stored exactly. (Fewer bits are not offered:
+     * with 16, the rounding of each weight adds up over the edges of a spanning tree enough to change its total.)
+     * @param numVertices the number of vertices in this WeightedGraph; cannot be changed after object creation
+     * @param maxWeight the greatest weight that an edge can have (e.g., the range of the radios); only used
+     *                  with 32 bits per weight
+     * @param bitsPerWeight the number of bits used to store each edge weight; must be 32 or 64
+     */
+    public WeightedGraph(int numVertices, double maxWeight, int bitsPerWeight) {
+        this.numVertices = numVertices;
+        this.maxWeight = maxWeight;
+        if (bitsPerWeight == 64) {
+            edgeWeights = new double[numVertices][numVertices];
+            for (int i = 0; i < numVertices; i++) {
+                for (int j = 0; j < numVertices; j++) {
+                    edgeWeights[i][j] = NO_EDGE; // denotes that there is no edge between i and j
+                }
+            }
+            intWeights = null;
+            weightStep = 0;
+        } else if (bitsPerWeight == 32 && maxWeight >= 0 && maxWeight < NO_EDGE) {
+            edgeWeights = null;
+            intWeights = new int[numVertices][numVertices];
+            weightStep = maxWeight / 0xFFFFFFFEL;
+        } else {
+            throw new IllegalArgumentException("Cannot store weights up to " + maxWeight + " in "
+                    + bitsPerWeight + " bits!");
+        }
+    }
+
+    /**
+     * Gives the number of vertices in this WeightedGraph.
+     * @return the number of vertices in this WeightedGraph
+     */
+    public int getNumVertices() {
+        return numVertices;
+    }
+
+    /**
+     * Determines whether or not there is a (directed) edge beginning at vertex a and ending at vertex b.
+     * @param a the tail (origin vertex) of the edge in question
+     * @param b the head (terminal vertex) of the edge in question
+     * @return true if the edge exists, false otherwise
+     */
+    public boolean hasEdge(int a, int b) {
+        return tryGetWeight(a, b) != NO_EDGE;
+    }
+
+    /**
+     * Gives the weight of the edge from vertex a to vertex b if that edge exists. Unlike getWeightOfEdge(),
+     * a missing edge is signalled by a return value rather than an exception.
+     * @param a the tail (origin vertex) of the edge in question
+     * @param b the head (terminal vertex) of the edge in question
+     * @return the weight of the edge starting at vertex a and ending at vertex b,
+     *         or WeightedGraph.NO_EDGE if there is no such edge
+     */
+    public double tryGetWeight(int a, int b) {
+        if (edgeWeights != null) {
+            return edgeWeights[a][b];
+        }
+        long stored = Integer.toUnsignedLong(intWeights[a][b]);
+        return stored == 0 ? NO_EDGE : (stored - 1) * weightStep;
+    }
+
+    /**
+     * Gives the weight of the edge from vertex a to vertex b if that
+     * edge exists and throws an IllegalArgumentException if it does not.
+     * @param a the tail (origin vertex) of the edge in question
+     * @param b the head (terminal vertex) of the edge in question
+     * @return the weight of the edge starting at vertex a and ending at vertex b
+     */
+    public double getWeightOfEdge(int a, int b) {
+        double weight = tryGetWeight(a, b);
+        if (weight == NO_EDGE) {
+            throw new IllegalArgumentException("Cannot getWeightOfEdge() that does not exist!");
+        } else {
+            return weight;
+        }
+    }
+
+    /**
+     * Creates and returns a copy of this WeightedGraph (storing weights in the same number of bits) with its
+     * vertices renumbered as specified.
+     * @param newToOld an array x such that vertex i of the copy is vertex x[i] of this WeightedGraph;
+     *                 must contain each vertex exactly once (see VertexOrdering)
+     * @return the renumbered copy
+     */
+    public WeightedGraph permute(int[] newToOld) {
+        int[] oldToNew = new int[numVertices];
+        for (int i = 0; i < numVertices; i++) {
+            oldToNew[newToOld[i]] = i;
+        }
+        WeightedGraph output = edgeWeights != null
+                ? new WeightedGraph(numVertices)
+                : new WeightedGraph(numVertices, maxWeight, 32);
+        int[] offsets = getEdgeOffsets();
+        for (int i = 0; i < numVertices; i++) {
+            for (int e = offsets[newToOld[i]]; e < offsets[newToOld[i] + 1]; e++) {
+                output.connect(i, oldToNew[edgeHeads[e]], edgeListWeights[e]);
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Converts this WeightedGraph into an UnweightedGraph with the same vertices and edges.
+     * @return an unweighted version of this WeightedGraph
+     */
+    public UnweightedGraph bifurcate() {
+        UnweightedGraph output = new UnweightedGraph(numVertices);
+        for (int i = 0; i < numVertices; i++) {
+            for (int j = 0; j < numVertices; j++) {
+                if (hasEdge(i, j)) {
+                    output.connect(i, j);
+                }
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Creates a (directed) edge beginning at vertex a and ending at vertex b with the specified weight. Note
+     * that an "undirected" edge can be created by calling both connect(a, b, weight) and connect(b, a, weight).
+     * @param a the tail (origin vertex) of the edge to be created
+     * @param b the head (terminal vertex) of the edge to be created
+     * @param weight the weight of the edge to be created
+     */
+    public void connect(int a, int b, double weight) {
+        if (edgeWeights != null) {
+            edgeWeights[a][b] = weight;
+        } else if (weight >= 0 && weight <= maxWeight) {
+            long stored = (weightStep == 0 ? 0 : Math.round(weight / weightStep)) + 1;
+            intWeights[a][b] = (int) stored;
+        } else {
+            throw new IllegalArgumentException("Cannot connect() with a weight outside [0, " + maxWeight + "]!");
+        }
+        edgeOffsets = null;
+    }
+
+    /**
+     * Removes the (directed) edge beginning at vertex a and ending at vertex b, if there is one. Note that
+     * an "undirected" edge can be removed by calling both disconnect(a, b) and disconnect(b, a).
+     * @param a the tail (origin vertex) of the edge to be removed
+     * @param b the head (terminal vertex) of the edge to be removed
+     */
+    public void disconnect(int a, int b) {
+        if (edgeWeights != null) {
+            edgeWeights[a][b] = NO_EDGE;
+        } else {
+            intWeights[a][b] = 0;
+        }
+        edgeOffsets = null;
+    }
+
+    // Builds the compressed sparse row form of this WeightedGraph's edges if it is not already up to date
+    private void buildEdgeLists() {
+        if (edgeOffsets != null) {
+            return;
+        }
+        int[] offsets = new int[numVertices + 1];
+        for (int i = 0; i < numVertices; i++) {
+            offsets[i + 1] = offsets[i];
+            for (int j = 0; j < numVertices; j++) {
+                if (hasEdge(i, j)) {
+                    offsets[i + 1]++;
+                }
+            }
+        }
+        edgeHeads = new int[offsets[numVertices]];
+        edgeListWeights = new double[offsets[numVertices]];
+        for (int i = 0; i < numVertices; i++) {
+            int e = offsets[i];
+            for (int j = 0; j < numVertices; j++) {
+                if (hasEdge(i, j)) {
+                    edgeHeads[e] = j;
+                    edgeListWeights[e] = tryGetWeight(i, j);
+                    e++;
+                }
+            }
+        }
+        edgeOffsets = offsets;
+    }
+
+    /**
+     * Gives the edges of this WeightedGraph in compressed sparse row form: the edges leaving vertex v are those
+     * with indices in [x[v], x[v + 1]) of getEdgeHeads() and getEdgeListWeights(), in increasing order of head.
+     * The arrays returned are shared, must not be modified and are only valid until the next edge is added or
+     * removed.
+     * @return an array x of |V| + 1 edge offsets
+     */
+    protected int[] getEdgeOffsets() {
+        buildEdgeLists();
+        return edgeOffsets;
+    }
+
+    /**
+     * Gives the heads of the edges of this WeightedGraph in compressed sparse row form (see getEdgeOffsets()).
+     * @return an array of |E| vertices
+     */
+    protected int[] getEdgeHeads() {
+        buildEdgeLists();
+        return edgeHeads;
+    }
+
+    /**
+     * Gives the weights of the edges of this WeightedGraph in compressed sparse row form (see getEdgeOffsets()).
+     * @return an array of |E| weights
+     */
+    protected double[] getEdgeListWeights() {
+        buildEdgeLists();
+        return edgeListWeights;
+    }
+
+    /**
+     * Calculates and returns the lengths of shortest (i.e., least total weight) paths from the specified vertex
+     * to every vertex in this WeightedGraph using Dijkstra's Algorithm; edge weights must not be negative.
+     * @param source the vertex from which shortest paths are to be found
+     * @return an array x such that x[j] is the total weight of a shortest path from source to
+     *         vertex j, or Double.MAX_VALUE if j is unreachable from source
+     */
+    public double[] shortestDistancesDijkstra(int source) {
+        double[] distances = new double[numVertices];
+        shortestPathsDijkstra(new int[]{source}, distances, null);
+        return distances;
+    }
+
+    /**
+     * Calculates information about shortest (i.e., least total weight) paths from the nearest of the specified
+     * source vertices to every vertex in this WeightedGraph using Dijkstra's Algorithm (every source starts at
+     * distance 0); edge weights must not be negative. Apart from the heap, no objects are allocated.
+     * @param sources the vertices from which shortest paths are to be found
+     * @param distances an array of length |V| to be filled such that distances[j] is the total weight of a
+     *                  shortest path from any source to vertex j, or Double.MAX_VALUE if j is unreachable
+     * @param predecessors an array of length |V| to be filled such that predecessors[j] is the vertex immediately
+     *                     preceding vertex j on that path (or -1 if j is a source or unreachable); may be null
+     */
+    public void shortestPathsDijkstra(int[] sources, double[] distances, int[] predecessors) {
+        buildEdgeLists();
+        runDijkstra(sources, -1, null, distances, predecessors, new IndexedDaryHeap(numVertices, 4));
+    }
+
+    /**
+     * Calculates and returns the lengths of shortest paths from each of the specified vertices to every vertex in
+     * this WeightedGraph by running Dijkstra's Algorithm from the sources in parallel; see
+     * shortestDistancesDijkstra() for details.
+     * @param sources the vertices from which shortest paths are to be found
+     * @param numThreads the number of worker threads to search with; must be at least 1
+     * @return an array x such that x[i] is the result of shortestDistancesDijkstra(sources[i])
+     */
+    public double[][] shortestDistancesDijkstra(int[] sources, int numThreads) {
+        buildEdgeLists(); // built up front, since it is built lazily and not thread-safe
+        double[][] output = new double[sources.length][numVertices];
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        try {
+            pool.submit(() -> IntStream.range(0, sources.length).parallel().forEach(i ->
+                    runDijkstra(new int[]{sources[i]}, -1, null, output[i], null,
+                            new IndexedDaryHeap(numVertices, 4)))).join();
+        } finally {
+            pool.shutdown();
+        }
+        return output;
+    }
+
+    /**
+     * Finds a shortest (i.e., least total weight) path from the specified source vertex to the specified target
+     * vertex using the A* Search Algorithm, guided by the straight-line distance from each vertex to target.
+     * The guidance is only valid if every edge weight is at least the straight-line distance between its
+     * endpoints, as is the case for graphs made by ProjectThree.makeGraphFromLocations().
+     * @param source the first vertex of the path
+     * @param target the last vertex of the path
+     * @param locations the (x, y) coordinates of each vertex, i.e., locations[i][0] and locations[i][1]
+     * @return an array containing the vertices of a shortest path from source to target in order (beginning
+     *         with source and ending with target), or null if target is unreachable from source
+     */
+    public int[] findShortestPathAStar(int source, int target, double[][] locations) {
+
+        buildEdgeLists();
+        double[] distances = new double[numVertices];
+        int[] predecessors = new int[numVertices];
+        runDijkstra(new int[]{source}, target, locations, distances, predecessors,
+                new IndexedDaryHeap(numVertices, 4));
+        if (distances[target] == Double.MAX_VALUE) {
+            return null;
+        }
+
+        int length = 1;
+        for (int now = target; now != source; now = predecessors[now]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int i = length - 1, now = target; i >= 0; i--, now = predecessors[now]) {
+            path[i] = now;
+        }
+        return path;
+
+    }
+
+    // Runs Dijkstra's Algorithm from the specified sources, or the A* Search Algorithm towards target (stopping
+    // once it is settled) if locations is not null; target is -1 if every vertex should be settled
+    private void runDijkstra(int[] sources, int target, double[][] locations,
+                             double[] distances, int[] predecessors, IndexedDaryHeap heap) {
+
+        Arrays.fill(distances, Double.MAX_VALUE);
+        if (predecessors != null) {
+            Arrays.fill(predecessors, -1);
+        }
+        for (int source : sources) {
+            distances[source] = 0;
+            heap.insertOrDecrease(source, estimate(source, target, locations));
+        }
+
+        while (!heap.isEmpty()) {
+            int u = heap.removeMin();
+            if (u == target) {
+                return;
+            }
+            for (int e = edgeOffsets[u]; e < edgeOffsets[u + 1]; e++) {
+                int v = edgeHeads[e];
+                double distance = distances[u] + edgeListWeights[e];
+                if (distance < distances[v]) {
+                    distances[v] = distance;
+                    if (predecessors != null) {
+                        predecessors[v] = u;
+                    }
+                    heap.insertOrDecrease(v, distance + estimate(v, target, locations));
+                }
+            }
+        }
+
+    }
+
+    // Gives the straight-line distance from vertex to target for the A* Search Algorithm, or 0 for Dijkstra's
+    private static double estimate(int vertex, int target, double[][] locations) {
+        if (locations == null) {
+            return 0;
+        }
+        double dx = locations[vertex][0] - locations[target][0];
+        double dy = locations[vertex][1] - locations[target][1];
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Generates a Minimal Euclidean Spanning Tree for this WeightedGraph using Kruskal's Algorithm.
+     * @return an array of edges (i.e., ordered pairs of vertices) that comprise
+     *         a Minimal Euclidean Spanning tree for this WeightedGraph
+     */
+    public int[][] getKruskalMEST() {
+
+        int[][] minSpanTree = getKruskalMinimalSpanningForest();
+
+        // If the edges ran out before |V|-1 of them were chosen, there is no *single* MEST
+        if (minSpanTree.length < numVertices - 1) {
+            throw new UnsupportedOperationException("Cannot find an MEST for a disconnected graph!");
+        }
+
+        return minSpanTree;
+
+    }
+
+    /**
+     * Generates a Minimal Spanning Forest for this WeightedGraph (i.e., a Minimal Euclidean
+     * Spanning Tree for each of its connected components) using Kruskal's Algorithm.
+     * @return an array of edges (i.e., ordered pairs of vertices) in the order they were chosen (least weight
+     *         first); there are |V|-1 of them if and only if this WeightedGraph is connected
+     */
+    public int[][] getKruskalMinimalSpanningForest() {
+
+        int[][] minSpanTree = new int[Math.max(0, numVertices - 1)][];
+        DisjointSet vertices = new DisjointSet(numVertices);
+
+        // Gather every edge (automatically ignoring possible self-loops) and sort by weight; ties are broken by
+        // position in the adjacency matrix so that the same edges are chosen as by a repeated scan for the minimum
+        int numEdges = 0;
+        for (int i = 0; i < numVertices; i++) {
+            for (int j = 0; j < numVertices; j++) {
+                if (i != j && hasEdge(i, j)) {
+                    numEdges++;
+                }
+            }
+        }
+        long[] edges = new long[numEdges]; // each edge is stored as i * |V| + j
+        numEdges = 0;
+        for (int i = 0; i < numVertices; i++) {
+            for (int j = 0; j < numVertices; j++) {
+                if (i != j && hasEdge(i, j)) {
+                    edges[numEdges++] = (long) i * numVertices + j;
+                }
+            }
+        }
+        sortByWeight(edges, new long[edges.length], 0, edges.length - 1);
+
+        // until the forest is complete (i.e., contains |V|-1 edges) or the edges run out,
+        // add the smallest-weight edge that won't create a cycle
+        int k = 0;
+        for (int e = 0; e < edges.length && k < minSpanTree.length; e++) {
+            int i = (int) (edges[e] / numVertices);
+            int j = (int) (edges[e] % numVertices);
+            if (vertices.union(i, j)) {
+                minSpanTree[k++] = new int[]{i, j};
+            }
+        }
+
+        return k == minSpanTree.length ? minSpanTree : Arrays.copyOf(minSpanTree, k);
+
+    }
+
+    /**
+     * Generates the same Minimal Spanning Forest as getKruskalMinimalSpanningForest(), but finds the connected
+     * components of this WeightedGraph first (see ConnectedComponents) and then runs Kruskal's Algorithm on each
+     * component in parallel, each on its own worker thread.
+     * @param numThreads the number of worker threads to use; must be at least 1
+     * @return an array of edges (i.e., ordered pairs of vertices) in the order Kruskal's Algorithm would choose
+     *         them for the whole graph (least weight first)
+     */
+    public int[][] getKruskalMinimalSpanningForest(int numThreads) {
+
+        ConnectedComponents components = new ConnectedComponents(this, numThreads);
+        int[] offsets = getEdgeOffsets();
+        int[] heads = getEdgeHeads();
+
+        // Group the vertices by component (a counting sort, so each group stays in increasing vertex order)
+        int numComponents = components.getNumComponents();
+        int[] groupStarts = new int[numComponents + 1];
+        for (int v = 0; v < numVertices; v++) {
+            groupStarts[components.getComponent(v) + 1]++;
+        }
+        for (int c = 0; c < numComponents; c++) {
+            groupStarts[c + 1] += groupStarts[c];
+        }
+        int[] groups = new int[numVertices];
+        int[] localIndices = new int[numVertices]; // the position of each vertex within its component's group
+        int[] fill = Arrays.copyOf(groupStarts, numComponents);
+        for (int v = 0; v < numVertices; v++) {
+            int c = components.getComponent(v);
+            localIndices[v] = fill[c] - groupStarts[c];
+            groups[fill[c]++] = v;
+        }
+
+        // Solve each component independently; chosen[c] holds the edges (encoded as i * |V| + j) of its tree
+        long[][] chosen = new long[numComponents][];
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        try {
+            pool.submit(() -> IntStream.range(0, numComponents).parallel().forEach(c -> {
+
+                int numEdges = 0;
+                for (int g = groupStarts[c]; g < groupStarts[c + 1]; g++) {
+                    numEdges += offsets[groups[g] + 1] - offsets[groups[g]];
+                }
+                long[] edges = new long[numEdges];
+                numEdges = 0;
+                for (int g = groupStarts[c]; g < groupStarts[c + 1]; g++) {
+                    int i = groups[g];
+                    for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+                        if (heads[e] != i) { // automatically ignoring possible self-loops
+                            edges[numEdges++] = (long) i * numVertices + heads[e];
+                        }
+                    }
+                }
+                edges = Arrays.copyOf(edges, numEdges);
+                sortByWeight(edges, new long[edges.length], 0, edges.length - 1);
+
+                int size = groupStarts[c + 1] - groupStarts[c];
+                DisjointSet vertices = new DisjointSet(size);
+                long[] tree = new long[size - 1];
+                int k = 0;
+                for (int e = 0; e < edges.length && k < tree.length; e++) {
+                    int i = (int) (edges[e] / numVertices);
+                    int j = (int) (edges[e] % numVertices);
+                    if (vertices.union(localIndices[i], localIndices[j])) {
+                        tree[k++] = edges[e];
+                    }
+                }
+                chosen[c] = tree;
+
+            })).join();
+        } finally {
+            pool.shutdown();
+        }
+
+        // Merge the trees back into the order that a single run of Kruskal's Algorithm would have chosen them in
+        long[] forest = new long[numVertices - numComponents];
+        int k = 0;
+        for (long[] tree : chosen) {
+            System.arraycopy(tree, 0, forest, k, tree.length);
+            k += tree.length;
+        }
+        Arrays.sort(forest); // row-major order, so that the stable sort below breaks ties the same way
+        sortByWeight(forest, new long[forest.length], 0, forest.length - 1);
+
+        int[][] output = new int[forest.length][];
+        for (int e = 0; e < forest.length; e++) {
+            output[e] = new int[]{(int) (forest[e] / numVertices), (int) (forest[e] % numVertices)};
+        }
+        return output;
+
+    }
+
+    // Stable MergeSort of edges (encoded as i * |V| + j) by weight from least to greatest, using scratch as
+    // temporary storage; since edges are gathered in row-major order, stability keeps ties in that order
+    private void sortByWeight(long[] edges, long[] scratch, int left, int right) {
+        if (left < right) {
+
+            int center = (left + right) >>> 1;
+            sortByWeight(edges, scratch, left, center);
+            sortByWeight(edges, scratch, center + 1, right);
+
+            int currentInLeftHalf = left;
+            int currentInRightHalf = center + 1;
+            for (int i = left; i <= right; i++) {
+                if (currentInRightHalf > right || (currentInLeftHalf <= center
+                        && weightOf(edges[currentInLeftHalf]) <= weightOf(edges[currentInRightHalf]))) {
+                    scratch[i] = edges[currentInLeftHalf++];
+                } else {
+                    scratch[i] = edges[currentInRightHalf++];
+                }
+            }
+            System.arraycopy(scratch, left, edges, left, right - left + 1);
+
+        }
+    }
+
+    // Gives the weight of an edge encoded as i * |V| + j
+    private double weightOf(long edge) {
+        return tryGetWeight((int) (edge / numVertices), (int) (edge % numVertices));
+    }
+
+}
+
+class ConnectedComponents {
+
+    private final int[] componentIds;
+    private final int[] componentSizes;
+
+    /**
+     * Finds the connected components of the specified WeightedGraph (treating every edge as undirected) using a
+     * concurrent union-find: the vertices are split into chunks that are processed in parallel, every edge
+     * joining the sets of its endpoints. Sets are joined by atomically pointing the root with the greater number
+     * at the root with the lesser number, so the root of each component is always its lowest-numbered vertex.
+     * @param graph the WeightedGraph whose connected components are to be found
+     * @param numThreads the number of worker threads to use; must be at least 1
+     */
+    public ConnectedComponents(WeightedGraph graph, int numThreads) {
+
+        int numVertices = graph.getNumVertices();
+        int[] offsets = graph.getEdgeOffsets(); // built up front, since it is built lazily and not thread-safe
+        int[] heads = graph.getEdgeHeads();
+        AtomicIntegerArray parents = new AtomicIntegerArray(numVertices);
+        for (int v = 0; v < numVertices; v++) {
+            parents.set(v, v);
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(numThreads);
+        try {
+            pool.submit(() -> IntStream.range(0, numVertices).parallel().forEach(i -> {
+                for (int e = offsets[i]; e < offsets[i + 1]; e++) {
+                    union(parents, i, heads[e]);
+                }
+            })).join();
+        } finally {
+            pool.shutdown();
+        }
+
+        // Number the components in order of their lowest-numbered vertices (i.e., their roots)
+        componentIds = new int[numVertices];
+        int numComponents = 0;
+        for (int v = 0; v < numVertices; v++) {
+            int root = find(parents, v);
+            componentIds[v] = root == v ? numComponents++ : componentIds[root];
+        }
+        componentSizes = new int[numComponents];
+        for (int id : componentIds) {
+            componentSizes[id]++;
+        }
+
+    }
+
+    // Locates the root of the tree containing subject, halving the path to it along the way (a lost race to
+    // update a parent only means that the path is not shortened)
+    private static int find(AtomicIntegerArray parents, int subject) {
+        int parent = parents.get(subject);
+        while (parent != subject) {
+            int grandparent = parents.get(parent);
+            parents.compareAndSet(subject, parent, grandparent);
+            subject = grandparent;
+            parent = parents.get(subject);
+        }
+        return subject;
+    }
+
+    // Joins the sets containing a and b, retrying if another thread changes either root in the meantime
+    private static void union(AtomicIntegerArray parents, int a, int b) {
+        while (true) {
+            int aRoot = find(parents, a);
+            int bRoot = find(parents, b);
+            if (aRoot == bRoot) {
+                return;
+            }
+            int higher = Math.max(aRoot, bRoot);
+            if (parents.compareAndSet(higher, higher, Math.min(aRoot, bRoot))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gives the number of connected components.
+     * @return the number of connected components
+     */
+    public int getNumComponents() {
+        return componentSizes.length;
+    }
+
+    /**
+     * Gives the ID of the connected component containing the specified vertex; components are
+     * numbered 0, 1, 2, ... in increasing order of their lowest-numbered vertices.
+     * @param vertex the vertex in question
+     * @return the ID of the component containing vertex
+     */
+    public int getComponent(int vertex) {
+        return componentIds[vertex];
+    }
+
+    /**
+     * Gives the number of vertices in the connected component with the specified ID.
+     * @param component the ID of the component in question
+     * @return the size of the component
+     */
+    public int getComponentSize(int component) {
+        return componentSizes[component];
+    }
+
+}
+
+class IndexedDaryHeap {
+
+    private final int arity;
+    private final int[] heap; // the items, arranged so that every item's key is at most those of its children
+    private final int[] positions; // positions[item] is the index of item in heap, or -1 if it is not present
+    private final double[] keys; // keys[item] is the key of item while it is present
+    private int size;
+
+    /**
+     * Creates and returns a new, empty IndexedDaryHeap of items in the range [0, capacity - 1]
+     * with double keys, in which each node has the specified number of children.
+     * @param capacity one more than the greatest item that can be stored
+     * @param arity the number of children of each node; must be at least 2
+     */
+    public IndexedDaryHeap(int capacity, int arity) {
+        this.arity = arity;
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(this.positions, -1);
+        this.keys = new double[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Determines whether or not this IndexedDaryHeap is empty.
+     * @return true if there are no items in this IndexedDaryHeap, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Determines whether or not the specified item is in this IndexedDaryHeap.
+     * @param item the item in question
+     * @return true if item is present, false otherwise
+     */
+    public boolean contains(int item) {
+        return positions[item] >= 0;
+    }
+
+    /**
+     * Inserts the specified item with the specified key, or lowers its key to the one specified if it is already
+     * present with a greater key (a present item's key is never raised).
+     * @param item the item to be inserted
+     * @param key the key of item
+     */
+    public void insertOrDecrease(int item, double key) {
+        if (positions[item] < 0) {
+            positions[item] = size;
+            heap[size++] = item;
+        } else if (key >= keys[item]) {
+            return;
+        }
+        keys[item] = key;
+        siftUp(positions[item]);
+    }
+
+    /**
+     * Removes and returns an item with the least key in this IndexedDaryHeap.
+     * @return the removed item
+     */
+    public int removeMin() {
+        int min = heap[0];
+        positions[min] = -1;
+        if (--size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    // Moves the item at index i up until the heap property is restored
+    private void siftUp(int i) {
+        int item = heap[i];
+        while (i > 0 && keys[item] < keys[heap[(i - 1) / arity]]) {
+            heap[i] = heap[(i - 1) / arity];
+            positions[heap[i]] = i;
+            i = (i - 1) / arity;
+        }
+        heap[i] = item;
+        positions[item] = i;
+    }
+
+    // Moves the item at index i down until the heap property is restored
+    private void siftDown(int i) {
+        int item = heap[i];
+        while (arity * i + 1 < size) {
+            int child = arity * i + 1;
+            for (int c = child + 1; c < Math.min(arity * i + arity + 1, size); c++) {
+                if (keys[heap[c]] < keys[heap[child]]) {
+                    child = c;
+                }
+            }
+            if (keys[heap[child]] >= keys[item]) {
+                break;
+            }
+            heap[i] = heap[child];
+            positions[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = item;
+        positions[item] = i;
+    }
+
+}
+
+class DynamicSpanningForest {
+
+    private final WeightedGraph graph;
+    private final boolean[] active;
+    private int numInactive;
+
+    // The edges of the forest, stored as adjacency lists: the first treeDegrees[v] entries of treeNeighbors[v]
+    // are the vertices joined to vertex v by a forest edge
+    private final int[][] treeNeighbors;
+    private final int[] treeDegrees;
+
+    // Connectivity of the forest; unions keep it up to date as edges are added, but removing a forest edge can
+    // split a set (which a DisjointSet cannot do), so it is then marked stale and rebuilt when next needed
+    private DisjointSet components;
+    private boolean componentsStale;
+
+    // Scratch space for searches of the forest (a vertex v has been visited by the current search if and only if
+    // marks[v] == markStamp, which avoids clearing marks between searches)
+    private final int[] parents;
+    private final int[] queue;
+    private final int[] marks;
+    private int markStamp;
+    private int numSearched; // number of vertices visited by the last search
+
+    /**
+     * Creates and returns a new DynamicSpanningForest that maintains a Minimal Spanning Forest of the specified
+     * WeightedGraph as vertices and edges are added and removed through it. Every vertex of the graph starts out
+     * active. The graph should not be modified other than through this DynamicSpanningForest from now on, and
+     * every edge in it is treated as undirected (i.e., it must have been created in both directions).
+     * @param graph the WeightedGraph to be maintained
+     */
+    public DynamicSpanningForest(WeightedGraph graph) {
+        this.graph = graph;
+        int numVertices = graph.getNumVertices();
+        this.active = new boolean[numVertices];
+        Arrays.fill(this.active, true);
+        this.numInactive = 0;
+        this.treeNeighbors = new int[numVertices][2];
+        this.treeDegrees = new int[numVertices];
+        this.components = new DisjointSet(numVertices);
+        this.componentsStale = false;
+        this.parents = new int[numVertices];
+        this.queue = new int[numVertices];
+        this.marks = new int[numVertices];
+        this.markStamp = 0;
+        this.numSearched = 0;
+        for (int[] edge : graph.getKruskalMinimalSpanningForest()) {
+            link(edge[0], edge[1]);
+        }
+    }
+
+    /**
+     * Determines whether or not the specified vertex is currently part of the network.
+     * @param vertex the vertex in question
+     * @return true if vertex is active, false if it has been removed (and not added back)
+     */
+    public boolean isActive(int vertex) {
+        return active[vertex];
+    }
+
+    /**
+     * Makes a previously removed vertex part of the network again; it has no edges until they are added.
+     * The set of vertices itself cannot grow, since the number of vertices of a WeightedGraph is fixed when it is
+     * created; to leave room for vertices (e.g., radios) that join the network later, create the graph with spare
+     * vertices, removeVertex() them up front, and add them with addVertex() below as they are needed.
+     * @param vertex the vertex to be added
+     */
+    public void addVertex(int vertex) {
+        if (active[vertex]) {
+            throw new IllegalArgumentException("Cannot addVertex() that is already active!");
+        }
+        active[vertex] = true;
+        numInactive--;
+    }
+
+    /**
+     * Makes the lowest-numbered removed (i.e., spare) vertex part of the network again, as for addVertex(int)
+     * above, and gives its number. Throws an UnsupportedOperationException if every vertex is active, since the
+     * number of vertices of the underlying WeightedGraph cannot change.
+     * @return the vertex added
+     */
+    public int addVertex() {
+        if (numInactive == 0) {
+            throw new UnsupportedOperationException("Cannot addVertex() when every vertex is already active!");
+        }
+        int vertex = 0;
+        while (active[vertex]) {
+            vertex++;
+        }
+        addVertex(vertex);
+        return vertex;
+    }
+
+    /**
+     * Removes the specified vertex and all of its edges from the network, replacing
+     * any of its forest edges with the best edges available elsewhere.
+     * @param vertex the vertex to be removed
+     */
+    public void removeVertex(int vertex) {
+
+        if (!active[vertex]) {
+            throw new IllegalArgumentException("Cannot removeVertex() that is not active!");
+        }
+
+        // Remove every edge from the graph first so that no replacement edge can lead back to vertex...
+        for (int other = 0; other < graph.getNumVertices(); other++) {
+            graph.disconnect(vertex, other);
+            graph.disconnect(other, vertex);
+        }
+
+        // ...then cut its forest edges one by one
+        while (treeDegrees[vertex] > 0) {
+            int other = treeNeighbors[vertex][0];
+            cut(vertex, other);
+            reconnect(vertex, other);
+        }
+
+        active[vertex] = false;
+        numInactive++;
+
+    }
+
+    /**
+     * Adds an (undirected) edge of the specified weight between vertices a and b, replacing any edge already
+     * between them. If a and b were already connected, the new edge replaces the heaviest edge on the forest path
+     * between them when it is lighter (the cycle property); otherwise it joins their trees.
+     * @param a one endpoint of the edge to be added
+     * @param b the other endpoint of the edge to be added
+     * @param weight the weight of the edge to be added
+     */
+    public void addEdge(int a, int b, double weight) {
+
+        if (!active[a] || !active[b]) {
+            throw new IllegalArgumentException("Cannot addEdge() to a vertex that is not active!");
+        }
+        if (graph.hasEdge(a, b) || graph.hasEdge(b, a)) {
+            removeEdge(a, b);
+        }
+        graph.connect(a, b, weight);
+        graph.connect(b, a, weight);
+        if (a == b) {
+            return; // self-loops never belong to a spanning forest
+        }
+
+        if ((!componentsStale && !components.connected(a, b)) || !searchForest(a, b)) {
+            link(a, b);
+            return;
+        }
+
+        // searchForest() left the forest path from b back to a in parents; find its heaviest edge...
+        int heaviest = b;
+        for (int now = b; now != a; now = parents[now]) {
+            if (graph.getWeightOfEdge(now, parents[now]) > graph.getWeightOfEdge(heaviest, parents[heaviest])) {
+                heaviest = now;
+            }
+        }
+
+        // ...and swap it out if the new edge is lighter
+        if (weight < graph.getWeightOfEdge(heaviest, parents[heaviest])) {
+            cut(heaviest, parents[heaviest]);
+            link(a, b);
+        }
+
+    }
+
+    /**
+     * Removes the (undirected) edge between vertices a and b, if there is one. If it was a forest edge, the
+     * lightest remaining edge between the two trees it leaves behind (if any) takes its place.
+     * @param a one endpoint of the edge to be removed
+     * @param b the other endpoint of the edge to be removed
+     * @return true if an edge was removed, false if there was no edge between a and b
+     */
+    public boolean removeEdge(int a, int b) {
+        if (!graph.hasEdge(a, b) && !graph.hasEdge(b, a)) {
+            return false;
+        }
+        graph.disconnect(a, b);
+        graph.disconnect(b, a);
+        if (isForestEdge(a, b)) {
+            cut(a, b);
+            reconnect(a, b);
+        }
+        return true;
+    }
+
+    /**
+     * Determines whether or not there is a path between vertices a and b.
+     * @param a the first vertex in question
+     * @param b the second vertex in question
+     * @return true if a and b are in the same tree of the forest, false otherwise
+     */
+    public boolean connected(int a, int b) {
+        return getComponents().connected(a, b);
+    }
+
+    /**
+     * Gives the number of connected components (i.e., trees in the forest) among the active vertices.
+     * @return the number of connected components
+     */
+    public int getNumComponents() {
+        return getComponents().getNumSets() - numInactive;
+    }
+
+    /**
+     * Gives the edges that currently make up the Minimal Spanning Forest.
+     * @return an array of edges (i.e., ordered pairs of vertices, lower-numbered vertex first) in
+     *         increasing order of their lower-numbered vertex
+     */
+    public int[][] getForest() {
+        int[][] output = new int[countForestEdges()][];
+        int k = 0;
+        for (int v = 0; v < treeDegrees.length; v++) {
+            for (int i = 0; i < treeDegrees[v]; i++) {
+                if (v < treeNeighbors[v][i]) {
+                    output[k++] = new int[]{v, treeNeighbors[v][i]};
+                }
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Gives the total weight of the edges that currently make up the Minimal Spanning Forest.
+     * @return the total weight of the forest
+     */
+    public double getTotalWeight() {
+        double totalWeight = 0;
+        for (int[] edge : getForest()) {
+            totalWeight += graph.getWeightOfEdge(edge[0], edge[1]);
+        }
+        return totalWeight;
+    }
+
+    // Gives the number of edges in the forest
+    private int countForestEdges() {
+        int total = 0;
+        for (int degree : treeDegrees) {
+            total += degree;
+        }
+        return total / 2;
+    }
+
+    // Gives an up-to-date DisjointSet of the trees in the forest, rebuilding it first if it is stale
+    private DisjointSet getComponents() {
+        if (componentsStale) {
+            components = new DisjointSet(treeDegrees.length);
+            for (int v = 0; v < treeDegrees.length; v++) {
+                for (int i = 0; i < treeDegrees[v]; i++) {
+                    components.union(v, treeNeighbors[v][i]);
+                }
+            }
+            componentsStale = false;
+        }
+        return components;
+    }
+
+    // Determines whether or not a and b are joined by a forest edge
+    private boolean isForestEdge(int a, int b) {
+        for (int i = 0; i < treeDegrees[a]; i++) {
+            if (treeNeighbors[a][i] == b) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Adds the edge between a and b to the forest
+    private void link(int a, int b) {
+        addTreeNeighbor(a, b);
+        addTreeNeighbor(b, a);
+        if (!componentsStale) {
+            components.union(a, b);
+        }
+    }
+
+    // Removes the edge between a and b from the forest
+    private void cut(int a, int b) {
+        removeTreeNeighbor(a, b);
+        removeTreeNeighbor(b, a);
+        componentsStale = true;
+    }
+
+    private void addTreeNeighbor(int vertex, int neighbor) {
+        if (treeDegrees[vertex] == treeNeighbors[vertex].length) {
+            treeNeighbors[vertex] = Arrays.copyOf(treeNeighbors[vertex], 2 * treeDegrees[vertex]);
+        }
+        treeNeighbors[vertex][treeDegrees[vertex]++] = neighbor;
+    }
+
+    private void removeTreeNeighbor(int vertex, int neighbor) {
+        for (int i = 0; i < treeDegrees[vertex]; i++) {
+            if (treeNeighbors[vertex][i] == neighbor) {
+                treeNeighbors[vertex][i] = treeNeighbors[vertex][--treeDegrees[vertex]];
+                return;
+            }
+        }
+    }
+
+    // Performs a Breadth-First Search of the tree containing source, marking every vertex visited with a new
+    // markStamp and recording its parent in parents; stops early (returning true) if target is reached, and
+    // otherwise leaves the vertices visited in queue[0, number visited) and returns false
+    private boolean searchForest(int source, int target) {
+        markStamp++;
+        marks[source] = markStamp;
+        parents[source] = -1;
+        queue[0] = source;
+        numSearched = 1;
+        for (int head = 0; head < numSearched; head++) {
+            int now = queue[head];
+            if (now == target) {
+                return true;
+            }
+            for (int i = 0; i < treeDegrees[now]; i++) {
+                int next = treeNeighbors[now][i];
+                if (marks[next] != markStamp) {
+                    marks[next] = markStamp;
+                    parents[next] = now;
+                    queue[numSearched++] = next;
+                }
+            }
+        }
+        return false;
+    }
+
+    // After the forest edge between a and b has been cut, finds the lightest remaining graph edge between the
+    // tree containing a and the tree containing b (if there is one) and adds it to the forest. Only the rows of
+    // the smaller tree are scanned.
+    private void reconnect(int a, int b) {
+
+        searchForest(a, -1);
+        int sizeA = numSearched;
+        int stampA = markStamp;
+        int[] sideA = Arrays.copyOf(queue, sizeA);
+        searchForest(b, -1);
+        int sizeB = numSearched;
+        int stampB = markStamp;
+
+        int[] smaller = sizeA <= sizeB ? sideA : queue;
+        int smallerSize = Math.min(sizeA, sizeB);
+        int otherStamp = sizeA <= sizeB ? stampB : stampA;
+
+        int bestU = -1, bestV = -1;
+        double bestWeight = Double.MAX_VALUE;
+        for (int i = 0; i < smallerSize; i++) {
+            int u = smaller[i];
+            for (int v = 0; v < graph.getNumVertices(); v++) {
+                if (marks[v] == otherStamp && graph.hasEdge(u, v) && graph.getWeightOfEdge(u, v) < bestWeight) {
+                    bestU = u;
+                    bestV = v;
+                    bestWeight = graph.getWeightOfEdge(u, v);
+                }
+            }
+        }
+
+        if (bestU != -1) {
+            link(bestU, bestV);
+        }
+
+    }
+
+}
+
+class VertexOrdering {
+
+    private final int[] newToOld;
+    private final int[] oldToNew;
+
+    /**
+     * Creates and returns a new VertexOrdering that renumbers vertices as specified.
+     * @param newToOld an array x such that the vertex numbered i after renumbering is the vertex
+     *                 numbered x[i] before; must contain each of 0, 1, 2, ..., x.length - 1 exactly once
+     */
+    public VertexOrdering(int[] newToOld) {
+        this.newToOld = newToOld;
+        this.oldToNew = new int[newToOld.length];
+        for (int i = 0; i < newToOld.length; i++) {
+            this.oldToNew[newToOld[i]] = i;
+        }
+    }
+
+    /**
+     * Creates and returns a VertexOrdering of the vertices of the specified WeightedGraph by the Reverse
+     * Cuthill-McKee method: each connected component is searched breadth-first from a vertex of least degree,
+     * visiting the neighbors of each vertex in increasing order of degree, and the resulting order is reversed.
+     * This keeps the endpoints of each edge close together in number (i.e., reduces bandwidth).
+     * @param graph the WeightedGraph whose vertices are to be ordered
+     * @return the Reverse Cuthill-McKee ordering
+     */
+    public static VertexOrdering reverseCuthillMcKee(WeightedGraph graph) {
+
+        int numVertices = graph.getNumVertices();
+        int[] offsets = graph.getEdgeOffsets();
+        int[] heads = graph.getEdgeHeads();
+        int[] byDegree = byDegree(graph).newToOld; // greatest degree first
+
+        boolean[] visited = new boolean[numVertices];
+        int[] order = new int[numVertices];
+        int numOrdered = 0;
+        for (int k = numVertices - 1; k >= 0; k--) { // least degree first
+
+            if (visited[byDegree[k]]) {
+                continue;
+            }
+            visited[byDegree[k]] = true;
+            order[numOrdered++] = byDegree[k];
+
+            for (int head = numOrdered - 1; head < numOrdered; head++) {
+                int u = order[head];
+                int firstNew = numOrdered;
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    if (!visited[heads[e]]) {
+                        visited[heads[e]] = true;
+                        order[numOrdered++] = heads[e];
+                    }
+                }
+                // Insertion Sort the newly visited neighbors by degree (neighbor lists are usually short)
+                for (int i = firstNew + 1; i < numOrdered; i++) {
+                    int v = order[i];
+                    int j = i - 1;
+                    while (j >= firstNew && degree(offsets, order[j]) > degree(offsets, v)) {
+                        order[j + 1] = order[j];
+                        j--;
+                    }
+                    order[j + 1] = v;
+                }
+            }
+
+        }
+
+        for (int i = 0, j = numVertices - 1; i < j; i++, j--) {
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+        return new VertexOrdering(order);
+
+    }
+
+    // Gives the out-degree of vertex v given the compressed sparse row offsets of a graph
+    private static int degree(int[] offsets, int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    /**
+     * Creates and returns a VertexOrdering of the vertices of the specified WeightedGraph from greatest to least
+     * out-degree (ties in increasing vertex order), which places the most frequently accessed vertices together.
+     * @param graph the WeightedGraph whose vertices are to be ordered
+     * @return the degree ordering
+     */
+    public static VertexOrdering byDegree(WeightedGraph graph) {
+        int numVertices = graph.getNumVertices();
+        int[] offsets = graph.getEdgeOffsets();
+        int[] counts = new int[numVertices + 2];
+        for (int v = 0; v < numVertices; v++) {
+            counts[numVertices - degree(offsets, v) + 1]++; // greatest degree first
+        }
+        for (int d = 0; d <= numVertices; d++) {
+            counts[d + 1] += counts[d];
+        }
+        int[] order = new int[numVertices];
+        for (int v = 0; v < numVertices; v++) {
+            order[counts[numVertices - degree(offsets, v)]++] = v;
+        }
+        return new VertexOrdering(order);
+    }
+
+    /**
+     * Creates and returns a VertexOrdering of radios along a Hilbert curve through their locations (quantized to a
+     * 65536 x 65536 grid over their bounding box), so that radios close to each other in space (and therefore
+     * likely to share edges) are also close to each other in number.
+     * @param locations the (x, y) coordinates of each radio, i.e., locations[i][0] and locations[i][1]
+     * @return the Hilbert curve ordering
+     */
+    public static VertexOrdering hilbertCurve(double[][] locations) {
+
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (double[] location : locations) {
+            minX = Math.min(minX, location[0]);
+            minY = Math.min(minY, location[1]);
+            maxX = Math.max(maxX, location[0]);
+            maxY = Math.max(maxY, location[1]);
+        }
+        double scale = 65535 / Math.max(Math.max(maxX - minX, maxY - minY), Double.MIN_NORMAL);
+
+        // Sort (Hilbert index, radio) pairs packed into longs; the index takes 32 bits, leaving 31 for the radio
+        long[] keyed = new long[locations.length];
+        for (int i = 0; i < locations.length; i++) {
+            int x = (int) Math.min(65535, (locations[i][0] - minX) * scale);
+            int y = (int) Math.min(65535, (locations[i][1] - minY) * scale);
+            keyed[i] = (hilbertIndex(x, y) << 31) | i;
+        }
+        Arrays.sort(keyed);
+
+        int[] order = new int[locations.length];
+        for (int i = 0; i < locations.length; i++) {
+            order[i] = (int) (keyed[i] & Integer.MAX_VALUE);
+        }
+        return new VertexOrdering(order);
+
+    }
+
+    // Gives the position of cell (x, y) along a Hilbert curve through a 65536 x 65536 grid
+    private static long hilbertIndex(int x, int y) {
+        long index = 0;
+        for (int s = 1 << 15; s > 0; s >>>= 1) {
+            int rx = (x & s) > 0 ? 1 : 0;
+            int ry = (y & s) > 0 ? 1 : 0;
+            index += (long) s * s * ((3 * rx) ^ ry);
+            if (ry == 0) { // rotate the quadrant so that the curve stays continuous
+                if (rx == 1) {
+                    x = s - 1 - x;
+                    y = s - 1 - y;
+                }
+                int swap = x;
+                x = y;
+                y = swap;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Gives the renumbering performed by this VertexOrdering.
+     * @return an array x such that the vertex numbered i after renumbering is the vertex numbered x[i] before;
+     *         suitable for WeightedGraph.permute() and UnweightedGraph.permute()
+     */
+    public int[] getNewToOld() {
+        return newToOld;
+    }
+
+    /**
+     * Gives the number that the specified vertex had before renumbering.
+     * @param vertex a vertex number after renumbering
+     * @return the original vertex number
+     */
+    public int toOriginal(int vertex) {
+        return newToOld[vertex];
+    }
+
+    /**
+     * Gives the number that the specified vertex has after renumbering.
+     * @param vertex an original vertex number
+     * @return the vertex number after renumbering
+     */
+    public int toReordered(int vertex) {
+        return oldToNew[vertex];
+    }
+
+    /**
+     * Translates edges between renumbered vertices (e.g., a spanning tree) back to the original vertex numbers.
+     * @param edges an array of edges (i.e., ordered pairs of renumbered vertices)
+     * @return a new array of the same edges in the same order between the original vertices
+     */
+    public int[][] toOriginalEdges(int[][] edges) {
+        int[][] output = new int[edges.length][];
+        for (int e = 0; e < edges.length; e++) {
+            output[e] = new int[]{newToOld[edges[e][0]], newToOld[edges[e][1]]};
         }
+        return output;
     }
 
     /**
-     * Joins the sets containing the specified elements
-     * if they are not already part of the same set.
-     * @param a an element of the first set to be joined
-     * @param b an element of the second set to be joined
+     * Translates per-vertex results (e.g., colors or distances) for renumbered vertices back to the original
+     * vertex numbers.
+     * @param values an array x such that x[i] belongs to the vertex numbered i after renumbering
+     * @return a new array y such that y[v] belongs to the vertex originally numbered v
      */
-    public void union(int a, int b) {
-        int aRoot = find(a);
-        int bRoot = find(b);
-        if (aRoot != bRoot) {
-            // Note: union is by size
-            if (set[aRoot] <= set[bRoot]) {
-                set[aRoot] += set[bRoot];
-                set[bRoot] = aRoot;
-            } else {
-                set[bRoot] += set[aRoot];
-                set[aRoot] = bRoot;
+    public int[] toOriginalValues(int[] values) {
+        int[] output = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            output[newToOld[i]] = values[i];
+        }
+        return output;
+    }
+
+    /**
+     * Gives the bandwidth of the specified WeightedGraph, i.e., the greatest difference in number between the
+     * endpoints of any edge; a low bandwidth means that the rows touched while processing a vertex are close
+     * together in memory.
+     * @param graph the WeightedGraph in question
+     * @return the bandwidth
+     */
+    public static int getBandwidth(WeightedGraph graph) {
+        int[] offsets = graph.getEdgeOffsets();
+        int[] heads = graph.getEdgeHeads();
+        int bandwidth = 0;
+        for (int v = 0; v < graph.getNumVertices(); v++) {
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                bandwidth = Math.max(bandwidth, Math.abs(heads[e] - v));
+            }
+        }
+        return bandwidth;
+    }
+
+    /**
+     * Gives the average difference in number between the endpoints of the edges of the specified WeightedGraph,
+     * which (unlike the bandwidth) reflects how close together the typical rather than the worst edge is.
+     * @param graph the WeightedGraph in question
+     * @return the average edge span, or 0 if there are no edges
+     */
+    public static double getAverageEdgeSpan(WeightedGraph graph) {
+        int[] offsets = graph.getEdgeOffsets();
+        int[] heads = graph.getEdgeHeads();
+        long totalSpan = 0;
+        for (int v = 0; v < graph.getNumVertices(); v++) {
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                totalSpan += Math.abs(heads[e] - v);
             }
         }
+        return heads.length == 0 ? 0 : (double) totalSpan / heads.length;
     }
 
 }
 
-class UnweightedGraph {
+class RadioNetwork {
 
-    public static final int DISTANCE = 0;
-    public static final int PREDECESSOR = 1;
+    private final double[][] locations;
+    private final double radius;
 
-    private final int[][] adjacencies;
+    /**
+     * Creates and returns a new RadioNetwork with radios at the specified locations and of the specified range.
+     * @param locations the (x, y) coordinates of each radio, i.e., locations[i][0] and locations[i][1]
+     * @param radius the range of the radios
+     */
+    public RadioNetwork(double[][] locations, double radius) {
+        this.locations = locations;
+        this.radius = radius;
+    }
 
     /**
-     * Creates and returns a new UnweightedGraph with the specified number
-     * of vertices (labeled 0, 1, 2, ..., numVertices - 1) and no edges.
-     * @param numVertices the number of vertices in this UnweightedGraph; cannot be changed after object creation
+     * Gives the number of radios in this RadioNetwork.
+     * @return the number of radios
      */
-    public UnweightedGraph(int numVertices) {
-        adjacencies = new int[numVertices][numVertices]; // entries automatically initialized to 0
+    public int getNumRadios() {
+        return locations.length;
     }
 
     /**
-     * Gives the number of vertices in this UnweightedGraph.
-     * @return the number of vertices in this UnweightedGraph
+     * Gives the locations of the radios in this RadioNetwork.
+     * @return an array x such that x[i][0] and x[i][1] are the x- and y-coordinates of radio i
      */
-    public int getNumVertices() {
-        return adjacencies.length;
+    public double[][] getLocations() {
+        return locations;
     }
 
     /**
-     * Creates a (directed) edge beginning at vertex a and ending at vertex b. Note that
-     * an "undirected" edge can be created by calling both connect(a, b) and connect(b, a).
-     * @param a the tail (origin vertex) of the edge to be created
-     * @param b the head (terminal vertex) of the edge to be created
+     * Gives the range of the radios in this RadioNetwork.
+     * @return the radius within which two radios can reach each other
      */
-    public void connect(int a, int b) {
-        adjacencies[a][b] = 1;
+    public double getRadius() {
+        return radius;
     }
 
     /**
-     * Calculates and returns information about shortest paths from
-     * every vertex to every other vertex in this UnweightedGraph using the
-     * Floyd-Warshall All Pairs Shortest Path Algorithm and ignoring self-loops.
-     * @return a two-dimensional array x whose entries are ordered pairs such that
-     *         x[i][j][UnweightedGraph.DISTANCE] contains the number of vertices on a
-     *         shortest path from vertex i to vertex j (or Integer.MAX_VALUE if those
-     *         vertices are unreachable from each other) and
-     *         x[i][j][UnweightedGraph.PREDECESSOR] contains the vertex immediately
-     *         preceding vertex j on a shortest path from vertex i to vertex j unless
-     *         vertices i and j are adjacent or unreachable from each other, in which
-     *         case it contains -1.
+     * Converts this RadioNetwork into a WeightedGraph; see ProjectThree.makeGraphFromLocations() for details.
+     * @return a WeightedGraph whose edge weights are the distances between radios in range of each other
      */
-    public int[][][] shortestPathsFW() {
+    public WeightedGraph toGraph() {
+        return ProjectThree.makeGraphFromLocations(locations, radius);
+    }
 
-        // Initialize distance and predecessor variables
-        int[][][] output = new int[adjacencies.length][adjacencies.length][2];
-        for (int i = 0; i < adjacencies.length; i++) {
-            for (int j = 0; j < adjacencies.length; j++) {
-                if (i == j) {
-                    output[i][j][DISTANCE] = 0; // required assumption
-                } else {
-                    if (adjacencies[j][i] == 0) {
-                        output[i][j][DISTANCE] = Integer.MAX_VALUE; // i.e., unreachable (so far)
+    /**
+     * Converts this RadioNetwork into a WeightedGraph that stores each edge weight in the specified number of bits;
+     * see ProjectThree.makeGraphFromLocations() for details.
+     * @param bitsPerWeight the number of bits used to store each edge weight; must be 32 or 64
+     * @return a WeightedGraph whose edge weights are the distances between radios in range of each other
+     */
+    public WeightedGraph toGraph(int bitsPerWeight) {
+        return ProjectThree.makeGraphFromLocations(locations, radius, bitsPerWeight);
+    }
 
-                    } else {
-                        output[i][j][DISTANCE] = 1;
-                    }
-                }
-                output[i][j][PREDECESSOR] = -1; // i.e., no predecessor (yet)
-            }
-        }
+}
 
-        // For all vertices k, check if the shortest path from every
-        // i to every j would be improved by routing through k
-        for (int k = 0; k < adjacencies.length; k++) {
-            for (int i = 0; i < adjacencies.length; i++) {
-                for (int j = 0; j < adjacencies.length; j++) {
-                    // Avoid integer overflow by checking for MAX_VALUE before addition
-                    if (output[i][k][DISTANCE] < Integer.MAX_VALUE && output[k][j][DISTANCE] < Integer.MAX_VALUE) {
-                        if (output[i][k][DISTANCE] + output[k][j][DISTANCE] < output[i][j][DISTANCE]) {
-                            output[i][j][DISTANCE] = output[i][k][DISTANCE] + output[k][j][DISTANCE];
-                            output[i][j][PREDECESSOR] = k;
-                        }
-                    }
-                }
-            }
-        }
+class MappedInput implements AutoCloseable {
 
-        return output;
+    private static final long WINDOW_SIZE = 1L << 28; // bytes mapped at a time, which keeps within the 2GB limit
 
+    private final FileChannel channel;
+    private final long size;
+    private long windowStart;
+    private MappedByteBuffer window;
+
+    /**
+     * Opens the specified file for sequential reading through a sliding memory-mapped window.
+     * @param path the path of the file to be read
+     * @throws IOException if the file cannot be opened or mapped
+     */
+    public MappedInput(String path) throws IOException {
+        this.channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ);
+        this.size = channel.size();
+        this.windowStart = 0;
+        this.window = map(0);
     }
 
-    // Gives an array containing the vertices of this UnweightedGraph
-    // MergeSorted by their outDegrees from least to greatest
-    private int[] sortByOutDegrees() {
+    // Maps the window of the file beginning at the specified position
+    private MappedByteBuffer map(long start) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, size - start));
+    }
 
-        // Obtain out-degrees of all vertices
-        int vertexTotal;
-        int[] outDegrees = new int[adjacencies.length];
-        for (int i = 0; i < adjacencies.length; i++) {
-            vertexTotal = 0;
-            for (int j = 0; j < adjacencies.length; j++) {
-                if (adjacencies[i][j] == 1) {
-                    vertexTotal++;
-                }
+    /**
+     * Reads the next byte of the file.
+     * @return the next byte (in the range [0, 255]), or -1 if the end of the file has been reached
+     * @throws IOException if the next window of the file cannot be mapped
+     */
+    public int read() throws IOException {
+        if (!window.hasRemaining()) {
+            if (windowStart + window.capacity() >= size) {
+                return -1;
             }
-            outDegrees[i] = vertexTotal;
+            windowStart += window.capacity();
+            window = map(windowStart);
         }
+        return window.get() & 0xFF;
+    }
 
-        // Set up vertices array
-        int[] vertices = new int[adjacencies.length];
-        for (int i = 0; i < adjacencies.length; i++) {
-            vertices[i] = i;
-        }
+    /**
+     * Closes the file.
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
 
-        sortByOutDegrees(vertices, outDegrees, 0, vertices.length - 1);
-        return vertices;
+}
 
-    }
+class GraphIO {
 
-    // Recursive facilitator method for the modified MergeSort outlined above
-    private void sortByOutDegrees(int[] vertices, int[] outDegrees, int left, int right) {
-        if (left < right) {
+    // Symbolic Constants for the binary format
+    public static final int MAGIC = 0x52475048; // "RGPH"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 4 + 4 + 4 + 4 + 8;
 
-            // Recurse to sort left and right halves
-            int center = (left + right) / 2;
-            sortByOutDegrees(vertices, outDegrees, left, center);
-            sortByOutDegrees(vertices, outDegrees, center + 1, right);
+    // Exact powers of ten (as doubles) for the fast path of parseDouble()
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
 
-            // Prep to merge halves
-            int currentInLeftHalf = left;
-            int currentInRightHalf = center + 1;
-            boolean leftHalfDone, rightHalfDone;
-            int[] merged = new int[right - left + 1];
+    /**
+     * Reads a RadioNetwork from a text file in the format of GraphData.txt (the number of radios on the first
+     * line, then the x- and y-coordinates of one radio per line, then the range of the radios), parsing the
+     * bytes of a memory-mapped copy of the file directly rather than splitting lines into Strings.
+     * @param path the path of the text file
+     * @return the RadioNetwork described by the file
+     * @throws IOException if the file cannot be read
+     */
+    public static RadioNetwork readText(String path) throws IOException {
+        try (MappedInput input = new MappedInput(path)) {
+            int numRadios = (int) parseDouble(input);
+            double[][] locations = new double[numRadios][2];
+            for (int i = 0; i < numRadios; i++) {
+                locations[i][0] = parseDouble(input);
+                locations[i][1] = parseDouble(input);
+            }
+            double radius = parseDouble(input);
+            return new RadioNetwork(locations, radius);
+        }
+    }
 
-            // Merge halves
-            for (int i = 0; i < merged.length; i++) {
+    // Parses the next whitespace-delimited number from input. Plain decimals (e.g., -12.345) with at most 15
+    // significant digits are converted exactly as Double.parseDouble() would convert them (since both the digits
+    // and the power of ten are exactly representable, one correctly rounded division suffices); anything else
+    // (exponents, more digits, etc.) is handed to Double.parseDouble() itself. Digits are accumulated as they are
+    // read, so a String is only built for numbers that take the slow path.
+    private static double parseDouble(MappedInput input) throws IOException {
 
-                leftHalfDone = currentInLeftHalf > center;
-                rightHalfDone = currentInRightHalf > right;
+        int now = input.read();
+        while (now == ' ' || now == '\n' || now == '\r' || now == '\t') {
+            now = input.read();
+        }
+        if (now == -1) {
+            throw new IllegalArgumentException("Invalid data file: ended before all numbers were read.");
+        }
 
-                if (leftHalfDone) {
-                    merged[i] = vertices[currentInRightHalf];
-                    currentInRightHalf++;
-                } else if (rightHalfDone) {
-                    merged[i] = vertices[currentInLeftHalf];
-                    currentInLeftHalf++;
-                } else {
-                    if (outDegrees[vertices[currentInLeftHalf]] <= outDegrees[vertices[currentInRightHalf]]) {
-                        merged[i] = vertices[currentInLeftHalf];
-                        currentInLeftHalf++;
-                    } else {
-                        merged[i] = vertices[currentInRightHalf];
-                        currentInRightHalf++;
-                    }
+        StringBuilder token = null; // the text of the number, once it is known to need Double.parseDouble()
+        boolean negative = false, seenPoint = false;
+        long digits = 0;
+        int numDigits = 0, numSignificantDigits = 0, fractionDigits = 0;
+        if (now == '-' || now == '+') {
+            negative = now == '-';
+            now = input.read();
+        }
+        while (now != -1 && now != ' ' && now != '\n' && now != '\r' && now != '\t') {
+            boolean significant = numSignificantDigits > 0 || now != '0'; // leading zeros are not significant
+            if (token != null) {
+                token.append((char) now);
+            } else if (now >= '0' && now <= '9' && !(significant && numSignificantDigits == 18)) { // fits a long
+                numDigits++;
+                if (significant) {
+                    numSignificantDigits++;
                 }
-
+                digits = digits * 10 + (now - '0');
+                if (seenPoint) {
+                    fractionDigits++;
+                }
+            } else if (now == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                token = rebuildToken(negative, digits, numDigits, seenPoint, fractionDigits).append((char) now);
             }
+            now = input.read();
+        }
+
+        if (token == null && numDigits > 0 && numSignificantDigits <= 15 && fractionDigits < POWERS_OF_TEN.length) {
+            double value = digits / POWERS_OF_TEN[fractionDigits];
+            return negative ? -value : value;
+        } else if (token == null) {
+            token = rebuildToken(negative, digits, numDigits, seenPoint, fractionDigits);
+        }
+        return Double.parseDouble(token.toString());
 
-            // Replace unsorted entries with sorted entries
-            if (right + 1 - left >= 0) System.arraycopy(merged, 0, vertices, left, right + 1 - left);
+    }
 
+    // Rebuilds the text of the part of a number read so far by parseDouble() from what it has accumulated; the
+    // result has the same digits, sign and decimal point (if any), and so the same value, as the original text
+    private static StringBuilder rebuildToken(boolean negative, long digits, int numDigits, boolean seenPoint,
+                                              int fractionDigits) {
+        StringBuilder token = new StringBuilder(numDigits + 2);
+        if (negative) {
+            token.append('-');
         }
+        if (numDigits > 0) {
+            String significant = Long.toString(digits);
+            for (int i = significant.length(); i < numDigits; i++) {
+                token.append('0'); // the leading zeros
+            }
+            token.append(significant);
+        }
+        if (seenPoint) {
+            token.insert(token.length() - fractionDigits, '.');
+        }
+        return token;
     }
 
     /**
-     * Calculates and returns an upper bound (estimate) for the chromatic
-     * number of this UnweightedGraph using a modified "greedy" approach.
-     * @return the estimated chromatic number
+     * Writes a RadioNetwork to a text file in the format of GraphData.txt (see readText()).
+     * @param path the path of the text file to be (over)written
+     * @param network the RadioNetwork to be written
+     * @throws IOException if the file cannot be written
      */
-    public int estimateChromaticNumber() {
-
-        int chromaticNumber = 1;
-        int[] verticesByOutDegree = sortByOutDegrees();
-        int[] vertexColors = new int[adjacencies.length]; // for storing colors of vertices once decided on
-        for (int i = 0; i < adjacencies.length; i++) {
-            vertexColors[i] = -1; // signals no color yet
+    public static void writeText(String path, RadioNetwork network) throws IOException {
+        try (PrintWriter output = new PrintWriter(Files.newBufferedWriter(Paths.get(path)))) {
+            output.println(network.getNumRadios());
+            for (double[] location : network.getLocations()) {
+                output.println(location[0] + " " + location[1]);
+            }
+            output.println(network.getRadius());
         }
+    }
 
-        // Starting with the vertex of highest out-degree and working our way down...
-        for (int i = verticesByOutDegree.length - 1; i >= 0; i--) {
+    /**
+     * Writes a RadioNetwork and its WeightedGraph to a binary file laid out (little-endian) as follows:
+     * a header (the int MAGIC, the int VERSION, the number of radios n, the number of directed edges m and the
+     * double radius), then the 2n doubles x0 y0 x1 y1 ..., then the n + 1 int offsets of each vertex's edges
+     * in compressed sparse row form, then the m int heads of the edges and finally the m double edge weights.
+     * @param path the path of the binary file to be (over)written
+     * @param network the RadioNetwork to be written
+     * @param graph the WeightedGraph of the RadioNetwork (e.g., from network.toGraph())
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeBinary(String path, RadioNetwork network, WeightedGraph graph) throws IOException {
 
-            // ...figure out which colors have already been claimed
-            // by neighbors of the vertex currently being considered...
-            boolean[] colorsTaken = new boolean[chromaticNumber];
-            for (int j = 0; j < adjacencies.length; j++) {
-                if (adjacencies[verticesByOutDegree[i]][j] == 1 || adjacencies[j][verticesByOutDegree[i]] == 1) {
-                    if (vertexColors[j] >= 0) {
-                        colorsTaken[vertexColors[j]] = true;
-                    }
+        int numVertices = graph.getNumVertices();
+        int[] offsets = new int[numVertices + 1];
+        for (int i = 0; i < numVertices; i++) {
+            offsets[i + 1] = offsets[i];
+            for (int j = 0; j < numVertices; j++) {
+                if (graph.hasEdge(i, j)) {
+                    offsets[i + 1]++;
                 }
             }
+        }
+        int numEdges = offsets[numVertices];
 
-            // ...and assign an existing color to the vertex currently being considered (if possible)...
-            for (int color = 0; color < chromaticNumber; color++) {
-                if (!colorsTaken[color]) {
-                    vertexColors[verticesByOutDegree[i]] = color;
-                    break;
-                }
-            }
+        long size = HEADER_BYTES + 16L * numVertices + 4L * (numVertices + 1) + 12L * numEdges;
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
 
-            // ...or create a new color if every existing color has already been
-            // assigned to a neighbor of the vertex currently being considered
-            if (vertexColors[verticesByOutDegree[i]] == -1) {
-                vertexColors[verticesByOutDegree[i]] = chromaticNumber;
-                chromaticNumber++;
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(numVertices).putInt(numEdges).putDouble(network.getRadius());
+            for (double[] location : network.getLocations()) {
+                buffer.putDouble(location[0]).putDouble(location[1]);
+            }
+            for (int offset : offsets) {
+                buffer.putInt(offset);
+            }
+            int headsStart = buffer.position();
+            int weightsStart = headsStart + 4 * numEdges;
+            int e = 0;
+            for (int i = 0; i < numVertices; i++) {
+                for (int j = 0; j < numVertices; j++) {
+                    if (graph.hasEdge(i, j)) {
+                        buffer.putInt(headsStart + 4 * e, j);
+                        buffer.putDouble(weightsStart + 8 * e, graph.getWeightOfEdge(i, j));
+                        e++;
+                    }
+                }
             }
 
         }
 
-        return chromaticNumber;
-
     }
 
-}
-
-class WeightedGraph {
-
-    private final double[][] edgeWeights;
+    // Maps the binary file open in channel and checks its header
+    private static ByteBuffer mapBinary(FileChannel channel) throws IOException {
+        if (channel.size() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid binary graph file: larger than 2GB.");
+        }
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size())
+                .order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Invalid binary graph file: unrecognized header.");
+        }
+        return buffer;
+    }
 
     /**
-     * Creates and returns a new WeightedGraph with the specified number
-     * of vertices (labeled 0, 1, 2, ..., numVertices - 1) and no edges.
-     * @param numVertices the number of vertices in this UnweightedGraph; cannot be changed after object creation
+     * Reads the RadioNetwork stored in a binary file written by writeBinary().
+     * @param path the path of the binary file
+     * @return the RadioNetwork stored in the file
+     * @throws IOException if the file cannot be read
      */
-    public WeightedGraph(int numVertices) {
-        edgeWeights = new double[numVertices][numVertices];
-        for (int i = 0; i < numVertices; i++) {
-            for (int j = 0; j < numVertices; j++) {
-                edgeWeights[i][j] = Double.MAX_VALUE; // denotes that there is no edge between i and j
+    public static RadioNetwork readBinaryNetwork(String path) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            ByteBuffer buffer = mapBinary(channel);
+            int numVertices = buffer.getInt(8);
+            double[][] locations = new double[numVertices][2];
+            DoubleBuffer coordinates = sliceAt(buffer, HEADER_BYTES).asDoubleBuffer();
+            for (double[] location : locations) {
+                location[0] = coordinates.get();
+                location[1] = coordinates.get();
             }
+            return new RadioNetwork(locations, buffer.getDouble(16));
         }
     }
 
     /**
-     * Gives the weight of the edge from vertex a to vertex b if that
-     * edge exists and throws an IllegalArgumentException if it does not.
-     * @param a the tail (origin vertex) of the edge in question
-     * @param b the head (terminal vertex) of the edge in question
-     * @return the weight of the edge starting at vertex a and ending at vertex b
+     * Reads the WeightedGraph stored in a binary file written by writeBinary(), copying its edges
+     * directly out of the mapped file (i.e., without recomputing any distances).
+     * @param path the path of the binary file
+     * @return the WeightedGraph stored in the file
+     * @throws IOException if the file cannot be read
      */
-    public double getWeightOfEdge(int a, int b) {
-        if (edgeWeights[a][b] == Double.MAX_VALUE) {
-            throw new IllegalArgumentException("Cannot getWeightOfEdge() that does not exist!");
-        } else {
-            return edgeWeights[a][b];
+    public static WeightedGraph readBinaryWeighted(String path) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            ByteBuffer buffer = mapBinary(channel);
+            int numVertices = buffer.getInt(8);
+            int numEdges = buffer.getInt(12);
+            IntBuffer offsets = sliceAt(buffer, HEADER_BYTES + 16 * numVertices).asIntBuffer();
+            IntBuffer heads = sliceAt(buffer, HEADER_BYTES + 16 * numVertices + 4 * (numVertices + 1)).asIntBuffer();
+            DoubleBuffer weights = sliceAt(buffer, HEADER_BYTES + 16 * numVertices + 4 * (numVertices + 1)
+                    + 4 * numEdges).asDoubleBuffer();
+            WeightedGraph graph = new WeightedGraph(numVertices);
+            for (int i = 0; i < numVertices; i++) {
+                for (int e = offsets.get(i); e < offsets.get(i + 1); e++) {
+                    graph.connect(i, heads.get(e), weights.get(e));
+                }
+            }
+            return graph;
         }
     }
 
     /**
-     * Converts this WeightedGraph into an UnweightedGraph with the same vertices and edges.
-     * @return an unweighted version of this WeightedGraph
+     * Reads the edges stored in a binary file written by writeBinary() as an UnweightedGraph (i.e., the
+     * equivalent of readBinaryWeighted(path).bifurcate(), but without reading the edge weights at all).
+     * @param path the path of the binary file
+     * @return an UnweightedGraph with the edges stored in the file
+     * @throws IOException if the file cannot be read
      */
-    public UnweightedGraph bifurcate() {
-        UnweightedGraph output = new UnweightedGraph(edgeWeights.length);
-        for (int i = 0; i < edgeWeights.length; i++) {
-            for (int j = 0; j < edgeWeights.length; j++) {
-                if (edgeWeights[i][j] != Double.MAX_VALUE) {
-                    output.connect(i, j);
+    public static UnweightedGraph readBinaryUnweighted(String path) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+            ByteBuffer buffer = mapBinary(channel);
+            int numVertices = buffer.getInt(8);
+            IntBuffer offsets = sliceAt(buffer, HEADER_BYTES + 16 * numVertices).asIntBuffer();
+            IntBuffer heads = sliceAt(buffer, HEADER_BYTES + 16 * numVertices + 4 * (numVertices + 1)).asIntBuffer();
+            UnweightedGraph graph = new UnweightedGraph(numVertices);
+            for (int i = 0; i < numVertices; i++) {
+                for (int e = offsets.get(i); e < offsets.get(i + 1); e++) {
+                    graph.connect(i, heads.get(e));
                 }
             }
+            return graph;
         }
-        return output;
+    }
+
+    // Gives a little-endian view of buffer beginning at the specified position
+    private static ByteBuffer sliceAt(ByteBuffer buffer, int position) {
+        return buffer.duplicate().position(position).slice().order(ByteOrder.LITTLE_ENDIAN);
     }
 
     /**
-     * Creates a (directed) edge beginning at vertex a and ending at vertex b with the specified weight. Note
-     * that an "undirected" edge can be created by calling both connect(a, b, weight) and connect(b, a, weight).
-     * @param a the tail (origin vertex) of the edge to be created
-     * @param b the head (terminal vertex) of the edge to be created
-     * @param weight the weight of the edge to be created
+     * Converts a text file in the format of GraphData.txt into a binary file (see writeBinary()).
+     * @param textPath the path of the text file to be read
+     * @param binaryPath the path of the binary file to be (over)written
+     * @throws IOException if either file cannot be read or written
      */
-    public void connect(int a, int b, double weight) {
-        edgeWeights[a][b] = weight;
+    public static void convertTextToBinary(String textPath, String binaryPath) throws IOException {
+        RadioNetwork network = readText(textPath);
+        writeBinary(binaryPath, network, network.toGraph());
     }
 
     /**
-     * Generates a Minimal Euclidean Spanning Tree for this WeightedGraph using Kruskal's Algorithm.
-     * @return an array of edges (i.e., ordered pairs of vertices) that comprise
-     *         a Minimal Euclidean Spanning tree for this WeightedGraph
+     * Converts a binary file (see writeBinary()) into a text file in the format of GraphData.txt.
+     * @param binaryPath the path of the binary file to be read
+     * @param textPath the path of the text file to be (over)written
+     * @throws IOException if either file cannot be read or written
      */
-    public int[][] getKruskalMEST() {
-
-        int[][] minSpanTree = new int[edgeWeights.length - 1][];
-        DisjointSet vertices = new DisjointSet(edgeWeights.length);
-
-        int[] minUsefulEdge;
-        double minUsefulEdgeWeight;
-
-        // until the MEST is complete (i.e., contains |V|-1 edges)...
-        for (int k = 0; k < minSpanTree.length; k++) {
-
-            minUsefulEdge = new int[]{-1, -1};
-            minUsefulEdgeWeight = Double.MAX_VALUE;
-
-            // ...find the smallest-weight edge that won't create a cycle...
-            for (int i = 0; i < edgeWeights.length; i++) {
-                for (int j = 0; j < edgeWeights.length; j++) {
-                    if (edgeWeights[i][j] < minUsefulEdgeWeight) {
-                        // ...(automatically ignoring possible self-loops)...
-                        if (vertices.find(i) != vertices.find(j)) {
-                            minUsefulEdge[0] = i;
-                            minUsefulEdge[1] = j;
-                            minUsefulEdgeWeight = edgeWeights[i][j];
-                        }
-                    }
-                }
-            }
-
-            // ...and, unless none is found (in which case there is no *single* MEST)...
-            if (minUsefulEdge[0] == -1) {
-                throw new UnsupportedOperationException("Cannot find an MEST for a disconnected graph!");
-            }
-
-            // ... add it to the MEST
-            minSpanTree[k] = minUsefulEdge;
-            vertices.union(minUsefulEdge[0], minUsefulEdge[1]);
-
-        }
-
-        return minSpanTree;
-
+    public static void convertBinaryToText(String binaryPath, String textPath) throws IOException {
+        writeText(textPath, readBinaryNetwork(binaryPath));
     }
 
 }
@@ -399,48 +3389,141 @@ public class ProjectThree {
     }
 
     public static WeightedGraph makeGraphFromInputFile(String path) throws IOException {
+        return GraphIO.readText(path).toGraph();
+    }
 
-        Scanner input = new Scanner(new File(path));
-
-        // get number of radios
-        int numRadios = Integer.parseInt(input.nextLine());
-        WeightedGraph graph = new WeightedGraph(numRadios);
+    /**
+     * Creates and returns a WeightedGraph with one vertex per radio location and an (undirected) edge between
+     * every pair of radios whose Euclidean distance is no more than radius. Radios are bucketed into a uniform
+     * grid whose cells are at least radius wide so that each radio is only compared against radios in its own
+     * and neighbouring cells; the cells are then processed in parallel.
+     * @param locations the (x, y) coordinates of each radio, i.e., locations[i][0] and locations[i][1]
+     * @param radius the range of the radios
+     * @return a WeightedGraph whose edge weights are the distances between radios in range of each other
+     */
+    public static WeightedGraph makeGraphFromLocations(double[][] locations, double radius) {
+        return makeGraphFromLocations(locations, radius, 64);
+    }
 
-        // get all radio locations
-        String[] now;
-        double[][] locations = new double[numRadios][2];
-        for (int i = 0; i < numRadios; i++) {
-            now = input.nextLine().split(" ");
-            locations[i][0] = Double.parseDouble(now[0]);
-            locations[i][1] = Double.parseDouble(now[1]);
+    /**
+     * Performs the operation specified in documentation for makeGraphFromLocations() above, but stores
+     * each edge weight in the specified number of bits (see the WeightedGraph constructors for details).
+     * @param locations the (x, y) coordinates of each radio, i.e., locations[i][0] and locations[i][1]
+     * @param radius the range of the radios
+     * @param bitsPerWeight the number of bits used to store each edge weight; must be 32 or 64
+     * @return a WeightedGraph whose edge weights are the distances between radios in range of each other
+     */
+    public static WeightedGraph makeGraphFromLocations(double[][] locations, double radius, int bitsPerWeight) {
+
+        int numRadios = locations.length;
+        WeightedGraph graph = bitsPerWeight == 64
+                ? new WeightedGraph(numRadios)
+                : new WeightedGraph(numRadios, Math.max(0, radius), bitsPerWeight);
+        if (numRadios < 2 || !(radius >= 0)) {
+            return graph; // no pairs to compare, or no pair can be in range
         }
 
-        // get the range of the radios
-        double radius = Double.parseDouble(input.nextLine());
+        // determine the extent of the radio locations
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+        for (double[] location : locations) {
+            minX = Math.min(minX, location[0]);
+            minY = Math.min(minY, location[1]);
+            maxX = Math.max(maxX, location[0]);
+            maxY = Math.max(maxY, location[1]);
+        }
 
-        input.close();
+        // choose a cell size of at least radius, doubling it until the grid holds no more than ~4 cells per radio
+        // (so that widely spread locations don't produce a grid that is mostly empty cells)
+        double cellSize = radius > 0 ? radius : 1;
+        if (Double.isInfinite(cellSize) || Double.isInfinite(maxX - minX) || Double.isInfinite(maxY - minY)) {
+            cellSize = Double.MAX_VALUE; // degenerates to a single cell, i.e., all pairs are compared
+        }
+        while ((Math.floor((maxX - minX) / cellSize) + 1) * (Math.floor((maxY - minY) / cellSize) + 1)
+                > 4.0 * numRadios + 16) {
+            cellSize *= 2;
+        }
+        int gridWidth = (int) Math.floor((maxX - minX) / cellSize) + 1;
+        int gridHeight = (int) Math.floor((maxY - minY) / cellSize) + 1;
 
-        // convert radio locations into distances, then edges where applicable
+        // counting sort the radios by cell so that each cell's radios are contiguous in cellMembers
+        int[] cellOf = new int[numRadios];
+        int[] cellStart = new int[gridWidth * gridHeight + 1];
+        for (int i = 0; i < numRadios; i++) {
+            int cx = Math.min((int) ((locations[i][0] - minX) / cellSize), gridWidth - 1);
+            int cy = Math.min((int) ((locations[i][1] - minY) / cellSize), gridHeight - 1);
+            cellOf[i] = cy * gridWidth + cx;
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < gridWidth * gridHeight; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        int[] cellMembers = new int[numRadios];
+        int[] cellFill = Arrays.copyOf(cellStart, cellStart.length - 1);
         for (int i = 0; i < numRadios; i++) {
-            for (int j = i + 1; j < numRadios; j++) {
-                double pythagoreanDistance = Math.sqrt(Math.pow(locations[i][0] - locations[j][0], 2)
-                        + Math.pow(locations[i][1] - locations[j][1], 2));
-                if (pythagoreanDistance <= radius) {
-                    graph.connect(i, j, pythagoreanDistance);
-                    graph.connect(j, i, pythagoreanDistance);
+            cellMembers[cellFill[cellOf[i]]++] = i;
+        }
+
+        // Squared distances are used as a filter so that Math.sqrt() is only called for candidate pairs; the
+        // filter is slightly generous so that the final (unsquared) comparison decides borderline pairs exactly
+        // as the original all-pairs comparison did
+        double radiusSquared = radius * radius * (1 + 1e-9);
+        final double finalCellSize = cellSize;
+        final int finalGridWidth = gridWidth;
+        final int finalGridHeight = gridHeight;
+
+        // Each pair of radios is compared exactly once: within a cell, and between a cell and the "forward" half
+        // of its neighbours. Every pair writes to its own matrix entries, so cells can be processed in parallel.
+        IntStream.range(0, gridWidth * gridHeight).parallel().forEach(cell -> {
+            int cx = cell % finalGridWidth;
+            int cy = cell / finalGridWidth;
+            for (int a = cellStart[cell]; a < cellStart[cell + 1]; a++) {
+                int i = cellMembers[a];
+                for (int b = a + 1; b < cellStart[cell + 1]; b++) {
+                    connectIfInRange(graph, locations, cellMembers[b], i, radius, radiusSquared);
+                }
+                for (int[] offset : FORWARD_NEIGHBOURS) {
+                    int nx = cx + offset[0];
+                    int ny = cy + offset[1];
+                    if (nx < 0 || nx >= finalGridWidth || ny >= finalGridHeight || finalCellSize == Double.MAX_VALUE) {
+                        continue;
+                    }
+                    int neighbour = ny * finalGridWidth + nx;
+                    for (int b = cellStart[neighbour]; b < cellStart[neighbour + 1]; b++) {
+                        connectIfInRange(graph, locations, cellMembers[b], i, radius, radiusSquared);
+                    }
                 }
             }
-        }
+        });
 
         return graph;
 
     }
 
+    // Offsets of the neighbouring grid cells that a cell is compared against (the other four neighbours compare
+    // themselves against it) in makeGraphFromLocations()
+    private static final int[][] FORWARD_NEIGHBOURS = {{1, 0}, {-1, 1}, {0, 1}, {1, 1}};
+
+    // Connects radios i and j in both directions if they are in range of each other
+    private static void connectIfInRange(WeightedGraph graph, double[][] locations, int i, int j,
+                                         double radius, double radiusSquared) {
+        double dx = locations[i][0] - locations[j][0];
+        double dy = locations[i][1] - locations[j][1];
+        double squaredDistance = dx * dx + dy * dy;
+        if (squaredDistance <= radiusSquared) {
+            double pythagoreanDistance = Math.sqrt(squaredDistance);
+            if (pythagoreanDistance <= radius) {
+                graph.connect(i, j, pythagoreanDistance);
+                graph.connect(j, i, pythagoreanDistance);
+            }
+        }
+    }
+
     public static void produceMinimalSpanningTree(WeightedGraph graph) {
 
-        // Set up and retrieve MEST
+        // Set up and retrieve MEST (or, if the network is partitioned, a Minimal Spanning Forest)
         double nowWeight, totalWeight = 0;
-        int[][] minSpanTree = graph.getKruskalMEST();
+        int[][] minSpanTree = graph.getKruskalMinimalSpanningForest(Runtime.getRuntime().availableProcessors());
         DecimalFormat twoDecimalPlaces = new DecimalFormat("0.00");
 
         // Print MEST and total length
@@ -455,38 +3538,45 @@ public class ProjectThree {
 
     public static void produceShortestPathsAndDiameter(UnweightedGraph graph) {
 
-        int[][][] shortestPaths = graph.shortestPathsFW(); // retrieve shortest paths info
-
-        for (int i = 1; i < graph.getNumVertices(); i++) {
+        // Shortest paths from node ID 1 only are printed, so a single search replaces Floyd-Warshall; its
+        // predecessors are those shortestPathsFW() would give, so the output is unchanged
+        int numVertices = graph.getNumVertices();
+        int[][] shortestPaths = numVertices > 0 ? graph.shortestPathsFrom(0) : new int[0][];
+        int[] chain = new int[numVertices];
 
-            // End of output line contains node ID (i + 1 according to spec) followed by hop count
-            StringBuilder outputLine = new StringBuilder((i + 1) + " " + shortestPaths[0][i][UnweightedGraph.DISTANCE]);
-            int predecessor = shortestPaths[0][i][UnweightedGraph.PREDECESSOR];
+        for (int i = 1; i < numVertices; i++) {
 
-            // Now, we step backwards along the predecessor chain, adding to the input line until reaching node ID 1
-            while (predecessor != -1) {
-                outputLine.insert(0, (predecessor + 1) + " ");
-                predecessor = shortestPaths[0][predecessor][UnweightedGraph.PREDECESSOR];
+            // Step backwards along the predecessor chain until reaching node ID 1...
+            int length = 0;
+            for (int predecessor = shortestPaths[i][UnweightedGraph.PREDECESSOR]; predecessor != -1;
+                 predecessor = shortestPaths[predecessor][UnweightedGraph.PREDECESSOR]) {
+                chain[length++] = predecessor;
             }
 
-            // Prepend node ID 1 before printing
-            System.out.println("1 " + outputLine);
+            // ...then write the line forwards: node ID 1, the chain, node ID i + 1 (according to spec), hop count
+            StringBuilder outputLine = new StringBuilder("1");
+            while (length > 0) {
+                outputLine.append(' ').append(chain[--length] + 1);
+            }
+            outputLine.append(' ').append(i + 1).append(' ').append(shortestPaths[i][UnweightedGraph.DISTANCE]);
+            System.out.println(outputLine);
 
         }
 
-        // The diameter is simply the greatest value of shortestPaths[i][j][UnweightedGraph.DISTANCE]
-        int diameter = 0;
-        for (int i = 0; i < graph.getNumVertices(); i++) {
-            // Undirected means we can skip 1/2 of vertex pairs
-            for (int j = i + 1; j < graph.getNumVertices(); j++) {
-                if (shortestPaths[i][j][UnweightedGraph.DISTANCE] > diameter) {
-                    diameter = shortestPaths[i][j][UnweightedGraph.DISTANCE];
-                }
+        // The diameter is the greatest distance between any two vertices, but the graph is undirected, so it can be
+        // found with a few Breadth-First Searches instead of scanning every pair; a disconnected graph has no
+        // finite diameter, so that of each of its components is printed instead
+        int diameter = graph.getDiameter();
+        if (diameter != Integer.MAX_VALUE) {
+            System.out.println(diameter);
+        } else {
+            StringBuilder outputLine = new StringBuilder("Component diameters:");
+            for (int componentDiameter : graph.getComponentDiameters()) {
+                outputLine.append(' ').append(componentDiameter);
             }
+            System.out.println(outputLine);
         }
 
-        System.out.println(diameter);
-
     }
 
 }
\ No newline at end of file
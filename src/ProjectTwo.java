@@ -1,5 +1,7 @@
 import java.util.*;
 import java.io.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * CS 3345 HON
@@ -19,6 +21,7 @@ class Entry {
     private String key;
     private String value;
     private int avail;
+    private int generation;
 
     /**
      * Creates and returns a new, empty Entry.
@@ -27,6 +30,18 @@ class Entry {
         this.key = null;
         this.value = null;
         this.avail = UNUSED;
+        this.generation = 0;
+    }
+
+    /**
+     * Creates and returns a new Entry with the same contents as the specified one.
+     * @param other the Entry to be copied
+     */
+    public Entry(Entry other) {
+        this.key = other.key;
+        this.value = other.value;
+        this.avail = other.avail;
+        this.generation = other.generation;
     }
 
     /**
@@ -55,17 +70,28 @@ class Entry {
     }
 
     /**
-     * Assigns the specified key/value pair to this Entry.
+     * Gives the generation of the MyHashTable in which this Entry was last filled; a MyHashTable treats Entries
+     * of earlier generations (i.e., filled before it was last cleared) as Entry.UNUSED.
+     * @return this Entry's generation
+     */
+    public int getGeneration() {
+        return this.generation;
+    }
+
+    /**
+     * Assigns the specified key/value pair to this Entry and stamps it with the specified generation.
      * @param key a String containing at least 1 and no more than 20 upper-case alphabetic
      *            characters that will serve as a unique identifier for the key/value
      *            pair to which it belongs in the MyHashTable that contains it
      * @param value a String containing at least 1 and no more than 20
      *              characters; the data to be stored in this Entry
+     * @param generation the current generation of the MyHashTable that contains this Entry
      */
-    protected void fill(String key, String value) {
+    protected void fill(String key, String value, int generation) {
         this.key = key;
         this.value = value;
         this.avail = OCCUPIED;
+        this.generation = generation;
     }
 
     /**
@@ -79,20 +105,79 @@ class Entry {
         }
     }
 
+}
+
+interface StringHashTable {
+
     /**
-     * Empties this Entry and changes its status to Entry.UNUSED.
+     * Produces and returns the hash code of the key specified in this table, as printed by the H command.
+     * @param key the String to be hashed
+     * @return an integer hash code in the range [0, size - 1]
      */
-    protected void reset() {
-        this.empty();
-        this.avail = UNUSED;
-    }
+    int hash(String key);
+
+    /**
+     * Inserts the specified key/value pair into this table, if possible. Throws an
+     * UnsupportedOperationException on table overflow.
+     * @param key the key of the key/value pair to be inserted
+     * @param value the value of the key/value pair to be inserted
+     * @return false if a key/value pair with the specified key is already present
+     *         (and DOES NOT replace the old key/value pair), true otherwise
+     */
+    boolean insert(String key, String value);
+
+    /**
+     * Searches for a key/value pair in this table with the specified key and returns its value if it is found.
+     * @param key the key to search for
+     * @return the value of the key/value pair with the specified key if it is found; "" otherwise
+     */
+    String find(String key);
+
+    /**
+     * Removes the key/value pair with the specified key from this table, if possible.
+     * @param key the key of the key/value pair to be removed
+     * @return false if no key/value pair with the specified key is present, true otherwise
+     */
+    boolean delete(String key);
+
+    /**
+     * Gives the number of key/value pairs in this table.
+     * @return the number of records (i.e., key/value pairs) in this table
+     */
+    int membership();
+
+    /**
+     * Prints all key/value pairs in this table (each on its own line and preceded with an integer giving its
+     * index in the table) to the specified PrintStream in the order that they are stored.
+     * @param out the PrintStream to print to
+     */
+    void listAll(PrintStream out);
+
+    /**
+     * Prints the insert and search statistics of this table (see MyHashTable.printStatistics()) to the
+     * specified PrintStream.
+     * @param out the PrintStream to print to
+     */
+    void printStatistics(PrintStream out);
+
+    /**
+     * Empties this table and resets its statistics.
+     */
+    void clear();
 
 }
 
-class MyHashTable {
+class MyHashTable implements StringHashTable {
+
+    // Symbolic Constants
+    public static final int PAGE_BITS = 6;
+    public static final int PAGE_SIZE = 1 << PAGE_BITS; // Entries per page shared by snapshots
 
     private final int r;
-    private final Entry[] table;
+    private final int size;
+    private final Entry[][] pages; // the table, in pages that copy-on-write snapshots share until modified
+    private final boolean[] ownsPage; // whether each page is private to this MyHashTable (i.e., writable)
+    private int generation; // Entries stamped with an earlier generation read as Entry.UNUSED
 
     private int currentMembership;
     private int numInsertSuccesses;
@@ -110,14 +195,68 @@ class MyHashTable {
      */
     public MyHashTable(int sz, int R) {
         this.r = R;
-        this.table = new Entry[sz];
-        for (int i = 0; i < table.length; i++) {
-            this.table[i] = new Entry();
-        }
+        this.size = sz;
+        this.pages = new Entry[(sz + PAGE_SIZE - 1) >>> PAGE_BITS][];
+        this.ownsPage = new boolean[this.pages.length];
+        this.allocatePages();
+        this.generation = 0;
         this.currentMembership = 0;
         this.resetStatistics();
     }
 
+    // Creates and returns a copy-on-write snapshot of the specified MyHashTable (see snapshot() below)
+    private MyHashTable(MyHashTable source) {
+        this.r = source.r;
+        this.size = source.size;
+        this.pages = source.pages.clone();
+        this.ownsPage = new boolean[this.pages.length];
+        Arrays.fill(source.ownsPage, false); // the source must now copy shared pages before writing, too
+        this.generation = source.generation;
+        this.currentMembership = source.currentMembership;
+        this.numInsertSuccesses = source.numInsertSuccesses;
+        this.totalProbesFromSuccessfulInserts = source.totalProbesFromSuccessfulInserts;
+        this.numSearchSuccesses = source.numSearchSuccesses;
+        this.totalProbesFromSuccessfulSearches = source.totalProbesFromSuccessfulSearches;
+        this.numSearchFailures = source.numSearchFailures;
+        this.totalProbesFromUnsuccessfulSearches = source.totalProbesFromUnsuccessfulSearches;
+    }
+
+    // Fills this.pages with new, UNUSED Entries owned by this MyHashTable
+    private void allocatePages() {
+        for (int p = 0; p < this.pages.length; p++) {
+            Entry[] page = new Entry[Math.min(PAGE_SIZE, this.size - (p << PAGE_BITS))];
+            for (int i = 0; i < page.length; i++) {
+                page[i] = new Entry();
+            }
+            this.pages[p] = page;
+            this.ownsPage[p] = true;
+        }
+    }
+
+    // Gives the Entry at the specified index for reading
+    private Entry slot(int index) {
+        return this.pages[index >>> PAGE_BITS][index & (PAGE_SIZE - 1)];
+    }
+
+    // Gives the Entry at the specified index for writing, first copying its page if it is shared
+    private Entry writableSlot(int index) {
+        int p = index >>> PAGE_BITS;
+        if (!this.ownsPage[p]) {
+            Entry[] page = new Entry[this.pages[p].length];
+            for (int i = 0; i < page.length; i++) {
+                page[i] = new Entry(this.pages[p][i]);
+            }
+            this.pages[p] = page;
+            this.ownsPage[p] = true;
+        }
+        return this.pages[p][index & (PAGE_SIZE - 1)];
+    }
+
+    // Gives the status of the specified Entry in this MyHashTable's current generation
+    private int availability(Entry entry) {
+        return entry.getGeneration() == this.generation ? entry.getAvailability() : Entry.UNUSED;
+    }
+
     /**
      * Produces and returns a hash code in the range [0, tableSize - 1] for the key specified.
      * @param key the String to be hashed
@@ -140,7 +279,7 @@ class MyHashTable {
      * @return an integer hash code in the range [0, tableSize - 1]
      */
     public int hash(String key) {
-        return hash(key, this.table.length);
+        return hash(key, this.size);
     }
 
     // Produces and returns a secondary hash code for use in probing.
@@ -181,15 +320,15 @@ class MyHashTable {
         int numProbes = 0;
         int hash1 = this.hash(key);
         int hash2 = this.secondHash(hash1);
-        Entry target;
+        int index;
 
-        for (int i = 0; i < this.table.length; i++) {
+        for (int i = 0; i < this.size; i++) {
 
             numProbes++;
-            target = this.table[Integer.remainderUnsigned(hash1 + i * hash2, this.table.length)];
+            index = Integer.remainderUnsigned(hash1 + i * hash2, this.size);
 
-            if (target.getAvailability() != Entry.OCCUPIED) {
-                target.fill(key, value);
+            if (this.availability(this.slot(index)) != Entry.OCCUPIED) {
+                this.writableSlot(index).fill(key, value, this.generation);
                 this.currentMembership++;
                 this.numInsertSuccesses++;
                 this.totalProbesFromSuccessfulInserts += numProbes;
@@ -198,7 +337,7 @@ class MyHashTable {
 
         }
 
-        // At this point, every Entry in this.table has been checked, so insertion would cause overflow
+        // At this point, every Entry in this MyHashTable has been checked, so insertion would cause overflow
         throw new UnsupportedOperationException("Overflow: cannot insert unknown key into full MyHashTable.");
 
     }
@@ -212,12 +351,12 @@ class MyHashTable {
         int hash2 = this.secondHash(hash1);
         Entry target;
 
-        for (int i = 0; i < this.table.length; i++) {
+        for (int i = 0; i < this.size; i++) {
 
             numProbes++;
-            target = this.table[Integer.remainderUnsigned(hash1 + i * hash2, this.table.length)];
+            target = this.slot(Integer.remainderUnsigned(hash1 + i * hash2, this.size));
 
-            if (target.getAvailability() == Entry.OCCUPIED) {
+            if (this.availability(target) == Entry.OCCUPIED) {
                 if (target.getKey().equals(key)) {
                     if (doStatistics) {
                         this.numSearchSuccesses++;
@@ -225,7 +364,7 @@ class MyHashTable {
                     }
                     return target.getValue();
                 }
-            } else if (target.getAvailability() == Entry.UNUSED) {
+            } else if (this.availability(target) == Entry.UNUSED) {
                 // This Entry has never been subject to insertion, so no need to probe further
                 if (doStatistics) {
                     this.numSearchFailures++;
@@ -236,7 +375,7 @@ class MyHashTable {
 
         }
 
-        // At this point, every Entry in this.table has been checked, so search has failed
+        // At this point, every Entry in this MyHashTable has been checked, so search has failed
         if (doStatistics) {
             this.numSearchFailures++;
             this.totalProbesFromUnsuccessfulSearches += numProbes;
@@ -265,26 +404,28 @@ class MyHashTable {
 
         int hash1 = this.hash(key);
         int hash2 = this.secondHash(hash1);
+        int index;
         Entry target;
 
-        for (int i = 0; i < this.table.length; i++) {
+        for (int i = 0; i < this.size; i++) {
 
-            target = this.table[Integer.remainderUnsigned(hash1 + i * hash2, this.table.length)];
+            index = Integer.remainderUnsigned(hash1 + i * hash2, this.size);
+            target = this.slot(index);
 
-            if (target.getAvailability() == Entry.OCCUPIED) {
+            if (this.availability(target) == Entry.OCCUPIED) {
                 if (target.getKey().equals(key)) {
-                    target.empty();
+                    this.writableSlot(index).empty();
                     this.currentMembership--;
                     return true;
                 }
-            } else if (target.getAvailability() == Entry.UNUSED) {
+            } else if (this.availability(target) == Entry.UNUSED) {
                 // This Entry has never been subject to insertion, so no need to probe further
                 return false;
             }
 
         }
 
-        // At this point, every Entry in this.table has been
+        // At this point, every Entry in this MyHashTable has been
         // checked, so no Entry contains the specified key
         return false;
 
@@ -303,10 +444,20 @@ class MyHashTable {
      * an integer giving its index in the table) to System.out in the order that they are stored.
      */
     public void listAll() {
-        for (int i = 0; i < this.table.length; i++) {
-            Entry target = this.table[i];
-            if (target.getAvailability() == Entry.OCCUPIED) {
-                System.out.println(i + " " + target.getKey() + ":" + target.getValue());
+        this.listAll(System.out);
+    }
+
+    /**
+     * Prints all key/value pairs in this MyHashTable (each on its own line and preceded with
+     * an integer giving its index in the table) to the specified PrintStream in the order that they are
+     * stored.
+     * @param out the PrintStream to print to
+     */
+    public void listAll(PrintStream out) {
+        for (int i = 0; i < this.size; i++) {
+            Entry target = this.slot(i);
+            if (this.availability(target) == Entry.OCCUPIED) {
+                out.println(i + " " + target.getKey() + ":" + target.getValue());
             }
         }
     }
@@ -318,15 +469,44 @@ class MyHashTable {
      * and the total number of probes used on unsuccessful searches.
      */
     public void printStatistics() {
-        System.out.println("Total Number of Successful Inserts = " + this.numInsertSuccesses);
-        System.out.println("Total Number of Probes on Successful Inserts = "
-                            + this.totalProbesFromSuccessfulInserts);
-        System.out.println("Total Number of Successful Searches = " + this.numSearchSuccesses);
-        System.out.println("Total Number of Probes on Successful Searches = "
-                            + this.totalProbesFromSuccessfulSearches);
-        System.out.println("Total Number of Unsuccessful Searches = " + this.numSearchFailures);
-        System.out.println("Total Number of Probes on Unsuccessful Searches = "
-                            + this.totalProbesFromUnsuccessfulSearches);
+        this.printStatistics(System.out);
+    }
+
+    /**
+     * Prints the following statistics for this MyHashTable: the total number of successful inserts,
+     * the total number of probes used on successful inserts, the total number of successful searches,
+     * the total number of probes used on successful searches, the total number of unsuccessful searches,
+     * and the total number of probes used on unsuccessful searches, to the specified PrintStream.
+     * @param out the PrintStream to print to
+     */
+    public void printStatistics(PrintStream out) {
+        printStatistics(out, this.getStatistics());
+    }
+
+    /**
+     * Prints statistics in the format of printStatistics() above.
+     * @param out the PrintStream to print to
+     * @param statistics the six statistics in the order given by getStatistics()
+     */
+    protected static void printStatistics(PrintStream out, int[] statistics) {
+        out.println("Total Number of Successful Inserts = " + statistics[0]);
+        out.println("Total Number of Probes on Successful Inserts = " + statistics[1]);
+        out.println("Total Number of Successful Searches = " + statistics[2]);
+        out.println("Total Number of Probes on Successful Searches = " + statistics[3]);
+        out.println("Total Number of Unsuccessful Searches = " + statistics[4]);
+        out.println("Total Number of Probes on Unsuccessful Searches = " + statistics[5]);
+    }
+
+    /**
+     * Gives the statistics printed by printStatistics(), in the same order.
+     * @return an array of the six statistics
+     */
+    public int[] getStatistics() {
+        return new int[] {
+            this.numInsertSuccesses, this.totalProbesFromSuccessfulInserts,
+            this.numSearchSuccesses, this.totalProbesFromSuccessfulSearches,
+            this.numSearchFailures, this.totalProbesFromUnsuccessfulSearches
+        };
     }
 
     // Resets the statistics for this MyHashTable.
@@ -340,87 +520,771 @@ class MyHashTable {
     }
 
     /**
-     * Empties this MyHashTable and resets its statistics.
+     * Empties this MyHashTable and resets its statistics. This takes constant time: the generation of this
+     * MyHashTable is advanced, so every Entry filled before now reads as Entry.UNUSED. (Only once every 2^31
+     * calls, when the generation would overflow, are the Entries actually replaced.)
      */
     public void clear() {
-        for (Entry entry : this.table) {
-            entry.reset();
+        if (this.generation == Integer.MAX_VALUE) {
+            this.allocatePages(); // pages shared with snapshots are left to them
+            this.generation = 0;
+        } else {
+            this.generation++;
         }
         this.currentMembership = 0;
         this.resetStatistics();
     }
 
+    /**
+     * Creates and returns a snapshot of this MyHashTable: an independent MyHashTable with the same contents
+     * and statistics, which either table may then modify without affecting the other. The two share their
+     * pages of PAGE_SIZE Entries, and whichever table first writes to a shared page copies it, so taking a
+     * snapshot costs O(sz / PAGE_SIZE) and each later write copies at most one page.
+     * @return the snapshot
+     */
+    public MyHashTable snapshot() {
+        return new MyHashTable(this);
+    }
+
+}
+
+class GroupedHashTable implements StringHashTable {
+
+    // Symbolic Constants
+    public static final int GROUP_SIZE = 16; // slots whose control bytes are matched together (two words)
+    private static final int EMPTY = 0x80; // control byte of an UNUSED slot
+    private static final int DELETED = 0xFE; // control byte of a FREE slot; OCCUPIED slots hold 7 hash bits
+    private static final long LOW_BITS = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    private final long[] control; // one control byte per slot, eight slots per word
+    private final String[] keys;
+    private final String[] values;
+    private final int groupMask;
+    private int numProbes; // the number of groups examined by the most recent call to indexOf()
+
+    private int currentMembership;
+    private int numInsertSuccesses;
+    private int totalProbesFromSuccessfulInserts;
+    private int numSearchSuccesses;
+    private int totalProbesFromSuccessfulSearches;
+    private int numSearchFailures;
+    private int totalProbesFromUnsuccessfulSearches;
+
+    /**
+     * Creates and returns a new GroupedHashTable of a fixed size. Unlike MyHashTable, whose every probe reads
+     * an Entry and compares a whole key, this table keeps one control byte per slot: UNUSED, FREE, or, for an
+     * OCCUPIED slot, 7 bits of its key's hash. A probe examines a group of GROUP_SIZE slots at once by matching
+     * all of their control bytes against the key's 7 bits with word-wide (SWAR) arithmetic, and only compares
+     * the full key in the slots that match, so lookups stay short even when the table is 90% or more full.
+     * Groups are probed in triangular order, which visits every group once; each group examined counts as one
+     * probe in the statistics, which are otherwise those of MyHashTable.
+     * @param sz the minimum number of slots; rounded up to a power-of-2 multiple of GROUP_SIZE
+     */
+    public GroupedHashTable(int sz) {
+        int neededGroups = Math.max(1, (sz + GROUP_SIZE - 1) / GROUP_SIZE);
+        int numGroups = neededGroups == 1 ? 1 : Integer.highestOneBit(neededGroups - 1) << 1; // a power of 2
+        this.control = new long[numGroups * GROUP_SIZE / 8];
+        this.keys = new String[numGroups * GROUP_SIZE];
+        this.values = new String[numGroups * GROUP_SIZE];
+        this.groupMask = numGroups - 1;
+        this.clear();
+    }
+
+    // Produces a well-mixed 32-bit hash code for the key specified (the hash of MyHashTable before reduction,
+    // multiplied so that both the group index and the 7 control bits depend on every character)
+    private static int mixedHash(String key) {
+        int result = 0;
+        for (int i = 0; i < key.length() - 1; i++) {
+            result += key.charAt(i);
+            result *= 31;
+        }
+        result += key.charAt(key.length() - 1);
+        result *= 0x9E3779B9;
+        return result ^ (result >>> 15);
+    }
+
+    // Gives a word whose bytes have their high bits set exactly where the bytes of word equal b
+    private static long matchByte(long word, int b) {
+        long x = word ^ (LOW_BITS * b);
+        return ~(((x & SEVEN_BITS) + SEVEN_BITS) | x | SEVEN_BITS);
+    }
+
+    // Gives the control byte of the specified slot
+    private int controlOf(int slot) {
+        return (int) (this.control[slot >>> 3] >>> ((slot & 7) << 3)) & 0xFF;
+    }
+
+    // Changes the control byte of the specified slot
+    private void setControl(int slot, int b) {
+        int shift = (slot & 7) << 3;
+        this.control[slot >>> 3] = (this.control[slot >>> 3] & ~(0xFFL << shift)) | ((long) b << shift);
+    }
+
+    /**
+     * Produces and returns the hash code of the key specified: the first slot of the group where its probe
+     * sequence begins.
+     * @param key the String to be hashed
+     * @return an integer hash code in the range [0, getSize() - 1]
+     */
+    public int hash(String key) {
+        return ((mixedHash(key) >>> 7) & this.groupMask) * GROUP_SIZE;
+    }
+
+    // Gives the slot holding the specified key, or -1 if it is not present, counting the groups examined
+    private int indexOf(String key, int hash) {
+        int tag = hash & 0x7F;
+        int group = (hash >>> 7) & this.groupMask;
+        for (int step = 1; step <= this.groupMask + 1; step++) {
+            this.numProbes = step;
+            int firstWord = group * (GROUP_SIZE / 8);
+            boolean sawEmpty = false;
+            for (int w = firstWord; w < firstWord + GROUP_SIZE / 8; w++) {
+                long word = this.control[w];
+                for (long matches = matchByte(word, tag); matches != 0; matches &= matches - 1) {
+                    int slot = (w << 3) + (Long.numberOfTrailingZeros(matches) >>> 3);
+                    if (this.keys[slot].equals(key)) {
+                        return slot;
+                    }
+                }
+                sawEmpty |= matchByte(word, EMPTY) != 0;
+            }
+            if (sawEmpty) {
+                return -1; // an insertion never passes a group with an UNUSED slot, so no need to probe further
+            }
+            group = (group + step) & this.groupMask;
+        }
+        return -1;
+    }
+
+    /**
+     * Inserts the specified key/value pair into the first UNUSED or FREE slot along its probe sequence, if
+     * possible. Throws an UnsupportedOperationException on table overflow.
+     * @param key the key of the key/value pair to be inserted
+     * @param value the value of the key/value pair to be inserted
+     * @return false if a key/value pair with the specified key is already present
+     *         (and DOES NOT replace the old key/value pair), true otherwise
+     */
+    public boolean insert(String key, String value) {
+        int hash = mixedHash(key);
+        if (this.indexOf(key, hash) >= 0) {
+            return false;
+        }
+
+        int group = (hash >>> 7) & this.groupMask;
+        for (int step = 1; step <= this.groupMask + 1; step++) {
+            int firstWord = group * (GROUP_SIZE / 8);
+            for (int w = firstWord; w < firstWord + GROUP_SIZE / 8; w++) {
+                long available = this.control[w] & HIGH_BITS; // UNUSED and FREE are the bytes with the high bit set
+                if (available != 0) {
+                    int slot = (w << 3) + (Long.numberOfTrailingZeros(available) >>> 3);
+                    this.setControl(slot, hash & 0x7F);
+                    this.keys[slot] = key;
+                    this.values[slot] = value;
+                    this.currentMembership++;
+                    this.numInsertSuccesses++;
+                    this.totalProbesFromSuccessfulInserts += step;
+                    return true;
+                }
+            }
+            group = (group + step) & this.groupMask;
+        }
+
+        // At this point, every slot in this table has been checked, so insertion would cause overflow
+        throw new UnsupportedOperationException("Overflow: cannot insert unknown key into full GroupedHashTable.");
+    }
+
+    /**
+     * Searches for a key/value pair in this GroupedHashTable with the specified key
+     * and returns its contents (i.e., its value) if it is found.
+     * @param key the key to search for (in this GroupedHashTable)
+     * @return the value of the key/value pair in this GroupedHashTable with the specified
+     *         key if that key/value pair is found; an empty String (i.e., "") otherwise
+     */
+    public String find(String key) {
+        int slot = this.indexOf(key, mixedHash(key));
+        if (slot < 0) {
+            this.numSearchFailures++;
+            this.totalProbesFromUnsuccessfulSearches += this.numProbes;
+            return "";
+        }
+        this.numSearchSuccesses++;
+        this.totalProbesFromSuccessfulSearches += this.numProbes;
+        return this.values[slot];
+    }
+
+    /**
+     * Removes the key/value pair with the specified key from this GroupedHashTable, if possible.
+     * @param key the key of the key/value pair to be removed
+     * @return false if no key/value pair with the specified key is present, true otherwise
+     */
+    public boolean delete(String key) {
+        int slot = this.indexOf(key, mixedHash(key));
+        if (slot < 0) {
+            return false;
+        }
+
+        // A group with an UNUSED slot has never been full, so no probe sequence has ever continued past it,
+        // and the slot can become UNUSED again rather than FREE
+        int firstWord = slot / GROUP_SIZE * (GROUP_SIZE / 8);
+        boolean groupHasEmpty = false;
+        for (int w = firstWord; w < firstWord + GROUP_SIZE / 8; w++) {
+            groupHasEmpty |= matchByte(this.control[w], EMPTY) != 0;
+        }
+        this.setControl(slot, groupHasEmpty ? EMPTY : DELETED);
+        this.keys[slot] = null;
+        this.values[slot] = null;
+        this.currentMembership--;
+        return true;
+    }
+
+    /**
+     * Gives the number of key/value pairs in this GroupedHashTable.
+     * @return the number of records (i.e., key/value pairs) in this GroupedHashTable
+     */
+    public int membership() {
+        return this.currentMembership;
+    }
+
+    /**
+     * Gives the number of slots in this GroupedHashTable.
+     * @return the fixed size of this GroupedHashTable
+     */
+    public int getSize() {
+        return this.keys.length;
+    }
+
+    /**
+     * Prints all key/value pairs in this GroupedHashTable (each on its own line and preceded with
+     * an integer giving its slot in the table) to the specified PrintStream in the order that they are
+     * stored.
+     * @param out the PrintStream to print to
+     */
+    public void listAll(PrintStream out) {
+        for (int i = 0; i < this.keys.length; i++) {
+            if (this.controlOf(i) < EMPTY) {
+                out.println(i + " " + this.keys[i] + ":" + this.values[i]);
+            }
+        }
+    }
+
+    /**
+     * Prints the statistics of this GroupedHashTable in the format of MyHashTable.printStatistics(), counting
+     * each group examined as one probe.
+     * @param out the PrintStream to print to
+     */
+    public void printStatistics(PrintStream out) {
+        MyHashTable.printStatistics(out, this.getStatistics());
+    }
+
+    /**
+     * Gives the statistics printed by printStatistics(), in the same order.
+     * @return an array of the six statistics
+     */
+    public int[] getStatistics() {
+        return new int[] {
+            this.numInsertSuccesses, this.totalProbesFromSuccessfulInserts,
+            this.numSearchSuccesses, this.totalProbesFromSuccessfulSearches,
+            this.numSearchFailures, this.totalProbesFromUnsuccessfulSearches
+        };
+    }
+
+    /**
+     * Empties this GroupedHashTable and resets its statistics.
+     */
+    public void clear() {
+        Arrays.fill(this.control, LOW_BITS * EMPTY);
+        Arrays.fill(this.keys, null);
+        Arrays.fill(this.values, null);
+        this.currentMembership = 0;
+        this.numInsertSuccesses = 0;
+        this.totalProbesFromSuccessfulInserts = 0;
+        this.numSearchSuccesses = 0;
+        this.totalProbesFromSuccessfulSearches = 0;
+        this.numSearchFailures = 0;
+        this.totalProbesFromUnsuccessfulSearches = 0;
+    }
+
+}
+
+class SpscQueue<T> {
+
+    private final Object[] buffer;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong(); // index of the next element to be removed
+    private final AtomicLong tail = new AtomicLong(); // index of the next element to be added
+    private long cachedHead; // the producer's most recent reading of head
+    private long cachedTail; // the consumer's most recent reading of tail
+
+    /**
+     * Creates and returns a new, empty bounded queue for exactly one producing thread and one consuming thread,
+     * which therefore needs no locks: each index is written by only one of the threads.
+     * @param capacity the minimum number of elements the queue can hold; rounded up to a power of 2
+     */
+    public SpscQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.buffer = new Object[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Adds an element to the end of this queue, if there is room. Must only be called by the producing thread.
+     * @param element the element to be added; must not be null
+     * @return false if the queue is full, true otherwise
+     */
+    public boolean offer(T element) {
+        long t = this.tail.get();
+        if (t - this.cachedHead == this.buffer.length) {
+            this.cachedHead = this.head.get();
+            if (t - this.cachedHead == this.buffer.length) {
+                return false;
+            }
+        }
+        this.buffer[(int) t & this.mask] = element;
+        this.tail.set(t + 1); // a full (volatile) store, so that a consumer about to park cannot miss it
+        return true;
+    }
+
+    /**
+     * Removes and returns the element at the front of this queue. Must only be called by the consuming thread.
+     * @return the element removed, or null if the queue is empty
+     */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long h = this.head.get();
+        if (h == this.cachedTail) {
+            this.cachedTail = this.tail.get();
+            if (h == this.cachedTail) {
+                return null;
+            }
+        }
+        int index = (int) h & this.mask;
+        T element = (T) this.buffer[index];
+        this.buffer[index] = null;
+        this.head.lazySet(h + 1);
+        return element;
+    }
+
+    /**
+     * Determines whether or not this queue is empty. Must only be called by the consuming thread.
+     * @return true if there is no element to poll(), false otherwise
+     */
+    public boolean isEmpty() {
+        return this.head.get() == this.tail.get();
+    }
+
+}
+
+class ShardedHashTable implements AutoCloseable {
+
+    // Symbolic Constants
+    public static final int QUEUE_CAPACITY = 1024;
+    public static final int BATCH_SIZE = 4096; // commands whose responses are held before being printed in order
+    private static final int SPINS = 64; // busy-wait iterations before a waiting thread parks
+
+    // A per-key command: the line to be executed and the slot that its response goes in
+    private static final class Command {
+        private final int slot;
+        private final String line;
+
+        private Command(int slot, String line) {
+            this.slot = slot;
+            this.line = line;
+        }
+    }
+
+    // The thread owning one shard, with the queue that feeds it and a count of the commands it has finished
+    private final class Worker extends Thread {
+        private final MyHashTable shard;
+        private final SpscQueue<Command> queue = new SpscQueue<>(QUEUE_CAPACITY);
+        private final AtomicLong completed = new AtomicLong();
+        private long submitted; // written only by the producer
+        private volatile boolean sleeping;
+        private volatile RuntimeException failure; // the first command to fail, if any, and its slot
+        private int failedSlot;
+
+        private Worker(MyHashTable shard, int index) {
+            super("ShardedHashTable shard " + index);
+            this.shard = shard;
+            this.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            PrintStream response = new PrintStream(bytes);
+            int idle = 0;
+            while (running) {
+                Command command = this.queue.poll();
+                if (command == null) {
+                    if (++idle >= SPINS) {
+                        // announce the park before checking the queue again, so that an offer cannot slip between
+                        this.sleeping = true;
+                        if (this.queue.isEmpty() && running) {
+                            LockSupport.parkNanos(1_000_000);
+                        }
+                        this.sleeping = false;
+                    } else {
+                        Thread.onSpinWait();
+                    }
+                    continue;
+                }
+                idle = 0;
+                try {
+                    ProjectTwo.execute(this.shard, command.line, response);
+                    response.flush();
+                    responses[command.slot] = bytes.toString();
+                } catch (RuntimeException e) {
+                    if (this.failure == null) {
+                        this.failedSlot = command.slot; // written before failure, which publishes it
+                        this.failure = e;
+                    }
+                }
+                bytes.reset();
+                this.completed.set(this.completed.get() + 1);
+                Thread waiter = barrierWaiter;
+                if (waiter != null) {
+                    LockSupport.unpark(waiter);
+                }
+            }
+        }
+    }
+
+    private final int size;
+    private final Worker[] workers;
+    private final String[] responses = new String[BATCH_SIZE]; // indexed by slot
+    private int numPending; // number of slots in use
+    private int flushedMembership; // the membership of all shards together when flush() last returned
+    private int insertsSinceFlush; // A commands queued since then, so an upper bound on the membership is their sum
+    private volatile boolean running = true;
+    private volatile Thread barrierWaiter;
+
+    /**
+     * Creates and returns a new ShardedHashTable standing in for one MyHashTable of size sz, made of numShards
+     * independent MyHashTables, each owned by its own worker thread. Commands on a key go to the shard chosen by
+     * MyHashTable.hash(key, numShards) through a bounded single-producer/single-consumer queue, so the commands
+     * on each key run in their original order while different shards run in parallel. Every shard has the full
+     * size sz (so the shards take numShards times the memory of one MyHashTable), which means that no shard can
+     * fill up before the table as a whole does; an insert overflows exactly when it would in one MyHashTable
+     * (see execute()). That needs every probe sequence of one MyHashTable to visit every slot, so with more than
+     * one shard, sz must have no prime factor less than or equal to R (e.g., sz is prime and R is less than sz).
+     * @param numShards the number of shards (and worker threads); must be at least 1
+     * @param sz the size of the MyHashTable being stood in for
+     * @param R the value used in the secondary hash function (see MyHashTable)
+     */
+    public ShardedHashTable(int numShards, int sz, int R) {
+        if (numShards < 1) {
+            throw new IllegalArgumentException("A ShardedHashTable must have at least 1 shard!");
+        }
+        if (numShards > 1 && !probesEverySlot(sz, R)) {
+            throw new IllegalArgumentException("Cannot shard a table of size " + sz + " with R " + R + ": some "
+                                               + "probe sequences would not visit every slot.");
+        }
+        this.size = sz;
+        this.workers = new Worker[numShards];
+        for (int i = 0; i < numShards; i++) {
+            this.workers[i] = new Worker(new MyHashTable(sz, R), i);
+            this.workers[i].start();
+        }
+    }
+
+    // Determines whether every probe sequence of a MyHashTable of size sz visits every slot, i.e., whether every
+    // step R - (h mod R), which is in [1, R], is coprime to sz and no index (at most (sz - 1) * (R + 1)) wraps
+    private static boolean probesEverySlot(int sz, int R) {
+        if ((long) (sz - 1) * (R + 1) > Integer.MAX_VALUE) {
+            return false;
+        }
+        for (int d = 2; d <= R && d <= sz; d++) {
+            if (sz % d == 0) {
+                return false;
+            }
+            if ((long) d * d > sz) {
+                return sz > R; // sz is prime, so its only prime factor is itself
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Executes one line of the command protocol of ProjectTwo.execute(). A, R, and S commands are queued to
+     * their key's shard; their responses are printed in input order, but only when a later command needs them
+     * to be (see flush()). H is answered at once with the hash code for size sz, and its response is printed
+     * in order with the others. M, C, E, and invalid lines (including A, R, S, and H lines without a key) wait
+     * for every queued command to finish (a barrier) before running. Once the A commands queued since the last
+     * barrier could have filled the table, each A command waits for a barrier too, so that an insert of an
+     * unknown key into a full table fails just as in one MyHashTable. Every response is then the same as one
+     * MyHashTable of size sz would give. P and T are the exception: the slots and probe counts of the shards are
+     * not those of one MyHashTable, so with more than one shard they are refused with an
+     * UnsupportedOperationException (after the responses of the commands before them are printed).
+     * @param now the command line to be executed
+     * @param out the PrintStream that the responses are to be printed to
+     * @return false if the line is an E command, true otherwise
+     */
+    public boolean execute(String now, PrintStream out) {
+        char command = now.isEmpty() ? ' ' : now.charAt(0); // an empty line fails after the barrier, as it would
+        String[] parameters = now.split("[ :]");
+        if ((command == 'A' || command == 'R' || command == 'S' || command == 'H') && parameters.length > 1) {
+            String key = parameters[1];
+            if (this.numPending == BATCH_SIZE) {
+                this.flush(out);
+            }
+            if (command == 'H') {
+                // the hash code depends only on the key and sz, so no shard needs to see this command
+                this.responses[this.numPending++] = key + ' ' + MyHashTable.hash(key, this.size)
+                                                    + System.lineSeparator();
+                return true;
+            }
+            Worker worker = this.workers[MyHashTable.hash(key, this.workers.length)];
+            if (command == 'A' && this.workers.length > 1) {
+                if (this.flushedMembership + this.insertsSinceFlush >= this.size) {
+                    this.flush(out);
+                    if (this.flushedMembership == this.size && worker.shard.find(key).equals("")) {
+                        // the shard itself still has room, but one MyHashTable of size sz would not
+                        throw new UnsupportedOperationException("Overflow: cannot insert unknown key into full "
+                                                                + "MyHashTable.");
+                    }
+                }
+                this.insertsSinceFlush++;
+            }
+            Command queued = new Command(this.numPending++, now);
+            while (!worker.queue.offer(queued)) {
+                LockSupport.unpark(worker);
+                Thread.yield();
+            }
+            worker.submitted++;
+            if (worker.sleeping) {
+                LockSupport.unpark(worker);
+            }
+            return true;
+        }
+
+        this.flush(out);
+        switch (command) {
+            case 'M':
+                out.println("Membership is " + this.flushedMembership);
+                return true;
+            case 'C':
+                for (Worker worker : this.workers) {
+                    worker.shard.clear();
+                }
+                this.flushedMembership = 0;
+                return true;
+            case 'P':
+            case 'T':
+                if (this.workers.length > 1) {
+                    throw new UnsupportedOperationException("Unsupported input line in sharded mode: " + now);
+                }
+                return ProjectTwo.execute(this.workers[0].shard, now, out); // a lone shard is one MyHashTable
+            default: // E or an invalid line, which shard 0 answers (or fails on) as one MyHashTable would
+                return ProjectTwo.execute(this.workers[0].shard, now, out);
+        }
+    }
+
+    /**
+     * Waits for every queued command to finish and prints their responses in input order. Must be called after
+     * the last command (unless it was E) so that no responses are left unprinted. If a command failed (e.g., on
+     * overflow), the responses of the commands before it are printed and its exception is then rethrown, as one
+     * MyHashTable would have done; the responses of the commands after it are discarded.
+     * @param out the PrintStream that the responses are to be printed to
+     */
+    public void flush(PrintStream out) {
+        this.barrierWaiter = Thread.currentThread();
+        for (Worker worker : this.workers) {
+            int spins = 0;
+            while (worker.completed.get() != worker.submitted) {
+                if (++spins < SPINS) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.unpark(worker);
+                    LockSupport.parkNanos(1_000_000);
+                }
+            }
+        }
+        this.barrierWaiter = null;
+
+        this.flushedMembership = 0;
+        for (Worker worker : this.workers) {
+            this.flushedMembership += worker.shard.membership();
+        }
+        this.insertsSinceFlush = 0;
+
+        RuntimeException failure = null;
+        int end = this.numPending;
+        for (Worker worker : this.workers) {
+            if (worker.failure != null && worker.failedSlot < end) {
+                failure = worker.failure;
+                end = worker.failedSlot;
+            }
+            worker.failure = null;
+        }
+        for (int i = 0; i < end; i++) {
+            out.print(this.responses[i]);
+        }
+        Arrays.fill(this.responses, 0, this.numPending, null);
+        this.numPending = 0;
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Stops the worker threads. Any queued commands that have not been flushed are discarded.
+     */
+    @Override
+    public void close() {
+        this.running = false;
+        for (Worker worker : this.workers) {
+            LockSupport.unpark(worker);
+        }
+    }
+
 }
 
 public class ProjectTwo {
 
     public static void main(String[] args) throws IOException {
 
-        MyHashTable hashTable;
+        StringHashTable hashTable;
+
+        if (args.length == 4 && args[0].equals("serve")) {
+            // Keeps a resident table of size args[2] with R = args[3] and accepts the commands below over TCP
+            // (e.g. "java ProjectTwo serve 7002 8017 7")
+            MyHashTable resident = new MyHashTable(Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+            try (CommandServer server = new CommandServer(Integer.parseInt(args[1]),
+                                                          (line, out) -> execute(resident, line, out))) {
+                server.run();
+            }
+            return;
+        }
+
+        if (args.length == 2 && args[0].equals("shards")) {
+            // Runs HashTableData.txt on a ShardedHashTable with args[1] shards (e.g. "java ProjectTwo shards 4")
+            runSharded(Integer.parseInt(args[1]));
+            return;
+        }
+
+        // "java ProjectTwo grouped" runs HashTableData.txt on a GroupedHashTable of at least sz slots instead
+        boolean grouped = args.length == 1 && args[0].equals("grouped");
+
         Scanner input = new Scanner(new File("HashTableData.txt"));
 
         String now;
         now = input.nextLine();
         String[] parameters = now.split("[ :]");
 
-        if (now.charAt(0) == 'D') {
+        if (now.charAt(0) == 'D' && grouped) {
+            hashTable = new GroupedHashTable(Integer.parseInt(parameters[1])); // R is not used by group probing
+        } else if (now.charAt(0) == 'D') {
             hashTable = new MyHashTable(Integer.parseInt(parameters[1]), Integer.parseInt(parameters[2]));
         } else {
             throw new IllegalArgumentException("Invalid data file: first line must contain a D command.");
         }
 
         while (input.hasNextLine()) {
+            if (!execute(hashTable, input.nextLine(), System.out)) {
+                return;
+            }
+        }
 
-            now = input.nextLine();
-            parameters = now.split("[ :]");
+    }
 
-            switch (now.charAt(0)) {
-                case 'C':
-                    hashTable.clear();
-                    break;
-                case 'H':
-                    System.out.println(parameters[1] + ' ' + hashTable.hash(parameters[1]));
-                    break;
-                case 'A':
-                    if (hashTable.insert(parameters[1], parameters[2])) {
-                        System.out.println("Key " + parameters[1] + " inserted");
-                    } else {
-                        System.out.println("Key " + parameters[1] + " already exists");
-                    }
-                    break;
-                case 'R':
-                    if (hashTable.delete(parameters[1])) {
-                        System.out.println("Key " + parameters[1] + " deleted");
-                    } else {
-                        System.out.println("Key " + parameters[1] + " not found");
-                    }
-                    break;
-                case 'S':
-                    String value = hashTable.find(parameters[1]);
-                    if (!value.equals("")) {
-                        System.out.println("Key " + parameters[1] + ":" + value);
-                    } else {
-                        System.out.println("Key " + parameters[1] + " not found");
-                    }
-                    break;
-                case 'M':
-                    System.out.println("Membership is " + hashTable.membership());
-                    break;
-                case 'P':
-                    hashTable.listAll();
-                    break;
-                case 'T':
-                    hashTable.printStatistics();
-                    break;
-                case 'E':
-                    return;
-                default:
-                    System.out.println("Invalid input line: " + now);
+    // Runs the commands of HashTableData.txt on a ShardedHashTable, which prints the same output as one MyHashTable
+    // would; a data file with P or T commands is refused before any command runs if there are several shards
+    // (see ShardedHashTable.execute() for why)
+    private static void runSharded(int numShards) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader input = new BufferedReader(new FileReader("HashTableData.txt"))) {
+            for (String line = input.readLine(); line != null; line = input.readLine()) {
+                lines.add(line);
+            }
+        }
+        String now = lines.get(0);
+        String[] parameters = now.split("[ :]");
+        if (now.charAt(0) != 'D') {
+            throw new IllegalArgumentException("Invalid data file: first line must contain a D command.");
+        }
+        if (numShards > 1) {
+            for (String line : lines) {
+                if (line.startsWith("P") || line.startsWith("T")) {
+                    throw new IllegalArgumentException("Invalid data file for sharded mode: " + line + " needs the "
+                                                       + "layout of one MyHashTable; run with 1 shard instead.");
+                }
+            }
+        }
+
+        PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)), false);
+        try (ShardedHashTable hashTable = new ShardedHashTable(numShards, Integer.parseInt(parameters[1]),
+                                                               Integer.parseInt(parameters[2]))) {
+            for (String line : lines.subList(1, lines.size())) {
+                if (!hashTable.execute(line, out)) {
                     break;
+                }
             }
+            hashTable.flush(out);
+        } finally {
+            out.flush();
+        }
+    }
 
+    /**
+     * Executes one line of the MyHashTable command protocol (C, H, A, R, S, M, P, T, or E) on the specified
+     * table (a MyHashTable or a GroupedHashTable).
+     * @param hashTable the table that the command applies to
+     * @param now the command line to be executed
+     * @param out the PrintStream that the response is to be printed to
+     * @return false if the line is an E command, true otherwise
+     */
+    public static boolean execute(StringHashTable hashTable, String now, PrintStream out) {
+
+        String[] parameters = now.split("[ :]");
+
+        switch (now.charAt(0)) {
+            case 'C':
+                hashTable.clear();
+                break;
+            case 'H':
+                out.println(parameters[1] + ' ' + hashTable.hash(parameters[1]));
+                break;
+            case 'A':
+                if (hashTable.insert(parameters[1], parameters[2])) {
+                    out.println("Key " + parameters[1] + " inserted");
+                } else {
+                    out.println("Key " + parameters[1] + " already exists");
+                }
+                break;
+            case 'R':
+                if (hashTable.delete(parameters[1])) {
+                    out.println("Key " + parameters[1] + " deleted");
+                } else {
+                    out.println("Key " + parameters[1] + " not found");
+                }
+                break;
+            case 'S':
+                String value = hashTable.find(parameters[1]);
+                if (!value.equals("")) {
+                    out.println("Key " + parameters[1] + ":" + value);
+                } else {
+                    out.println("Key " + parameters[1] + " not found");
+                }
+                break;
+            case 'M':
+                out.println("Membership is " + hashTable.membership());
+                break;
+            case 'P':
+                hashTable.listAll(out);
+                break;
+            case 'T':
+                hashTable.printStatistics(out);
+                break;
+            case 'E':
+                return false;
+            default:
+                out.println("Invalid input line: " + now);
+                break;
         }
+        return true;
 
     }
 
-}
\ No newline at end of file
+}
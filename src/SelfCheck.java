@@ -0,0 +1,275 @@
+import java.io.*;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * CS 3345 HON
+ * Self-checking driver for the tiered, sharded, and snapshot features of Projects 1 and 2
+ * Used compiler Java 14.0.1
+ * @author UGQM
+ */
+
+@SuppressWarnings("auxiliaryclass") // checks the package-private classes of Projects 1 and 2
+public class SelfCheck {
+
+    // Symbolic Constants
+    private static final long SEED = 2020;
+    private static final int TABLE_SIZE = 997; // the sz and R of HashTableData.txt
+    private static final int TABLE_R = 31;
+
+    // One of the checks run by main()
+    private interface Check {
+        void run() throws IOException;
+    }
+
+    // Fails the current check with the specified message unless condition holds
+    private static void expect(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    // Gives a random key of 1-3 upper-case letters drawn from the first numLetters letters of the alphabet
+    private static String randomKey(Random random, int numLetters) {
+        StringBuilder key = new StringBuilder();
+        for (int i = 1 + random.nextInt(3); i > 0; i--) {
+            key.append((char) ('A' + random.nextInt(numLetters)));
+        }
+        return key.toString();
+    }
+
+    // Gives a distinct key of upper-case letters for each non-negative number (its digits in base 26)
+    private static String numberedKey(int number) {
+        StringBuilder key = new StringBuilder();
+        do {
+            key.append((char) ('A' + number % 26));
+            number /= 26;
+        } while (number > 0);
+        return key.toString();
+    }
+
+    // Deletes the specified directory and the files in it
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    // Runs random inserts, deletes, and finds against a TreeMap through several close()/reopen cycles, so that
+    // both compaction and recovery from the manifest are exercised; a stray segment file left between cycles
+    // (as by a compaction that did not finish) must be ignored and removed
+    private static void checkTieredSkipList() throws IOException {
+        Random random = new Random(SEED);
+        TreeMap<Integer, String> expected = new TreeMap<>();
+        Path directory = Files.createTempDirectory("tiered");
+        try {
+            for (int cycle = 0; cycle < 3; cycle++) {
+                try (TieredSkipList list = new TieredSkipList(0.5, 16, 400, directory.toString())) {
+                    expect(list.membership() == expected.size(), "reopened membership " + list.membership()
+                                                                 + " should be " + expected.size());
+                    for (Map.Entry<Integer, String> pair : expected.entrySet()) {
+                        expect(list.find(pair.getKey()).equals(pair.getValue()), "key " + pair.getKey()
+                                                                                 + " lost on reopening");
+                    }
+                    for (int i = 0; i < 40000; i++) {
+                        int key = random.nextInt(8000);
+                        int operation = random.nextInt(3);
+                        if (operation == 0) {
+                            String value = "c" + cycle + "v" + i;
+                            boolean absent = expected.putIfAbsent(key, value) == null;
+                            expect(list.insert(key, value) == absent, "insert " + key + " at " + i);
+                        } else if (operation == 1) {
+                            boolean present = expected.remove(key) != null;
+                            expect(list.delete(key) == present, "delete " + key + " at " + i);
+                        } else {
+                            expect(list.find(key).equals(expected.getOrDefault(key, "")), "find " + key + " at " + i);
+                        }
+                        expect(list.membership() == expected.size(), "membership at " + i);
+                        expect(list.getNumSegments() <= TieredSkipList.MAX_SEGMENTS + 1,
+                               list.getNumSegments() + " segments: compaction is not keeping up");
+                    }
+                }
+                Files.write(directory.resolve("segment-999999.dat"), new byte[] {0});
+            }
+            try (TieredSkipList list = new TieredSkipList(0.5, 16, 400, directory.toString())) {
+                expect(list.membership() == expected.size(), "membership after the last reopening");
+                expect(!Files.exists(directory.resolve("segment-999999.dat")), "stray segment file kept");
+            }
+        } finally {
+            deleteDirectory(directory);
+        }
+    }
+
+    // Gives the output of the specified commands on one MyHashTable; a failure ends the output
+    private static String runSequential(List<String> commands) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true);
+        MyHashTable hashTable = new MyHashTable(TABLE_SIZE, TABLE_R);
+        try {
+            for (String command : commands) {
+                ProjectTwo.execute(hashTable, command, out);
+            }
+        } catch (RuntimeException e) {
+            out.println("Failed: " + e);
+        }
+        return bytes.toString();
+    }
+
+    // Gives the output of the specified commands on a ShardedHashTable; a failure ends the output
+    private static String runSharded(List<String> commands, int numShards) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true);
+        try (ShardedHashTable hashTable = new ShardedHashTable(numShards, TABLE_SIZE, TABLE_R)) {
+            for (String command : commands) {
+                hashTable.execute(command, out);
+            }
+            hashTable.flush(out);
+        } catch (RuntimeException e) {
+            out.println("Failed: " + e);
+        }
+        return bytes.toString();
+    }
+
+    // Compares the sharded engine with one MyHashTable: with one shard on every command, and with several on
+    // every command but P and T (which they refuse); then checks that an overflow, even of keys that all go to
+    // one shard, and a line without a key fail at the same command as in one MyHashTable
+    private static void checkShardedHashTable() {
+        Random random = new Random(SEED);
+        List<String> commands = new ArrayList<>();
+        List<String> perKeyCommands = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            String key = randomKey(random, 7);
+            int operation = random.nextInt(100);
+            String command;
+            if (operation < 35) {
+                command = "A " + key + ":v" + i;
+            } else if (operation < 60) {
+                command = "R " + key;
+            } else if (operation < 90) {
+                command = "S " + key;
+            } else if (operation < 95) {
+                command = "H " + key;
+            } else if (operation < 97) {
+                command = "M";
+            } else if (operation < 98) {
+                command = "C";
+            } else {
+                command = operation == 98 ? "P" : "T";
+            }
+            commands.add(command);
+            if (command.charAt(0) != 'P' && command.charAt(0) != 'T') {
+                perKeyCommands.add(command);
+            }
+        }
+        expect(runSharded(commands, 1).equals(runSequential(commands)), "1 shard differs from one MyHashTable");
+        String sequential = runSequential(perKeyCommands);
+        for (int numShards : new int[] {2, 4, 7}) {
+            expect(runSharded(perKeyCommands, numShards).equals(sequential),
+                   numShards + " shards differ from one MyHashTable");
+        }
+
+        // Fill the table until an insert overflows, removing and re-adding some keys along the way, once with keys
+        // spread over the shards (so that only the table as a whole fills up) and once with keys that all go to
+        // shard 0 of 4; no shard may fail before (or after) the table as a whole would
+        for (int spread = 1; spread >= 0; spread--) {
+            List<String> keys = new ArrayList<>();
+            for (int i = 0; keys.size() < TABLE_SIZE + 100; i++) {
+                if (spread == 1 || MyHashTable.hash(numberedKey(i), 4) == 0) {
+                    keys.add(numberedKey(i));
+                }
+            }
+            List<String> overflow = new ArrayList<>();
+            for (int i = 0; i < 10 * TABLE_SIZE; i++) {
+                String key = keys.get(random.nextInt(keys.size()));
+                int operation = random.nextInt(20);
+                overflow.add(operation < 16 ? "A " + key + ":" + i : operation < 17 ? "R " + key : "S " + key);
+            }
+            sequential = runSequential(overflow);
+            expect(sequential.contains("Overflow"), "the overflow commands did not fill one MyHashTable");
+            for (int numShards : new int[] {2, 4, 7}) {
+                expect(runSharded(overflow, numShards).equals(sequential),
+                       numShards + " shards did not overflow at the same command as one MyHashTable");
+            }
+        }
+
+        List<String> malformed = List.of("A AB:x", "A CD:y", "A");
+        expect(runSharded(malformed, 2).equals(runSequential(malformed)),
+               "the responses before a line without a key were not all printed first");
+        List<String> listing = List.of("A AB:x", "S AB", "P");
+        expect(runSharded(listing, 2).startsWith("Key AB inserted" + System.lineSeparator() + "Key AB:x"
+                                                 + System.lineSeparator() + "Failed"), "P was not refused");
+    }
+
+    // Applies random commands to a MyHashTable and snapshots of it (and of those), each checked against its own
+    // HashMap, so that a write through any table that shares pages must leave every other table unchanged
+    private static void checkSnapshots() {
+        Random random = new Random(SEED);
+        List<MyHashTable> tables = new ArrayList<>();
+        List<Map<String, String>> expected = new ArrayList<>();
+        tables.add(new MyHashTable(331, 7));
+        expected.add(new HashMap<>());
+        for (int i = 0; i < 200000; i++) {
+            int which = random.nextInt(tables.size());
+            MyHashTable table = tables.get(which);
+            Map<String, String> contents = expected.get(which);
+            String key = randomKey(random, 6);
+            int operation = random.nextInt(100);
+            if (operation < 40) {
+                if (contents.containsKey(key) || contents.size() < 300) {
+                    boolean absent = contents.putIfAbsent(key, "v" + i) == null;
+                    expect(table.insert(key, "v" + i) == absent, "insert " + key + " at " + i);
+                }
+            } else if (operation < 70) {
+                boolean present = contents.remove(key) != null;
+                expect(table.delete(key) == present, "delete " + key + " at " + i);
+            } else if (operation < 97) {
+                expect(table.find(key).equals(contents.getOrDefault(key, "")), "find " + key + " at " + i);
+            } else if (operation < 99) {
+                table.clear();
+                contents.clear();
+            } else if (tables.size() < 12) {
+                tables.add(table.snapshot());
+                expected.add(new HashMap<>(contents));
+            }
+            expect(table.membership() == contents.size(), "membership at " + i);
+        }
+        for (int which = 0; which < tables.size(); which++) {
+            for (Map.Entry<String, String> pair : expected.get(which).entrySet()) {
+                expect(tables.get(which).find(pair.getKey()).equals(pair.getValue()),
+                       "table " + which + " lost key " + pair.getKey());
+            }
+        }
+    }
+
+    /**
+     * Runs every check, printing whether each passed, and exits with status 1 if any failed.
+     * @param args not used
+     * @throws IOException if a temporary directory cannot be created or deleted
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, Check> checks = new LinkedHashMap<>();
+        checks.put("TieredSkipList compaction and recovery", SelfCheck::checkTieredSkipList);
+        checks.put("ShardedHashTable against MyHashTable", SelfCheck::checkShardedHashTable);
+        checks.put("MyHashTable copy-on-write snapshots", SelfCheck::checkSnapshots);
+
+        boolean passed = true;
+        for (Map.Entry<String, Check> check : checks.entrySet()) {
+            try {
+                check.getValue().run();
+                System.out.println(check.getKey() + ": passed");
+            } catch (IllegalStateException e) {
+                System.out.println(check.getKey() + ": FAILED (" + e.getMessage() + ")");
+                passed = false;
+            }
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+}
@@ -0,0 +1,605 @@
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * CS 3345 HON
+ * Workload generator and replay harness for Projects 1, 2 and 3
+ * Used compiler Java 14.0.1
+ * @author UGQM
+ */
+
+abstract class KeyDistribution {
+
+    protected final int keySpace;
+
+    /**
+     * Creates and returns a new KeyDistribution over the ranks [0, keySpace - 1].
+     * @param keySpace the number of distinct ranks; must be at least 1
+     */
+    protected KeyDistribution(int keySpace) {
+        if (keySpace < 1) {
+            throw new IllegalArgumentException("The key space of a KeyDistribution must contain at least 1 key!");
+        }
+        this.keySpace = keySpace;
+    }
+
+    /**
+     * Draws the next rank from this KeyDistribution.
+     * @param random the source of randomness to be used
+     * @return a rank in the range [0, keySpace - 1]
+     */
+    public abstract int next(Random random);
+
+    /**
+     * Gives the number of distinct ranks that this KeyDistribution can draw.
+     * @return the size of the key space
+     */
+    public int getKeySpace() {
+        return this.keySpace;
+    }
+
+    /**
+     * Creates and returns a KeyDistribution that draws every rank with equal probability.
+     * @param keySpace the number of distinct ranks; must be at least 1
+     * @return the new KeyDistribution
+     */
+    public static KeyDistribution uniform(int keySpace) {
+        return new KeyDistribution(keySpace) {
+            @Override
+            public int next(Random random) {
+                return random.nextInt(this.keySpace);
+            }
+        };
+    }
+
+    /**
+     * Creates and returns a KeyDistribution that draws the ranks in order, wrapping around after the last one.
+     * @param keySpace the number of distinct ranks; must be at least 1
+     * @return the new KeyDistribution
+     */
+    public static KeyDistribution sequential(int keySpace) {
+        return new KeyDistribution(keySpace) {
+            private int nextRank = 0;
+
+            @Override
+            public int next(Random random) {
+                int rank = this.nextRank;
+                this.nextRank = (rank + 1) % this.keySpace;
+                return rank;
+            }
+        };
+    }
+
+    /**
+     * Creates and returns a KeyDistribution in which the probability of the rank of popularity i is proportional
+     * to 1 / (i + 1)^theta, using the constant-time method of Gray et al. ("Quickly Generating Billion-Record
+     * Synthetic Databases"). Popularity is scrambled over the key space so that the hot keys are not adjacent.
+     * @param keySpace the number of distinct ranks; must be at least 1
+     * @param theta the skew of the distribution; must be in the range (0, 1), where 0.99 is typical
+     * @return the new KeyDistribution
+     */
+    public static KeyDistribution zipfian(int keySpace, double theta) {
+        if (!(theta > 0 && theta < 1)) {
+            throw new IllegalArgumentException("The skew of a Zipfian distribution must be in the range (0, 1)!");
+        }
+        double zetaN = 0;
+        for (int i = 1; i <= keySpace; i++) {
+            zetaN += 1 / Math.pow(i, theta);
+        }
+        double zeta2 = 1 + 1 / Math.pow(2, theta);
+        double alpha = 1 / (1 - theta);
+        double eta = (1 - Math.pow(2.0 / keySpace, 1 - theta)) / (1 - zeta2 / zetaN);
+        double finalZetaN = zetaN;
+        return new KeyDistribution(keySpace) {
+            @Override
+            public int next(Random random) {
+                double u = random.nextDouble();
+                double uz = u * finalZetaN;
+                long popularity;
+                if (uz < 1) {
+                    popularity = 0;
+                } else if (uz < zeta2) {
+                    popularity = 1;
+                } else {
+                    popularity = (long) (this.keySpace * Math.pow(eta * u - eta + 1, alpha));
+                    popularity = Math.min(this.keySpace - 1, popularity);
+                }
+                // Fibonacci hashing scatters popular ranks across the key space
+                return (int) Long.remainderUnsigned(popularity * 0x9E3779B97F4A7C15L, this.keySpace);
+            }
+        };
+    }
+
+    /**
+     * Creates and returns the KeyDistribution with the specified name.
+     * @param name "uniform", "sequential", or "zipfian" (which uses a skew of 0.99)
+     * @param keySpace the number of distinct ranks; must be at least 1
+     * @return the new KeyDistribution
+     */
+    public static KeyDistribution named(String name, int keySpace) {
+        switch (name) {
+            case "uniform":
+                return uniform(keySpace);
+            case "sequential":
+                return sequential(keySpace);
+            case "zipfian":
+                return zipfian(keySpace, 0.99);
+            default:
+                throw new IllegalArgumentException("Unknown key distribution: " + name);
+        }
+    }
+
+}
+
+class LatencyHistogram {
+
+    // Symbolic Constants
+    public static final int SUB_BUCKET_BITS = 7; // values are recorded to within 1 part in 2^SUB_BUCKET_BITS
+    private static final int HALF = 1 << SUB_BUCKET_BITS;
+
+    private final long[] counts = new long[HALF * (64 - SUB_BUCKET_BITS)];
+    private long count;
+    private long total;
+    private long max;
+
+    /**
+     * Records one value (e.g., a latency in nanoseconds). Like an HdrHistogram, values share buckets whose
+     * widths grow with their magnitude, so every value is kept to a fixed relative precision in constant space
+     * and recording costs a few instructions.
+     * @param value the value to be recorded; must be non-negative
+     */
+    public void record(long value) {
+        this.counts[indexOf(Math.max(0, value))]++;
+        this.count++;
+        this.total += value;
+        this.max = Math.max(this.max, value);
+    }
+
+    // Gives the index of the bucket containing the specified value
+    private static int indexOf(long value) {
+        if (value < 2 * HALF) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return HALF * shift + (int) (value >>> shift);
+    }
+
+    // Gives the largest value that falls in the bucket with the specified index
+    private static long highestValueOf(int index) {
+        if (index < 2 * HALF) {
+            return index;
+        }
+        int shift = index / HALF - 1;
+        long subBucket = index % HALF + HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Gives the value at the specified percentile of the values recorded, to the precision described above.
+     * @param percentile a number in the range [0, 100], e.g. 99.9
+     * @return the smallest bucket bound that at least that percentage of the values do not exceed, or 0 if no
+     *         values have been recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long threshold = Math.max(1, (long) Math.ceil(this.count * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < this.counts.length; i++) {
+            seen += this.counts[i];
+            if (seen >= threshold) {
+                return Math.min(highestValueOf(i), this.max);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Gives the number of values recorded.
+     * @return the count
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Gives the mean of the values recorded.
+     * @return the mean, or 0 if no values have been recorded
+     */
+    public double getMean() {
+        return this.count == 0 ? 0 : (double) this.total / this.count;
+    }
+
+    /**
+     * Gives the largest value recorded.
+     * @return the maximum, or 0 if no values have been recorded
+     */
+    public long getMax() {
+        return this.max;
+    }
+
+}
+
+@SuppressWarnings("auxiliaryclass") // drives the package-private classes of every Project
+public class Workload {
+
+    // Symbolic Constants
+    public static final int MIN_SKIP_LIST_KEY = 10000; // keys are in the range [9999, 99999] per problem spec
+    public static final int MAX_SKIP_LIST_KEY_SPACE = 90000;
+    public static final double AREA_SIZE = 100; // radios are placed in [0, AREA_SIZE) x [0, AREA_SIZE)
+    public static final int AREA_CELLS = 10; // per side; the key distribution chooses among these cells
+
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+
+    /**
+     * Writes a command file in the format of SkipListData.txt: numOps A (insert), S (search), and D (delete)
+     * commands in the specified proportions on keys drawn from the specified distribution, then M and E.
+     * @param path the path of the file to be (over)written
+     * @param numOps the number of A, S, and D commands
+     * @param keys the distribution of keys; its key space must not exceed MAX_SKIP_LIST_KEY_SPACE
+     * @param readFraction the proportion of S commands
+     * @param insertFraction the proportion of A commands (the rest are D commands)
+     * @param seed the seed for the random number generator, so that workloads can be reproduced
+     * @throws IOException if the file cannot be written
+     */
+    public static void generateSkipListCommands(String path, int numOps, KeyDistribution keys, double readFraction,
+                                                double insertFraction, long seed) throws IOException {
+        if (keys.getKeySpace() > MAX_SKIP_LIST_KEY_SPACE) {
+            throw new IllegalArgumentException("SkipList keys must be in the range [9999, 99999]!");
+        }
+        Random random = new Random(seed);
+        try (BufferedWriter out = Files.newBufferedWriter(Paths.get(path), StandardCharsets.US_ASCII)) {
+            for (int i = 0; i < numOps; i++) {
+                int key = MIN_SKIP_LIST_KEY + keys.next(random);
+                double choice = random.nextDouble();
+                if (choice < readFraction) {
+                    out.write("S " + key);
+                } else if (choice < readFraction + insertFraction) {
+                    out.write("A " + key + " val" + (10000 + random.nextInt(90000)));
+                } else {
+                    out.write("D " + key);
+                }
+                out.newLine();
+            }
+            out.write("M");
+            out.newLine();
+            out.write("E");
+            out.newLine();
+        }
+    }
+
+    /**
+     * Writes a command file in the format of HashTableData.txt: a D command creating a table of the specified
+     * size, then numOps A (insert), S (search), and R (remove) commands in the specified proportions on keys
+     * drawn from the specified distribution, then M, T, and E.
+     * @param path the path of the file to be (over)written
+     * @param numOps the number of A, S, and R commands
+     * @param keys the distribution of keys; its key space must be smaller than tableSize
+     * @param tableSize the size of the table; should be prime
+     * @param r the value of R for the table's secondary hash function
+     * @param readFraction the proportion of S commands
+     * @param insertFraction the proportion of A commands (the rest are R commands)
+     * @param seed the seed for the random number generator, so that workloads can be reproduced
+     * @throws IOException if the file cannot be written
+     */
+    public static void generateHashTableCommands(String path, int numOps, KeyDistribution keys, int tableSize,
+                                                 int r, double readFraction, double insertFraction, long seed)
+            throws IOException {
+        if (keys.getKeySpace() >= tableSize) {
+            throw new IllegalArgumentException("The key space must be smaller than the table to avoid overflow!");
+        }
+        Random random = new Random(seed);
+        try (BufferedWriter out = Files.newBufferedWriter(Paths.get(path), StandardCharsets.US_ASCII)) {
+            out.write("D " + tableSize + ":" + r);
+            out.newLine();
+            for (int i = 0; i < numOps; i++) {
+                String key = toLetters(keys.next(random));
+                double choice = random.nextDouble();
+                if (choice < readFraction) {
+                    out.write("S " + key);
+                } else if (choice < readFraction + insertFraction) {
+                    out.write("A " + key + ":v" + random.nextInt(10000));
+                } else {
+                    out.write("R " + key);
+                }
+                out.newLine();
+            }
+            out.write("M");
+            out.newLine();
+            out.write("T");
+            out.newLine();
+            out.write("E");
+            out.newLine();
+        }
+    }
+
+    // Converts a rank into a distinct key of upper-case letters (A, B, ..., Z, AA, AB, ...)
+    private static String toLetters(int rank) {
+        StringBuilder key = new StringBuilder();
+        for (long n = rank + 1L; n > 0; n = (n - 1) / 26) {
+            key.append((char) ('A' + (n - 1) % 26));
+        }
+        return key.reverse().toString();
+    }
+
+    /**
+     * Writes a radio location file in the format of GraphData.txt. The area is divided into AREA_CELLS x
+     * AREA_CELLS cells; each radio is placed uniformly within a cell drawn from the specified distribution, so
+     * a Zipfian distribution produces dense clusters and a sequential one spreads radios evenly.
+     * @param path the path of the file to be (over)written
+     * @param numRadios the number of radios
+     * @param cells the distribution of cells; its key space should be AREA_CELLS * AREA_CELLS
+     * @param radius the range of the radios
+     * @param seed the seed for the random number generator, so that workloads can be reproduced
+     * @throws IOException if the file cannot be written
+     */
+    public static void generateRadioLocations(String path, int numRadios, KeyDistribution cells, double radius,
+                                              long seed) throws IOException {
+        Random random = new Random(seed);
+        double cellSize = AREA_SIZE / AREA_CELLS;
+        double[][] locations = new double[numRadios][2];
+        for (int i = 0; i < numRadios; i++) {
+            int cell = cells.next(random) % (AREA_CELLS * AREA_CELLS);
+            locations[i][0] = (cell % AREA_CELLS + random.nextDouble()) * cellSize;
+            locations[i][1] = (cell / AREA_CELLS + random.nextDouble()) * cellSize;
+        }
+        GraphIO.writeText(path, new RadioNetwork(locations, radius));
+    }
+
+    /**
+     * Replays a SkipList command file (see generateSkipListCommands()) against a new SkipList, timing each
+     * command separately; the file is read completely before the clock starts, and output is discarded.
+     * @param path the path of the command file
+     * @param p the p value of the SkipList (0.25 in ProjectOne)
+     * @param maxLevel the maximum level of the SkipList (5 in ProjectOne)
+     * @param out the PrintStream that the report is to be printed to
+     * @throws IOException if the file cannot be read
+     */
+    public static void replaySkipList(String path, double p, int maxLevel, PrintStream out) throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(path), StandardCharsets.US_ASCII);
+        SkipList sl = new SkipList(p, maxLevel);
+        replay(lines, line -> ProjectOne.execute(sl, line, DISCARD), out);
+    }
+
+    /**
+     * Replays a MyHashTable command file (see generateHashTableCommands()) against a new MyHashTable created by
+     * its first line, timing each of the other commands separately as in replaySkipList().
+     * @param path the path of the command file
+     * @param out the PrintStream that the report is to be printed to
+     * @throws IOException if the file cannot be read
+     */
+    public static void replayHashTable(String path, PrintStream out) throws IOException {
+        List<String> lines = Files.readAllLines(Paths.get(path), StandardCharsets.US_ASCII);
+        String[] parameters = lines.get(0).split("[ :]");
+        if (lines.get(0).charAt(0) != 'D') {
+            throw new IllegalArgumentException("Invalid data file: first line must contain a D command.");
+        }
+        MyHashTable hashTable = new MyHashTable(Integer.parseInt(parameters[1]), Integer.parseInt(parameters[2]));
+        replay(lines.subList(1, lines.size()), line -> ProjectTwo.execute(hashTable, line, DISCARD), out);
+    }
+
+    // Times each line, recording the latencies of each command letter in its own histogram, and reports them;
+    // execute runs one line and is false once the session ends (i.e., after an E command)
+    private static void replay(List<String> lines, Predicate<String> execute, PrintStream out) {
+        Map<Character, LatencyHistogram> histograms = new TreeMap<>();
+        LatencyHistogram all = new LatencyHistogram();
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (String line : lines) {
+            long before = System.nanoTime();
+            boolean open = execute.test(line);
+            long latency = System.nanoTime() - before;
+            histograms.computeIfAbsent(line.charAt(0), letter -> new LatencyHistogram()).record(latency);
+            all.record(latency);
+            if (!open) {
+                break;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        for (Map.Entry<Character, LatencyHistogram> entry : histograms.entrySet()) {
+            printLatencies(String.valueOf(entry.getKey()), entry.getValue(), out);
+        }
+        printLatencies("all", all, out);
+        printTotals(all.getCount(), elapsed, allocated, out);
+    }
+
+    /**
+     * Replays the ProjectThree pipeline on a radio location file the specified number of times, timing each
+     * step (reading the file and building the graph, the minimal spanning tree, the unweighted graph, the
+     * shortest paths and diameter, and the chromatic number estimate) separately; output is discarded.
+     * @param path the path of the radio location file
+     * @param iterations the number of times the pipeline is run
+     * @param out the PrintStream that the report is to be printed to
+     * @throws IOException if the file cannot be read
+     */
+    public static void replayGraph(String path, int iterations, PrintStream out) throws IOException {
+        replayGraph(path, iterations, "none", out);
+    }
+
+    /**
+     * Replays the ProjectThree pipeline as in replayGraph() above, but renumbers the vertices of each graph by the
+     * specified VertexOrdering right after it is built, timing that step as well. The results are then about the
+     * renumbered vertices, so only the timings are comparable with those of an unordered replay.
+     * @param path the path of the radio location file
+     * @param iterations the number of times the pipeline is run
+     * @param ordering none (the file's order), rcm (Reverse Cuthill-McKee), degree, or hilbert
+     * @param out the PrintStream that the report is to be printed to
+     * @throws IOException if the file cannot be read
+     */
+    public static void replayGraph(String path, int iterations, String ordering, PrintStream out)
+            throws IOException {
+        String[] steps = {"read", "reorder", "mst", "bifurcate", "paths", "colour"};
+        LatencyHistogram[] histograms = new LatencyHistogram[steps.length];
+        for (int i = 0; i < steps.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+
+        PrintStream console = System.out;
+        System.setOut(DISCARD); // the steps print their results directly
+        long allocatedBefore = allocatedBytes();
+        long start = System.nanoTime();
+        WeightedGraph original = null, reordered = null; // those of the last iteration
+        try {
+            for (int i = 0; i < iterations; i++) {
+                long t0 = System.nanoTime();
+                RadioNetwork network = GraphIO.readText(path); // as in ProjectThree.makeGraphFromInputFile()
+                WeightedGraph graph = network.toGraph();
+                long t1 = System.nanoTime();
+                original = graph;
+                switch (ordering) {
+                    case "none":
+                        break;
+                    case "rcm":
+                        graph = graph.permute(VertexOrdering.reverseCuthillMcKee(graph).getNewToOld());
+                        break;
+                    case "degree":
+                        graph = graph.permute(VertexOrdering.byDegree(graph).getNewToOld());
+                        break;
+                    case "hilbert":
+                        graph = graph.permute(VertexOrdering.hilbertCurve(network.getLocations()).getNewToOld());
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown vertex ordering: " + ordering);
+                }
+                reordered = graph;
+                long t2 = System.nanoTime();
+                ProjectThree.produceMinimalSpanningTree(graph);
+                long t3 = System.nanoTime();
+                UnweightedGraph unweighted = graph.bifurcate();
+                long t4 = System.nanoTime();
+                ProjectThree.produceShortestPathsAndDiameter(unweighted);
+                long t5 = System.nanoTime();
+                DISCARD.println(unweighted.estimateChromaticNumber());
+                long t6 = System.nanoTime();
+                histograms[0].record(t1 - t0);
+                histograms[1].record(t2 - t1);
+                histograms[2].record(t3 - t2);
+                histograms[3].record(t4 - t3);
+                histograms[4].record(t5 - t4);
+                histograms[5].record(t6 - t5);
+            }
+        } finally {
+            System.setOut(console);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        if (original != null) {
+            out.println("ordering  " + ordering + " (bandwidth " + VertexOrdering.getBandwidth(original) + " -> "
+                        + VertexOrdering.getBandwidth(reordered) + ")");
+        }
+        for (int i = 0; i < steps.length; i++) {
+            printLatencies(steps[i], histograms[i], out);
+        }
+        printTotals(iterations, elapsed, allocated, out);
+    }
+
+    // Gives the number of bytes allocated by this thread so far, or -1 if the JVM cannot measure it (allocations
+    // by the worker threads of parallel steps are not included)
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    // Prints one line of latency percentiles (in nanoseconds)
+    private static void printLatencies(String name, LatencyHistogram histogram, PrintStream out) {
+        out.println(String.format("%-9s count=%d p50=%dns p99=%dns p999=%dns max=%dns mean=%.0fns", name,
+                histogram.getCount(), histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99),
+                histogram.getValueAtPercentile(99.9), histogram.getMax(), histogram.getMean()));
+    }
+
+    // Prints the throughput and allocation of a whole replay
+    private static void printTotals(long numOps, long elapsedNanos, long allocatedBytes, PrintStream out) {
+        double seconds = elapsedNanos / 1e9;
+        out.println(String.format("total     ops=%d time=%.3fs throughput=%.0f ops/s", numOps, seconds,
+                numOps / Math.max(seconds, 1e-9)));
+        if (allocatedBytes >= 0) {
+            out.println(String.format("allocated %d bytes (%.1f bytes/op)", allocatedBytes,
+                    (double) allocatedBytes / Math.max(numOps, 1)));
+        }
+    }
+
+    /**
+     * Generates or replays a workload, as described by the usage message below.
+     * @param args the command-line arguments
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("generate")) {
+            long seed = 0;
+            switch (args[1]) {
+                case "skiplist":
+                    if (args.length >= 8) {
+                        seed = args.length > 8 ? Long.parseLong(args[8]) : seed;
+                        generateSkipListCommands(args[2], Integer.parseInt(args[3]),
+                                KeyDistribution.named(args[4], Integer.parseInt(args[5])),
+                                Double.parseDouble(args[6]), Double.parseDouble(args[7]), seed);
+                        return;
+                    }
+                    break;
+                case "hashtable":
+                    if (args.length >= 10) {
+                        seed = args.length > 10 ? Long.parseLong(args[10]) : seed;
+                        generateHashTableCommands(args[2], Integer.parseInt(args[3]),
+                                KeyDistribution.named(args[4], Integer.parseInt(args[5])),
+                                Integer.parseInt(args[8]), Integer.parseInt(args[9]),
+                                Double.parseDouble(args[6]), Double.parseDouble(args[7]), seed);
+                        return;
+                    }
+                    break;
+                case "radios":
+                    if (args.length >= 6) {
+                        seed = args.length > 6 ? Long.parseLong(args[6]) : seed;
+                        generateRadioLocations(args[2], Integer.parseInt(args[3]),
+                                KeyDistribution.named(args[4], AREA_CELLS * AREA_CELLS),
+                                Double.parseDouble(args[5]), seed);
+                        return;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        } else if (args.length >= 3 && args[0].equals("replay")) {
+            switch (args[1]) {
+                case "skiplist":
+                    replaySkipList(args[2], args.length > 3 ? Double.parseDouble(args[3]) : 0.25,
+                            args.length > 4 ? Integer.parseInt(args[4]) : 5, System.out);
+                    return;
+                case "hashtable":
+                    replayHashTable(args[2], System.out);
+                    return;
+                case "graph":
+                    int iterations = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+                    if (args.length > 4 && !args[4].equals("none")) {
+                        replayGraph(args[2], iterations, "none", System.out); // the baseline to compare with
+                    }
+                    replayGraph(args[2], iterations, args.length > 4 ? args[4] : "none", System.out);
+                    return;
+                default:
+                    break;
+            }
+        }
+        System.out.println("Usage:");
+        System.out.println("  java Workload generate skiplist <file> <ops> <distribution> <keySpace> <read> <insert>"
+                           + " [seed]");
+        System.out.println("  java Workload generate hashtable <file> <ops> <distribution> <keySpace> <read> <insert>"
+                           + " <sz> <R> [seed]");
+        System.out.println("  java Workload generate radios <file> <radios> <distribution> <radius> [seed]");
+        System.out.println("  java Workload replay skiplist <file> [p] [maxLevel]");
+        System.out.println("  java Workload replay hashtable <file>");
+        System.out.println("  java Workload replay graph <file> [iterations] [ordering]");
+        System.out.println("where <distribution> is uniform, zipfian, or sequential and <read> and <insert> are the");
+        System.out.println("proportions of searches and inserts (the rest are deletes), and [ordering] is none, rcm,");
+        System.out.println("degree, or hilbert (a replay with an ordering is preceded by one without, to compare).");
+    }
+
+}